@@ -0,0 +1,110 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.ldxinsight.util.CsvRecordEncoder;
+import io.ldxinsight.util.JsonRecordReader;
+import io.ldxinsight.util.RecordEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chuyển JSON -> CSV của endpoint download.csv (pipeline record, CsvRecordEncoder) trên payload 1 KB đến 100 MB.
+ * encode đo riêng lượt ghi khi đã có danh sách cột, collectAndEncode đo cả lượt thu thập cột như trong service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class CsvExportBenchmark {
+
+    @Param({"1KB", "64KB", "1MB", "16MB", "100MB"})
+    public String size;
+
+    @Param({"flat", "nested", "ckan"})
+    public String shape;
+
+    private ObjectMapper objectMapper;
+    private RecordEncoder encoder;
+    private byte[] payload;
+    private List<String> columns;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        encoder = new CsvRecordEncoder();
+        payload = PortalPayloads.generate(shape, PortalPayloads.parseSize(size));
+        columns = collectColumns();
+    }
+
+    @Benchmark
+    public long encode() throws IOException {
+        return write(columns);
+    }
+
+    @Benchmark
+    public long collectAndEncode() throws IOException {
+        return write(collectColumns());
+    }
+
+    private List<String> collectColumns() throws IOException {
+        Set<String> seen = new LinkedHashSet<>();
+        try (JsonRecordReader reader = JsonRecordReader.open(new ByteArrayInputStream(payload), objectMapper)) {
+            ObjectNode record;
+            while ((record = reader.next()) != null) {
+                record.fieldNames().forEachRemaining(seen::add);
+            }
+        }
+        return new ArrayList<>(seen);
+    }
+
+    private long write(List<String> header) throws IOException {
+        long rows = 0;
+        try (JsonRecordReader reader = JsonRecordReader.open(new ByteArrayInputStream(payload), objectMapper)) {
+            RecordEncoder.Sink sink = encoder.open(OutputStream.nullOutputStream(), header, RecordEncoder.Options.DEFAULT);
+            ObjectNode record;
+            while ((record = reader.next()) != null) {
+                sink.write(record);
+                rows++;
+            }
+            sink.finish();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.ldxinsight.util.CsvRecordEncoder;
+import io.ldxinsight.util.RecordEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí trên từng ô CSV của CsvRecordEncoder: ô chuỗi (có/không cần quote) và ô theo từng loại giá trị JSON.
+ * Mỗi benchmark có state riêng nên chỉ chạy qua tham số của chính nó.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvValueBenchmark {
+
+    /** Ô chuỗi */
+    @State(Scope.Benchmark)
+    public static class TextState {
+
+        @Param({"plain", "comma", "quote", "long"})
+        public String cell;
+
+        ObjectNode record;
+        RecordEncoder.Sink sink;
+
+        @Setup
+        public void setUp() throws IOException {
+            String value = switch (cell) {
+                case "plain" -> "Số cơ sở y tế";
+                case "comma" -> "Hà Nội, Việt Nam";
+                case "quote" -> "Diện tích gieo trồng \"lúa\"";
+                default -> "Số liệu sơ bộ, chưa hiệu chỉnh. ".repeat(32);
+            };
+            record = JsonNodeFactory.instance.objectNode().put("v", value);
+            sink = openSink();
+        }
+    }
+
+    /** Ô theo loại giá trị JSON */
+    @State(Scope.Benchmark)
+    public static class NodeState {
+
+        @Param({"text", "number", "boolean", "null", "object", "array"})
+        public String node;
+
+        ObjectNode record;
+        RecordEncoder.Sink sink;
+
+        @Setup
+        public void setUp() throws IOException {
+            String json = switch (node) {
+                case "text" -> "\"Thừa Thiên Huế\"";
+                case "number" -> "12345.67";
+                case "boolean" -> "true";
+                case "null" -> "null";
+                case "object" -> "{\"tinh\":\"Đà Nẵng\",\"ma\":48,\"toa_do\":[16.05,108.2]}";
+                default -> "[1,2,3,\"bốn\",{\"nam\":5}]";
+            };
+            JsonNode value = new ObjectMapper().readTree(json);
+            record = JsonNodeFactory.instance.objectNode().set("v", value);
+            sink = openSink();
+        }
+    }
+
+    @Benchmark
+    public void writeText(TextState state) throws IOException {
+        state.sink.write(state.record);
+    }
+
+    @Benchmark
+    public void writeNode(NodeState state) throws IOException {
+        state.sink.write(state.record);
+    }
+
+    private static RecordEncoder.Sink openSink() throws IOException {
+        return new CsvRecordEncoder().open(OutputStream.nullOutputStream(), List.of("v"), RecordEncoder.Options.DEFAULT);
+    }
+}
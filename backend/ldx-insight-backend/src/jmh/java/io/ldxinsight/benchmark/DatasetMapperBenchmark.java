@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.benchmark;
+
+import io.ldxinsight.dto.DatasetDto;
+import io.ldxinsight.mapper.DatasetMapper;
+import io.ldxinsight.mapper.DatasetMapperImpl;
+import io.ldxinsight.model.Dataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí map entity -> DTO (một bản ghi và một trang 100 bản ghi).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatasetMapperBenchmark {
+
+    private DatasetMapper mapper;
+    private Dataset dataset;
+    private List<Dataset> page;
+
+    @Setup
+    public void setUp() {
+        mapper = new DatasetMapperImpl();
+        page = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            page.add(Dataset.builder()
+                    .id(Integer.toHexString(0x6650_0000 + i))
+                    .title("Danh sách cơ sở khám, chữa bệnh " + i)
+                    .description("Dữ liệu do Sở Y tế công bố định kỳ hàng quý")
+                    .source("data.gov.vn")
+                    .tags(List.of("y-te", "co-so", "thong-ke"))
+                    .category("Y tế")
+                    .categoryKey("y te")
+                    .dataUrl("https://data.gov.vn/dataset/" + i + ".json")
+                    .provider("Sở Y tế")
+                    .viewCount(1000L + i)
+                    .downloadCount(100L + i)
+                    .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
+                    .updatedAt(Instant.parse("2024-06-01T00:00:00Z"))
+                    .build());
+        }
+        dataset = page.get(0);
+    }
+
+    @Benchmark
+    public DatasetDto toDto() {
+        return mapper.toDto(dataset);
+    }
+
+    @Benchmark
+    public List<DatasetDto> toDtoList() {
+        return mapper.toDtoList(page);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.ldxinsight.util.ColumnarFile;
+import io.ldxinsight.util.GroupAggregator;
+import io.ldxinsight.util.JsonRecordReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tổng hợp theo nhóm (tỉnh thành -> count, sum, avg giá trị) trên cache dạng cột:
+ * song song theo chunk so với một luồng, và so với parse thẳng nội dung JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupAggregatorBenchmark {
+
+    /** 128MB ~ 1 triệu record dạng flat */
+    @Param({"16MB", "128MB"})
+    public String size;
+
+    private byte[] payload;
+    private Path file;
+    private ColumnarFile.Reader reader;
+    private ObjectMapper objectMapper;
+    private GroupAggregator aggregator;
+    private ForkJoinPool parallel;
+    private ForkJoinPool single;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        payload = PortalPayloads.generate("flat", PortalPayloads.parseSize(size));
+        file = Files.createTempFile("ldx-bench", ColumnarFile.EXTENSION);
+        try (JsonRecordReader records = JsonRecordReader.open(new ByteArrayInputStream(payload), objectMapper);
+             ColumnarFile.Writer writer = new ColumnarFile.Writer(file, 8192, Integer.MAX_VALUE)) {
+            ObjectNode record;
+            while ((record = records.next()) != null) {
+                writer.add(record);
+            }
+            writer.finish();
+        }
+        reader = ColumnarFile.Reader.open(file, objectMapper);
+        aggregator = new GroupAggregator("tinh_thanh", List.of(
+                GroupAggregator.Metric.parse("count"),
+                GroupAggregator.Metric.parse("sum:gia_tri"),
+                GroupAggregator.Metric.parse("avg:gia_tri")), 10_000);
+        parallel = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        single = new ForkJoinPool(1);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        parallel.shutdownNow();
+        single.shutdownNow();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public GroupAggregator.Groups columnarParallel() throws IOException {
+        return aggregator.aggregate(reader, parallel);
+    }
+
+    @Benchmark
+    public GroupAggregator.Groups columnarSingleThread() throws IOException {
+        return aggregator.aggregate(reader, single);
+    }
+
+    @Benchmark
+    public GroupAggregator.Groups json() throws IOException {
+        try (JsonRecordReader records = JsonRecordReader.open(new ByteArrayInputStream(payload), objectMapper)) {
+            return aggregator.aggregate(records.cursor(null));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Sinh payload JSON giống dữ liệu của các cổng dữ liệu mở (bảng phẳng, bản ghi lồng nhau,
+ * response dạng CKAN datastore_search) với kích thước xấp xỉ cho trước.
+ */
+final class PortalPayloads {
+
+    static final String[] PROVINCES = {
+            "Hà Nội", "TP. Hồ Chí Minh", "Đà Nẵng", "Hải Phòng", "Cần Thơ", "Thừa Thiên Huế",
+            "Quảng Ninh", "Nghệ An", "Khánh Hòa", "Đắk Lắk", "Lâm Đồng", "Bà Rịa - Vũng Tàu"};
+    static final String[] INDICATORS = {
+            "Số cơ sở y tế", "Số giường bệnh", "Tỷ lệ hộ nghèo (%)", "Dân số trung bình, nghìn người",
+            "Số trường tiểu học", "Diện tích gieo trồng \"lúa\"", "Lượt khách du lịch"};
+
+    private PortalPayloads() {
+    }
+
+    /** "1KB", "64KB", "1MB", "100MB" -> số byte */
+    static int parseSize(String size) {
+        String s = size.trim().toUpperCase(Locale.ROOT);
+        if (s.endsWith("MB")) {
+            return Integer.parseInt(s.substring(0, s.length() - 2)) * 1024 * 1024;
+        }
+        if (s.endsWith("KB")) {
+            return Integer.parseInt(s.substring(0, s.length() - 2)) * 1024;
+        }
+        return Integer.parseInt(s);
+    }
+
+    /**
+     * @param shape flat | nested | ckan
+     */
+    static byte[] generate(String shape, int targetBytes) {
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(targetBytes + 4096);
+        boolean ckan = "ckan".equals(shape);
+        boolean nested = "nested".equals(shape) || ckan;
+
+        write(out, ckan ? "{\"help\":\"datastore_search\",\"success\":true,\"result\":{\"records\":[" : "[");
+        int id = 0;
+        while (out.size() < targetBytes || id == 0) {
+            if (id > 0) {
+                write(out, ",");
+            }
+            write(out, nested ? nestedRecord(id, random) : flatRecord(id, random));
+            id++;
+        }
+        write(out, ckan ? "],\"total\":" + id + "}}" : "]");
+        return out.toByteArray();
+    }
+
+    private static String flatRecord(int id, Random random) {
+        return "{\"_id\":" + id
+                + ",\"tinh_thanh\":\"" + PROVINCES[random.nextInt(PROVINCES.length)] + "\""
+                + ",\"chi_tieu\":\"" + INDICATORS[random.nextInt(INDICATORS.length)].replace("\"", "\\\"") + "\""
+                + ",\"nam\":" + (2010 + random.nextInt(15))
+                + ",\"gia_tri\":" + Math.round(random.nextDouble() * 1_000_000) / 100.0
+                + ",\"don_vi\":\"" + (random.nextBoolean() ? "người" : "cơ sở") + "\""
+                + ",\"ghi_chu\":" + (random.nextInt(4) == 0 ? "\"Số liệu sơ bộ, chưa hiệu chỉnh\"" : "null")
+                + ",\"cong_bo\":" + random.nextBoolean()
+                + "}";
+    }
+
+    private static String nestedRecord(int id, Random random) {
+        return "{\"id\":\"rec-" + id + "\""
+                + ",\"ten\":\"" + INDICATORS[random.nextInt(INDICATORS.length)].replace("\"", "\\\"")
+                + " - " + PROVINCES[random.nextInt(PROVINCES.length)] + "\""
+                + ",\"dia_ban\":{\"tinh\":\"" + PROVINCES[random.nextInt(PROVINCES.length)] + "\""
+                + ",\"ma\":" + random.nextInt(100) + ",\"toa_do\":[" + (8 + random.nextDouble() * 15)
+                + "," + (102 + random.nextDouble() * 8) + "]}"
+                + ",\"so_lieu\":[" + random.nextInt(1000) + "," + random.nextInt(1000) + "," + random.nextInt(1000) + "]"
+                + ",\"tags\":[\"mo\",\"thong-ke\"]"
+                + ",\"cap_nhat\":\"2024-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10) + "T00:00:00Z\""
+                + "}";
+    }
+
+    private static void write(ByteArrayOutputStream out, String value) {
+        out.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
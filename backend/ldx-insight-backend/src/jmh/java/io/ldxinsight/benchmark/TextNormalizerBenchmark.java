@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.benchmark;
+
+import io.ldxinsight.util.TextNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * slugify (tìm file dự phòng theo tiêu đề) và categoryKey (lọc/group theo category).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextNormalizerBenchmark {
+
+    /** Khóa ASCII để tên tham số không bị hỏng encoding khi truyền sang JVM fork */
+    @Param({"vietnamese", "long", "ascii"})
+    public String kind;
+
+    private String title;
+
+    @Setup
+    public void setUp() {
+        title = switch (kind) {
+            case "vietnamese" -> "Dân số trung bình phân theo địa phương";
+            case "long" -> "Danh sách cơ sở khám, chữa bệnh (cập nhật 2024) - Sở Y tế Thừa Thiên Huế";
+            default -> "ascii dataset title";
+        };
+    }
+
+    @Benchmark
+    public String slugify() {
+        return TextNormalizer.slugify(title);
+    }
+
+    @Benchmark
+    public String categoryKey() {
+        return TextNormalizer.categoryKey(title);
+    }
+}
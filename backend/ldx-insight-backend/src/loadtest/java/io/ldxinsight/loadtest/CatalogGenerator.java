@@ -0,0 +1,224 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.loadtest;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import io.ldxinsight.model.Dataset;
+import io.ldxinsight.util.TextNormalizer;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Sinh catalog Dataset quy mô lớn (hàng triệu bản ghi) để profile search, stats và download:
+ * tiêu đề tiếng Việt có dấu, category/provider phân bố lệch, viewCount/downloadCount theo luật Zipf
+ * (rất ít dataset rất "hot", phần lớn gần như không ai xem). Nạp bằng insertMany không thứ tự
+ * trên nhiều luồng; index nên được tạo sau khi nạp (backend tự reconcile lúc khởi động
+ * hoặc qua POST /api/v1/admin/indexes/reconcile).
+ *
+ * <pre>
+ *   mvn -Ploadtest -DskipTests verify -Dloadtest.mainClass=io.ldxinsight.loadtest.CatalogGenerator \
+ *       -Dldx.gen.datasets=2000000 -Dldx.gen.mongo.uri=mongodb://localhost:27017/ldx-scale -Dldx.gen.drop=true
+ * </pre>
+ *
+ * Tham số: ldx.gen.datasets, ldx.gen.mongo.uri, ldx.gen.drop, ldx.gen.threads, ldx.gen.batch-size,
+ * ldx.gen.payloads (kèm sinh file JSON lớn, xem PayloadGenerator), ldx.gen.local-fraction,
+ * ldx.gen.upstream-base.
+ */
+public final class CatalogGenerator {
+
+    static final String COLLECTION = "datasets";
+    private static final long MAX_VIEWS = 2_000_000L;
+
+    private CatalogGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long count = Long.getLong("ldx.gen.datasets", 1_000_000L);
+        String uri = System.getProperty("ldx.gen.mongo.uri", "mongodb://localhost:27017/ldx-scale");
+        boolean drop = Boolean.parseBoolean(System.getProperty("ldx.gen.drop", "false"));
+        int threads = Integer.getInteger("ldx.gen.threads", Math.max(2, Runtime.getRuntime().availableProcessors()));
+        int batchSize = Integer.getInteger("ldx.gen.batch-size", 5_000);
+        boolean payloads = Boolean.parseBoolean(System.getProperty("ldx.gen.payloads", "true"));
+        double localFraction = Double.parseDouble(System.getProperty("ldx.gen.local-fraction", "0.2"));
+        String upstreamBase = System.getProperty("ldx.gen.upstream-base", "https://data.example.gov.vn");
+
+        List<String> localFiles = new ArrayList<>();
+        if (payloads) {
+            for (Path file : PayloadGenerator.generateFiles(PayloadGenerator.dataDir(),
+                    PayloadGenerator.sizes(), PayloadGenerator.shapes())) {
+                localFiles.add(file.toUri().toString());
+            }
+            System.out.printf("Payload files in %s: %d%n", PayloadGenerator.dataDir().toAbsolutePath(), localFiles.size());
+        }
+
+        ConnectionString connection = new ConnectionString(uri);
+        String database = connection.getDatabase() != null ? connection.getDatabase() : "ldx-scale";
+        try (MongoClient client = MongoClients.create(connection)) {
+            MongoCollection<Document> collection = client.getDatabase(database).getCollection(COLLECTION);
+            if (drop) {
+                collection.drop();
+            }
+            Random urlRandom = new Random(7);
+            LongFunction<String> dataUrl = seq -> {
+                // Một phần nhỏ không có dataUrl để đi qua nhánh tìm file dự phòng theo id/slug
+                if (seq % 50 == 0) {
+                    return null;
+                }
+                synchronized (urlRandom) {
+                    if (!localFiles.isEmpty() && urlRandom.nextDouble() < localFraction) {
+                        return localFiles.get(urlRandom.nextInt(localFiles.size()));
+                    }
+                }
+                return upstreamBase + "/dataset/" + seq + "/resource.json";
+            };
+
+            long started = System.nanoTime();
+            load(collection, count, threads, batchSize, dataUrl);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("Inserted %d datasets into %s.%s in %.1f s (%.0f docs/s)%n",
+                    count, database, COLLECTION, seconds, count / seconds);
+        }
+    }
+
+    /**
+     * Nạp count dataset song song; mỗi luồng sinh và insert các lô xen kẽ nhau
+     * (lô i thuộc luồng i % threads) với Random riêng nên kết quả lặp lại được.
+     */
+    static void load(MongoCollection<Document> collection, long count, int threads, int batchSize,
+                     LongFunction<String> dataUrl) throws Exception {
+        Instant now = Instant.now();
+        AtomicLong inserted = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int worker = t;
+                workers.add(pool.submit(() -> {
+                    Random random = new Random(1_000L + worker);
+                    InsertManyOptions options = new InsertManyOptions().ordered(false);
+                    for (long from = (long) worker * batchSize; from < count; from += (long) threads * batchSize) {
+                        long to = Math.min(count, from + batchSize);
+                        List<Document> batch = new ArrayList<>((int) (to - from));
+                        for (long seq = from; seq < to; seq++) {
+                            batch.add(dataset(random, seq, count, now, dataUrl.apply(seq)));
+                        }
+                        collection.insertMany(batch, options);
+                        inserted.addAndGet(batch.size());
+                    }
+                    return null;
+                }));
+            }
+
+            long lastReport = System.nanoTime();
+            for (Future<?> worker : workers) {
+                while (true) {
+                    try {
+                        worker.get(1, TimeUnit.SECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        if (System.nanoTime() - lastReport > TimeUnit.SECONDS.toNanos(5)) {
+                            System.out.printf("  %,d / %,d datasets%n", inserted.get(), count);
+                            lastReport = System.nanoTime();
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Một document datasets giống hệt cách Spring Data ghi entity Dataset */
+    static Document dataset(Random random, long seq, long catalogSize, Instant now, String dataUrl) {
+        Vocabulary.Category category = Vocabulary.category(random);
+        String province = Vocabulary.province(random);
+        String topic = category.topics().get(random.nextInt(category.topics().size()));
+        int year = 2015 + random.nextInt(10);
+
+        String title = switch (random.nextInt(4)) {
+            case 0 -> capitalize(topic) + " tỉnh " + province + " năm " + year;
+            case 1 -> "Danh sách " + topic + " trên địa bàn " + province;
+            case 2 -> "Thống kê " + topic + " giai đoạn " + (year - 5) + "-" + year;
+            default -> "Số liệu " + topic + " " + province + " (cập nhật " + year + ")";
+        };
+
+        // Một số bản ghi viết category khác chữ hoa/khoảng trắng, như dữ liệu thu thập thật
+        String categoryName = switch (random.nextInt(40)) {
+            case 0 -> category.name().toLowerCase(Locale.ROOT);
+            case 1 -> category.name().toUpperCase(Locale.ROOT);
+            case 2 -> "  " + category.name() + " ";
+            default -> category.name();
+        };
+
+        // Zipf theo hạng: hạng r (ngẫu nhiên đều) có lượt xem MAX_VIEWS / r
+        long rank = 1 + (long) (random.nextDouble() * catalogSize);
+        long views = MAX_VIEWS / rank;
+        long downloads = (long) (views * (0.02 + random.nextDouble() * 0.2));
+
+        Instant createdAt = now.minus(Duration.ofMinutes((long) (random.nextDouble() * 5 * 365 * 24 * 60)));
+        Instant updatedAt = createdAt.plus(Duration.ofMinutes((long) (random.nextDouble()
+                * Duration.between(createdAt, now).toMinutes())));
+
+        List<String> tags = new ArrayList<>(category.tags());
+        tags.add(TextNormalizer.slugify(province));
+
+        Document document = new Document("_id", new ObjectId())
+                .append("title", title)
+                .append("description", "Bộ dữ liệu " + topic + " do " + category.agency() + " " + province
+                        + " công bố, số hiệu " + seq + ".")
+                .append("source", random.nextInt(3) == 0 ? "data.gov.vn" : "opendata." + TextNormalizer.slugify(province) + ".gov.vn")
+                .append("tags", tags)
+                .append("category", categoryName)
+                .append("categoryKey", TextNormalizer.categoryKey(categoryName))
+                .append("provider", category.agency() + " " + province)
+                .append("providerKey", TextNormalizer.providerKey(category.agency() + " " + province))
+                .append("viewCount", views)
+                .append("downloadCount", downloads)
+                .append("createdAt", Date.from(createdAt))
+                .append("updatedAt", Date.from(updatedAt))
+                .append("_class", Dataset.class.getName());
+        // Spring Data không ghi field null
+        if (dataUrl != null) {
+            document.append("dataUrl", dataUrl);
+        }
+        return document;
+    }
+
+    private static String capitalize(String value) {
+        return value.isEmpty() ? value : Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Các loại request trong bài tải. Dataset được chọn lệch về một nhóm "nóng"
+ * giống lưu lượng thật (vài dataset được xem nhiều hơn hẳn phần còn lại).
+ */
+enum Endpoint {
+
+    SEARCH("search") {
+        @Override
+        HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+            String query = switch (random.nextInt(3)) {
+                case 0 -> "category=" + encode(catalog.category(random));
+                case 1 -> "q=" + encode(catalog.keyword(random));
+                default -> "page=" + random.nextInt(20);
+            };
+            return get(baseUrl + "/api/v1/datasets?" + query + "&size=20");
+        }
+    },
+    DETAIL("detail") {
+        @Override
+        HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+            return get(baseUrl + "/api/v1/datasets/" + catalog.datasetId(random));
+        }
+    },
+    VIEW("view") {
+        @Override
+        HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/datasets/" + catalog.datasetId(random) + "/view"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+        }
+    },
+    STATS("stats") {
+        @Override
+        HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+            String path = switch (random.nextInt(4)) {
+                case 0 -> "summary";
+                case 1 -> "by-category";
+                case 2 -> "top-viewed?limit=10";
+                default -> "top-downloaded?limit=10";
+            };
+            return get(baseUrl + "/api/v1/stats/" + path);
+        }
+    },
+    CSV("csv") {
+        @Override
+        HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+            return get(baseUrl + "/api/v1/datasets/" + catalog.datasetId(random) + "/download.csv");
+        }
+    };
+
+    private final String key;
+
+    Endpoint(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    abstract HttpRequest request(String baseUrl, Catalog catalog, Random random);
+
+    static Endpoint fromKey(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equalsIgnoreCase(key.trim())) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint '" + key + "', expected one of search, detail, view, stats, csv");
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /** Những gì bài tải cần biết về catalog đã nạp */
+    record Catalog(List<String> ids, List<String> categories, List<String> keywords) {
+
+        /** 20% dataset "nóng" nhận 80% lượt truy cập */
+        String datasetId(Random random) {
+            int hot = Math.max(1, ids.size() / 5);
+            int index = random.nextInt(10) < 8 ? random.nextInt(hot) : random.nextInt(ids.size());
+            return ids.get(index);
+        }
+
+        String category(Random random) {
+            return categories.get(random.nextInt(categories.size()));
+        }
+
+        String keyword(Random random) {
+            return keywords.get(random.nextInt(keywords.size()));
+        }
+    }
+}
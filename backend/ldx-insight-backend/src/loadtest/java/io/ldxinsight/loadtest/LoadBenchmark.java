@@ -0,0 +1,229 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mongodb.client.MongoCollection;
+import io.ldxinsight.LdxInsightBackendApplication;
+import io.ldxinsight.service.CategoryRegistry;
+import io.ldxinsight.service.IndexManager;
+import io.ldxinsight.support.EmbeddedMongo;
+import org.bson.Document;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Benchmark tải HTTP đầu-cuối: khởi chạy backend trên Mongo cục bộ và một upstream giả lập,
+ * nạp catalog, rồi tăng dần tốc độ đến cho từng kịch bản (mix mặc định và từng endpoint riêng)
+ * cho tới khi bão hòa. In bảng throughput + p50/p99/p99.9 và ghi JSON để so sánh giữa các bản.
+ *
+ * <pre>
+ *   mvn -Ploadtest -DskipTests verify -Dldx.load.rates=50,100,200 -Dldx.test.mongo.uri=mongodb://localhost:27017
+ * </pre>
+ *
+ * Tham số (system property): ldx.load.rates, ldx.load.warmup-seconds, ldx.load.duration-seconds,
+ * ldx.load.mix, ldx.load.per-endpoint, ldx.load.datasets, ldx.load.payload-kb, ldx.load.payload-shape,
+ * ldx.load.upstream-latency-ms, ldx.load.slo-p99-ms, ldx.load.max-in-flight, ldx.load.report.
+ */
+public final class LoadBenchmark {
+
+    static final String DATABASE = "ldx-loadtest";
+
+    /** Số id dataset tối đa giữ trong bộ nhớ để chọn ngẫu nhiên khi bắn tải */
+    private static final int MAX_SAMPLED_IDS = 100_000;
+
+    private LoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Double> rates = new ArrayList<>();
+        for (String rate : System.getProperty("ldx.load.rates", "25,50,100,200,400,800").split(",")) {
+            rates.add(Double.parseDouble(rate.trim()));
+        }
+        Duration warmup = Duration.ofSeconds(Long.getLong("ldx.load.warmup-seconds", 10));
+        Duration duration = Duration.ofSeconds(Long.getLong("ldx.load.duration-seconds", 30));
+        Map<Endpoint, Integer> mix = parseMix(System.getProperty("ldx.load.mix", "search:35,detail:25,view:15,stats:15,csv:10"));
+        boolean perEndpoint = Boolean.parseBoolean(System.getProperty("ldx.load.per-endpoint", "true"));
+        int datasets = Integer.getInteger("ldx.load.datasets", 5_000);
+        int payloadKb = Integer.getInteger("ldx.load.payload-kb", 256);
+        PayloadGenerator.Shape payloadShape = PayloadGenerator.Shape.valueOf(
+                System.getProperty("ldx.load.payload-shape", "flat").toUpperCase(Locale.ROOT));
+        long upstreamLatencyMs = Long.getLong("ldx.load.upstream-latency-ms", 20);
+        double sloP99Ms = Double.parseDouble(System.getProperty("ldx.load.slo-p99-ms", "500"));
+        int maxInFlight = Integer.getInteger("ldx.load.max-in-flight", 1_024);
+        Path reportFile = Paths.get(System.getProperty("ldx.load.report", "target/loadtest-result.json"));
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(16);
+        try (StubUpstream upstream = new StubUpstream(PayloadGenerator.generate(payloadShape, payloadKb * 1024L), upstreamLatencyMs, 64);
+             ConfigurableApplicationContext app = startApplication()) {
+
+            int port = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+            String baseUrl = "http://127.0.0.1:" + port;
+            Endpoint.Catalog catalog = seedCatalog(app, upstream, datasets);
+            System.out.printf("Backend on %s, %d datasets, upstream payload %d KB (%s)%n",
+                    baseUrl, datasets, payloadKb, payloadShape);
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(clientExecutor)
+                    .build();
+            OpenLoopDriver driver = new OpenLoopDriver(client, baseUrl, catalog, maxInFlight, Duration.ofSeconds(30));
+
+            Map<String, Map<Endpoint, Integer>> scenarios = new LinkedHashMap<>();
+            scenarios.put("mix", mix);
+            if (perEndpoint) {
+                for (Endpoint endpoint : mix.keySet()) {
+                    scenarios.put(endpoint.key(), Map.of(endpoint, 1));
+                }
+            }
+
+            List<StepResult> results = new ArrayList<>();
+            Map<String, Double> saturation = new LinkedHashMap<>();
+            for (Map.Entry<String, Map<Endpoint, Integer>> scenario : scenarios.entrySet()) {
+                for (double rate : rates) {
+                    List<StepResult> step = driver.run(scenario.getKey(), scenario.getValue(), rate, warmup, duration);
+                    results.addAll(step);
+                    print(step);
+                    StepResult overall = step.get(step.size() - 1);
+                    if (overall.saturated(sloP99Ms)) {
+                        saturation.put(scenario.getKey(), rate);
+                        System.out.printf("Scenario '%s' saturated at %.0f req/s%n", scenario.getKey(), rate);
+                        break;
+                    }
+                }
+                saturation.putIfAbsent(scenario.getKey(), null);
+            }
+
+            writeReport(reportFile, rates, warmup, duration, mix, datasets, payloadKb, payloadShape, upstreamLatencyMs,
+                    sloP99Ms, saturation, results);
+            System.out.printf("Upstream served %d requests. Report written to %s%n",
+                    upstream.requests(), reportFile.toAbsolutePath());
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private static ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(LdxInsightBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.data.mongodb.uri=" + EmbeddedMongo.uri() + "/" + DATABASE,
+                        "spring.data.mongodb.database=" + DATABASE,
+                        "ldx.indexes.reconcile-on-startup=false",
+                        "ldx.categories.backfill.enabled=false",
+                        // Đo năng lực xử lý của ứng dụng, không đo rate limiter (mọi request đến từ một IP)
+                        "ldx.ratelimit.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.security=WARN",
+                        "ldx.logging.dir=target/loadtest-logs")
+                .run();
+    }
+
+    private static Endpoint.Catalog seedCatalog(ConfigurableApplicationContext app, StubUpstream upstream, int count)
+            throws Exception {
+        MongoTemplate mongoTemplate = app.getBean(MongoTemplate.class);
+        mongoTemplate.getDb().drop();
+        MongoCollection<Document> collection = mongoTemplate.getCollection(CatalogGenerator.COLLECTION);
+        CatalogGenerator.load(collection, count, Math.max(2, Runtime.getRuntime().availableProcessors()), 5_000,
+                seq -> upstream.dataUrl("d" + seq));
+        app.getBean(IndexManager.class).reconcile();
+        app.getBean(CategoryRegistry.class).invalidate();
+
+        List<String> ids = new ArrayList<>();
+        for (Document document : collection.find().projection(new Document("_id", 1)).limit(MAX_SAMPLED_IDS)) {
+            ids.add(document.getObjectId("_id").toHexString());
+        }
+        List<String> categories = Vocabulary.CATEGORIES.stream().map(Vocabulary.Category::name).toList();
+        return new Endpoint.Catalog(ids, categories, Vocabulary.KEYWORDS);
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] kv = part.split(":");
+            int weight = kv.length > 1 ? Integer.parseInt(kv[1].trim()) : 1;
+            if (weight > 0) {
+                mix.put(Endpoint.fromKey(kv[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("ldx.load.mix must contain at least one endpoint");
+        }
+        return mix;
+    }
+
+    private static void print(List<StepResult> step) {
+        System.out.printf("%-8s %-8s %9s %9s %8s %6s %6s %9s %9s %9s %9s%n",
+                "scenario", "endpoint", "offered", "achieved", "count", "err", "drop", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (StepResult r : step) {
+            System.out.printf("%-8s %-8s %9.1f %9.1f %8d %6d %6d %9.2f %9.2f %9.2f %9.2f%n",
+                    r.scenario(), r.endpoint(), r.offeredRps(), r.achievedRps(), r.requests(), r.errors(), r.dropped(),
+                    r.p50Ms(), r.p99Ms(), r.p999Ms(), r.maxMs());
+        }
+    }
+
+    private static void writeReport(Path file, List<Double> rates, Duration warmup, Duration duration,
+                                    Map<Endpoint, Integer> mix, int datasets, int payloadKb,
+                                    PayloadGenerator.Shape payloadShape, long upstreamLatencyMs,
+                                    double sloP99Ms, Map<String, Double> saturation, List<StepResult> results) throws Exception {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("rates", rates);
+        config.put("warmupSeconds", warmup.toSeconds());
+        config.put("durationSeconds", duration.toSeconds());
+        Map<String, Integer> mixByKey = new LinkedHashMap<>();
+        mix.forEach((endpoint, weight) -> mixByKey.put(endpoint.key(), weight));
+        config.put("mix", mixByKey);
+        config.put("datasets", datasets);
+        config.put("payloadKb", payloadKb);
+        config.put("payloadShape", payloadShape.name().toLowerCase(Locale.ROOT));
+        config.put("upstreamLatencyMs", upstreamLatencyMs);
+        config.put("sloP99Ms", sloP99Ms);
+        config.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        config.put("javaVersion", System.getProperty("java.version"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("config", config);
+        report.put("saturationRps", saturation);
+        report.put("results", results);
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bắn request theo tốc độ đến cố định (open model): request thứ i được lên lịch tại
+ * start + i / rate bất kể các request trước đã xong chưa. Độ trễ được tính từ thời điểm
+ * lẽ ra phải gửi, nên khi server chậm lại thì hàng đợi phía client cũng hiện ra trong
+ * p99/p99.9 (không bị coordinated omission).
+ */
+final class OpenLoopDriver {
+
+    /** Độ trễ lớn nhất ghi nhận được, micro giây */
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Endpoint.Catalog catalog;
+    private final int maxInFlight;
+    private final Duration requestTimeout;
+
+    OpenLoopDriver(HttpClient client, String baseUrl, Endpoint.Catalog catalog, int maxInFlight, Duration requestTimeout) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.catalog = catalog;
+        this.maxInFlight = maxInFlight;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Chạy một bậc tải: warmup (không ghi nhận) rồi đo trong duration.
+     * Trả về kết quả theo từng endpoint và một dòng tổng hợp (endpoint = "all").
+     */
+    List<StepResult> run(String scenario, Map<Endpoint, Integer> mix, double rate,
+                         Duration warmup, Duration duration) throws InterruptedException {
+        List<Endpoint> endpoints = new ArrayList<>(mix.keySet());
+        int[] cumulative = new int[endpoints.size()];
+        int total = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            total += mix.get(endpoints.get(i));
+            cumulative[i] = total;
+        }
+
+        Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : endpoints) {
+            stats.put(endpoint, new Stats());
+        }
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Random random = new Random(scenario.hashCode() * 31L + (long) rate);
+        long intervalNanos = (long) (1_000_000_000L / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            int pick = random.nextInt(total);
+            int index = 0;
+            while (cumulative[index] <= pick) {
+                index++;
+            }
+            Endpoint endpoint = endpoints.get(index);
+            Stats endpointStats = stats.get(endpoint);
+            boolean measured = intended >= measureFrom;
+
+            if (!inFlight.tryAcquire()) {
+                // Client đã hết chỗ: server bão hòa quá xa, tính là request bị bỏ
+                if (measured) {
+                    endpointStats.dropped.increment();
+                }
+                continue;
+            }
+            client.sendAsync(endpoint.request(baseUrl, catalog, random), HttpResponse.BodyHandlers.discarding())
+                    .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((response, error) -> {
+                        try {
+                            if (measured) {
+                                long micros = (System.nanoTime() - intended) / 1_000;
+                                endpointStats.latency.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                                if (error != null || response.statusCode() >= 400) {
+                                    endpointStats.errors.increment();
+                                }
+                            }
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+        }
+
+        // Đợi các request còn treo để p99.9 tính cả những request chậm nhất
+        inFlight.tryAcquire(maxInFlight, requestTimeout.toMillis() + 1_000, TimeUnit.MILLISECONDS);
+
+        double seconds = duration.toNanos() / 1e9;
+        double offeredTotal = 0;
+        List<StepResult> results = new ArrayList<>();
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        long allErrors = 0;
+        long allDropped = 0;
+        for (Endpoint endpoint : endpoints) {
+            Stats s = stats.get(endpoint);
+            double offered = rate * mix.get(endpoint) / total;
+            offeredTotal += offered;
+            results.add(StepResult.of(scenario, endpoint.key(), offered, seconds,
+                    s.latency, s.errors.sum(), s.dropped.sum()));
+            all.add(s.latency);
+            allErrors += s.errors.sum();
+            allDropped += s.dropped.sum();
+        }
+        results.add(StepResult.of(scenario, StepResult.ALL, offeredTotal, seconds, all, allErrors, allDropped));
+        return results;
+    }
+
+    private static final class Stats {
+        final ConcurrentHistogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.loadtest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Sinh file JSON lớn giống dữ liệu trên các cổng dữ liệu mở, ghi theo luồng nên kích thước
+ * file không bị giới hạn bởi heap:
+ * <ul>
+ *   <li>flat: mảng bản ghi phẳng vài cột (bảng thống kê thông thường)</li>
+ *   <li>wide: mảng bản ghi hàng trăm cột</li>
+ *   <li>deep: mỗi bản ghi lồng object nhiều tầng</li>
+ *   <li>nested: bản ghi có object con và mảng object (chi tiết theo dòng)</li>
+ *   <li>ckan: response datastore_search của CKAN (mảng records nằm trong result)</li>
+ * </ul>
+ *
+ * <pre>
+ *   mvn -Ploadtest -DskipTests verify -Dloadtest.mainClass=io.ldxinsight.loadtest.PayloadGenerator \
+ *       -Dldx.data.dir=/mnt/data -Dldx.gen.payload-sizes=1MB,100MB
+ * </pre>
+ */
+public final class PayloadGenerator {
+
+    enum Shape { FLAT, WIDE, DEEP, NESTED, CKAN }
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private PayloadGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        for (Path file : generateFiles(dataDir(), sizes(), shapes())) {
+            System.out.printf("%s (%d bytes)%n", file.toAbsolutePath(), Files.size(file));
+        }
+    }
+
+    /** Thư mục dữ liệu giống cấu hình ldx.data.dir của backend */
+    static Path dataDir() {
+        String env = System.getenv("LDX_DATA_DIR");
+        return Paths.get(System.getProperty("ldx.data.dir", env != null ? env : "/mnt/data"));
+    }
+
+    static List<String> sizes() {
+        return List.of(System.getProperty("ldx.gen.payload-sizes", "1MB,16MB,128MB").split(","));
+    }
+
+    static List<Shape> shapes() {
+        List<Shape> shapes = new ArrayList<>();
+        for (String shape : System.getProperty("ldx.gen.payload-shapes", "flat,wide,deep,nested,ckan").split(",")) {
+            shapes.add(Shape.valueOf(shape.trim().toUpperCase(Locale.ROOT)));
+        }
+        return shapes;
+    }
+
+    /** Ghi mỗi tổ hợp shape x size thành {shape}-{size}.json trong thư mục, bỏ qua file đã có */
+    static List<Path> generateFiles(Path dir, List<String> sizes, List<Shape> shapes) throws IOException {
+        Files.createDirectories(dir);
+        List<Path> files = new ArrayList<>();
+        for (Shape shape : shapes) {
+            for (String size : sizes) {
+                Path file = dir.resolve(shape.name().toLowerCase(Locale.ROOT) + "-" + size.trim().toLowerCase(Locale.ROOT) + ".json");
+                if (!Files.exists(file)) {
+                    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+                        write(shape, parseSize(size), out);
+                    }
+                }
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    static byte[] generate(Shape shape, long targetBytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, targetBytes + 4096));
+        try {
+            write(shape, targetBytes, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /** "64KB", "1MB", "2GB" hoặc số byte */
+    static long parseSize(String size) {
+        String s = size.trim().toUpperCase(Locale.ROOT);
+        if (s.endsWith("GB")) {
+            return Long.parseLong(s.substring(0, s.length() - 2)) << 30;
+        }
+        if (s.endsWith("MB")) {
+            return Long.parseLong(s.substring(0, s.length() - 2)) << 20;
+        }
+        if (s.endsWith("KB")) {
+            return Long.parseLong(s.substring(0, s.length() - 2)) << 10;
+        }
+        return Long.parseLong(s);
+    }
+
+    /** Ghi payload có kích thước xấp xỉ targetBytes (luôn có ít nhất một bản ghi) */
+    static void write(Shape shape, long targetBytes, OutputStream target) throws IOException {
+        CountingOutputStream out = new CountingOutputStream(target);
+        Random random = new Random(42);
+        try (JsonGenerator gen = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            gen.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            if (shape == Shape.CKAN) {
+                gen.writeStartObject();
+                gen.writeStringField("help", "https://data.gov.vn/api/3/action/help_show?name=datastore_search");
+                gen.writeBooleanField("success", true);
+                gen.writeObjectFieldStart("result");
+                gen.writeStringField("resource_id", "5f1c2a9e-4b7d-4c1e-9a55-0d3c7e2b8f10");
+                gen.writeArrayFieldStart("fields");
+                for (String field : new String[]{"_id", "tinh_thanh", "chi_tieu", "nam", "gia_tri", "don_vi", "ghi_chu", "cong_bo"}) {
+                    gen.writeStartObject();
+                    gen.writeStringField("id", field);
+                    gen.writeStringField("type", field.equals("nam") || field.equals("_id") ? "int" : "text");
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+                gen.writeArrayFieldStart("records");
+            } else {
+                gen.writeStartArray();
+            }
+
+            long records = 0;
+            do {
+                switch (shape) {
+                    case WIDE -> wideRecord(gen, records, random);
+                    case DEEP -> deepRecord(gen, records, random);
+                    case NESTED -> nestedRecord(gen, records, random);
+                    default -> flatRecord(gen, records, random);
+                }
+                records++;
+            } while (out.count() + gen.getOutputBuffered() < targetBytes);
+
+            gen.writeEndArray();
+            if (shape == Shape.CKAN) {
+                gen.writeObjectFieldStart("_links");
+                gen.writeStringField("start", "/api/3/action/datastore_search");
+                gen.writeStringField("next", "/api/3/action/datastore_search?offset=" + records);
+                gen.writeEndObject();
+                gen.writeNumberField("total", records);
+                gen.writeEndObject();
+                gen.writeEndObject();
+            }
+        }
+    }
+
+    /* ====================== Records ====================== */
+
+    private static void flatRecord(JsonGenerator gen, long id, Random random) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("_id", id + 1);
+        gen.writeStringField("tinh_thanh", Vocabulary.province(random));
+        gen.writeStringField("chi_tieu", Vocabulary.indicator(random));
+        gen.writeNumberField("nam", 2010 + random.nextInt(15));
+        gen.writeNumberField("gia_tri", Math.round(random.nextDouble() * 1_000_000) / 100.0);
+        gen.writeStringField("don_vi", random.nextBoolean() ? "người" : "cơ sở");
+        if (random.nextInt(4) == 0) {
+            gen.writeStringField("ghi_chu", "Số liệu sơ bộ, chưa hiệu chỉnh");
+        } else {
+            gen.writeNullField("ghi_chu");
+        }
+        gen.writeBooleanField("cong_bo", random.nextBoolean());
+        gen.writeEndObject();
+    }
+
+    private static void wideRecord(JsonGenerator gen, long id, Random random) throws IOException {
+        int columns = Integer.getInteger("ldx.gen.wide-columns", 200);
+        gen.writeStartObject();
+        gen.writeNumberField("_id", id + 1);
+        for (int c = 1; c < columns; c++) {
+            String name = String.format("cot_%03d", c);
+            switch (c % 4) {
+                case 0 -> gen.writeNumberField(name, random.nextInt(100_000));
+                case 1 -> gen.writeNumberField(name, Math.round(random.nextDouble() * 10_000) / 100.0);
+                case 2 -> gen.writeStringField(name, Vocabulary.province(random));
+                default -> gen.writeBooleanField(name, random.nextBoolean());
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private static void deepRecord(JsonGenerator gen, long id, Random random) throws IOException {
+        int depth = Integer.getInteger("ldx.gen.depth", 32);
+        gen.writeStartObject();
+        gen.writeNumberField("_id", id + 1);
+        for (int level = 1; level <= depth; level++) {
+            gen.writeObjectFieldStart("cap_" + level);
+            gen.writeStringField("ten", Vocabulary.province(random));
+        }
+        gen.writeArrayFieldStart("gia_tri");
+        gen.writeNumber(random.nextInt(1_000));
+        gen.writeNumber(random.nextInt(1_000));
+        gen.writeEndArray();
+        for (int level = 1; level <= depth; level++) {
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+    }
+
+    private static void nestedRecord(JsonGenerator gen, long id, Random random) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("id", "rec-" + (id + 1));
+        gen.writeStringField("ten", Vocabulary.indicator(random) + " - " + Vocabulary.province(random));
+        gen.writeObjectFieldStart("dia_ban");
+        gen.writeStringField("tinh", Vocabulary.province(random));
+        gen.writeNumberField("ma", random.nextInt(100));
+        gen.writeArrayFieldStart("toa_do");
+        gen.writeNumber(8 + random.nextDouble() * 15);
+        gen.writeNumber(102 + random.nextDouble() * 8);
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.writeArrayFieldStart("chi_tiet");
+        int items = 1 + random.nextInt(4);
+        for (int i = 0; i < items; i++) {
+            gen.writeStartObject();
+            gen.writeNumberField("nam", 2015 + random.nextInt(10));
+            gen.writeNumberField("so_luong", random.nextInt(10_000));
+            gen.writeStringField("don_vi", random.nextBoolean() ? "người" : "hộ");
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("tags");
+        gen.writeString("du-lieu-mo");
+        gen.writeString("thong-ke");
+        gen.writeEndArray();
+        gen.writeStringField("cap_nhat", "2024-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10) + "T00:00:00Z");
+        gen.writeEndObject();
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
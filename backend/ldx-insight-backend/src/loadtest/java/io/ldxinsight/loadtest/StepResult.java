@@ -0,0 +1,61 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Kết quả của một endpoint ở một bậc tải. Độ trễ tính bằng mili giây.
+ */
+record StepResult(String scenario,
+                  String endpoint,
+                  double offeredRps,
+                  double achievedRps,
+                  long requests,
+                  long errors,
+                  long dropped,
+                  double meanMs,
+                  double p50Ms,
+                  double p99Ms,
+                  double p999Ms,
+                  double maxMs) {
+
+    static final String ALL = "all";
+
+    static StepResult of(String scenario, String endpoint, double offered, double seconds,
+                         Histogram latencyMicros, long errors, long dropped) {
+        long count = latencyMicros.getTotalCount();
+        return new StepResult(scenario, endpoint, offered,
+                (count - errors) / seconds, count, errors, dropped,
+                latencyMicros.getMean() / 1_000.0,
+                latencyMicros.getValueAtPercentile(50) / 1_000.0,
+                latencyMicros.getValueAtPercentile(99) / 1_000.0,
+                latencyMicros.getValueAtPercentile(99.9) / 1_000.0,
+                latencyMicros.getMaxValue() / 1_000.0);
+    }
+
+    /**
+     * Bậc tải được coi là vượt điểm bão hòa khi server không theo kịp tốc độ đến,
+     * có lỗi/bỏ request đáng kể, hoặc p99 vượt SLO.
+     */
+    boolean saturated(double sloP99Ms) {
+        long attempted = requests + dropped;
+        return achievedRps < offeredRps * 0.95
+                || (attempted > 0 && (errors + dropped) > attempted * 0.01)
+                || p99Ms > sloP99Ms;
+    }
+}
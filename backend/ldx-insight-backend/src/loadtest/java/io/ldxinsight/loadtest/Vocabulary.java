@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.loadtest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Từ vựng tiếng Việt (có dấu) cho dữ liệu tổng hợp, kèm bộ chọn lệch theo luật Zipf:
+ * phần tử xếp hạng k được chọn với xác suất tỉ lệ 1 / k^s.
+ */
+final class Vocabulary {
+
+    /** Category, cơ quan công bố và chủ đề tiêu đề đi kèm */
+    record Category(String name, String agency, List<String> topics, List<String> tags) {
+    }
+
+    static final List<Category> CATEGORIES = List.of(
+            new Category("Y tế", "Sở Y tế", List.of("cơ sở khám, chữa bệnh", "số giường bệnh", "nhân lực y tế", "tiêm chủng mở rộng"), List.of("y-te", "benh-vien", "suc-khoe")),
+            new Category("Giáo dục", "Sở Giáo dục và Đào tạo", List.of("trường tiểu học", "học sinh trung học phổ thông", "giáo viên", "tỷ lệ tốt nghiệp"), List.of("giao-duc", "truong-hoc")),
+            new Category("Dân số", "Cục Thống kê", List.of("dân số trung bình", "tỷ suất sinh", "lao động có việc làm", "di cư nội địa"), List.of("dan-so", "lao-dong")),
+            new Category("Giao thông", "Sở Giao thông Vận tải", List.of("tuyến xe buýt", "tai nạn giao thông", "phương tiện đăng ký mới", "trạm thu phí"), List.of("giao-thong", "van-tai")),
+            new Category("Môi trường", "Sở Tài nguyên và Môi trường", List.of("chất lượng không khí", "rác thải sinh hoạt", "quan trắc nước mặt", "diện tích rừng"), List.of("moi-truong", "tai-nguyen")),
+            new Category("Tài chính", "Sở Tài chính", List.of("thu ngân sách", "chi đầu tư công", "giá hàng hóa", "nợ công địa phương"), List.of("tai-chinh", "ngan-sach")),
+            new Category("Nông nghiệp", "Sở Nông nghiệp và Phát triển nông thôn", List.of("diện tích gieo trồng lúa", "sản lượng thủy sản", "đàn gia súc", "hợp tác xã"), List.of("nong-nghiep", "thuy-san")),
+            new Category("Du lịch", "Sở Văn hóa, Thể thao và Du lịch", List.of("lượt khách du lịch", "cơ sở lưu trú", "doanh thu du lịch", "di tích lịch sử"), List.of("du-lich", "van-hoa")),
+            new Category("Doanh nghiệp", "Sở Kế hoạch và Đầu tư", List.of("doanh nghiệp thành lập mới", "vốn đầu tư FDI", "khu công nghiệp", "hộ kinh doanh"), List.of("doanh-nghiep", "dau-tu")),
+            new Category("Đất đai", "Sở Tài nguyên và Môi trường", List.of("bảng giá đất", "quy hoạch sử dụng đất", "giấy chứng nhận quyền sử dụng đất"), List.of("dat-dai", "quy-hoach")),
+            new Category("Năng lượng", "Sở Công Thương", List.of("điện thương phẩm", "điện mặt trời mái nhà", "trạm biến áp"), List.of("nang-luong", "dien")),
+            new Category("Khoa học công nghệ", "Sở Khoa học và Công nghệ", List.of("đề tài khoa học", "sáng chế được cấp", "doanh nghiệp khởi nghiệp"), List.of("khoa-hoc", "cong-nghe")),
+            new Category("An sinh xã hội", "Sở Lao động - Thương binh và Xã hội", List.of("hộ nghèo", "người có công", "bảo hiểm xã hội"), List.of("an-sinh", "xa-hoi")),
+            new Category("Văn hóa", "Sở Văn hóa, Thể thao và Du lịch", List.of("thư viện công cộng", "lễ hội truyền thống", "nhà văn hóa"), List.of("van-hoa")),
+            new Category("Thể thao", "Sở Văn hóa, Thể thao và Du lịch", List.of("công trình thể thao", "vận động viên đạt huy chương"), List.of("the-thao")),
+            new Category("Hành chính công", "Văn phòng UBND", List.of("thủ tục hành chính", "hồ sơ trực tuyến", "đơn vị hành chính cấp xã"), List.of("hanh-chinh", "dich-vu-cong")));
+
+    static final List<String> PROVINCES = List.of(
+            "Hà Nội", "TP. Hồ Chí Minh", "Đà Nẵng", "Hải Phòng", "Cần Thơ", "Thừa Thiên Huế", "Quảng Ninh",
+            "Nghệ An", "Thanh Hóa", "Khánh Hòa", "Đồng Nai", "Bình Dương", "Bà Rịa - Vũng Tàu", "Lâm Đồng",
+            "Đắk Lắk", "Quảng Nam", "Bắc Ninh", "Hải Dương", "Thái Nguyên", "Lào Cai", "Điện Biên", "Hà Giang",
+            "Kiên Giang", "An Giang", "Cà Mau", "Sóc Trăng", "Bình Định", "Phú Yên", "Quảng Bình", "Hà Tĩnh");
+
+    static final List<String> KEYWORDS = List.of(
+            "dân số", "bệnh viện", "trường", "ngân sách", "lúa", "du lịch", "doanh nghiệp", "giá đất", "xe buýt", "hộ nghèo");
+
+    private static final Zipf CATEGORY_PICKER = new Zipf(CATEGORIES.size(), 1.1);
+    private static final Zipf PROVINCE_PICKER = new Zipf(PROVINCES.size(), 0.9);
+
+    private Vocabulary() {
+    }
+
+    static Category category(Random random) {
+        return CATEGORIES.get(CATEGORY_PICKER.sample(random));
+    }
+
+    static String province(Random random) {
+        return PROVINCES.get(PROVINCE_PICKER.sample(random));
+    }
+
+    static String indicator(Random random) {
+        Category category = CATEGORIES.get(random.nextInt(CATEGORIES.size()));
+        return category.topics().get(random.nextInt(category.topics().size()));
+    }
+
+    /** Bộ chọn rời rạc theo luật Zipf trên n hạng (trả về chỉ số 0..n-1) */
+    static final class Zipf {
+
+        private final double[] cumulative;
+
+        Zipf(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1.0 / Math.pow(k + 1, exponent);
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cumulative[k] /= sum;
+            }
+        }
+
+        int sample(Random random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.config;
+
+import io.ldxinsight.logging.RequestSamplingTurboFilter;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Ghi access log có cấu trúc (logger "ldx.access", JSON qua appender async) cho mỗi request,
+ * gán requestId vào MDC/response header và quyết định request có được lấy mẫu log chi tiết hay không
+ * (xem RequestSamplingTurboFilter).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+
+    private static final Logger accessLog = LoggerFactory.getLogger("ldx.access");
+    private static final Pattern SAFE_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    /** Tỉ lệ request được ghi log chi tiết (0.0 - 1.0) */
+    @Value("${ldx.logging.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        long started = System.nanoTime();
+        String requestId = resolveRequestId(request);
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+        MDC.put(RequestSamplingTurboFilter.SAMPLED_MDC_KEY, String.valueOf(sampled));
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Export NDJSON chạy async: ghi log khi response thực sự kết thúc
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+                        MDC.put(RequestSamplingTurboFilter.SAMPLED_MDC_KEY, String.valueOf(sampled));
+                        try {
+                            logAccess(request, response, started);
+                        } finally {
+                            MDC.remove(REQUEST_ID_MDC_KEY);
+                            MDC.remove(RequestSamplingTurboFilter.SAMPLED_MDC_KEY);
+                        }
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                logAccess(request, response, started);
+            }
+            MDC.remove(REQUEST_ID_MDC_KEY);
+            MDC.remove(RequestSamplingTurboFilter.SAMPLED_MDC_KEY);
+        }
+    }
+
+    /** requestId và sampled đi theo MDC của event */
+    private void logAccess(HttpServletRequest request, HttpServletResponse response, long started) {
+        if (!accessLog.isInfoEnabled()) {
+            return;
+        }
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String contentLength = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+        accessLog.atInfo()
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("query", request.getQueryString())
+                .addKeyValue("route", route != null ? route.toString() : null)
+                .addKeyValue("status", response.getStatus())
+                .addKeyValue("durationMs", (System.nanoTime() - started) / 1_000_000L)
+                .addKeyValue("bytes", parseLong(contentLength))
+                .addKeyValue("remoteIp", request.getRemoteAddr())
+                .addKeyValue("userAgent", request.getHeader(HttpHeaders.USER_AGENT))
+                .log("request completed");
+    }
+
+    private static String resolveRequestId(HttpServletRequest request) {
+        String header = request.getHeader(REQUEST_ID_HEADER);
+        if (header != null && SAFE_REQUEST_ID.matcher(header).matches()) {
+            return header;
+        }
+        return UUID.randomUUID().toString();
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.config;
+
+import io.ldxinsight.service.SlowQueryMonitor;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoConfig {
+
+    /** Gắn SlowQueryMonitor vào MongoClient do Spring Boot tạo (cùng chỗ với listener metric của actuator) */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowQueryMonitorCustomizer(SlowQueryMonitor slowQueryMonitor) {
+        return builder -> builder.addCommandListener(slowQueryMonitor);
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.config;
+
+import io.ldxinsight.util.StripedRateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletRequestWrapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Giới hạn tốc độ và tải cho các endpoint công khai có chi phí cao:
+ * <ul>
+ *     <li>Token bucket theo IP client + nhóm route (StripedRateLimiter): vượt giới hạn trả 429 kèm Retry-After.</li>
+ *     <li>Số request đồng thời tối đa mỗi nhóm route trên node: vượt thì trả 503 ngay (load shedding)
+ *     thay vì xếp hàng tới khi cạn thread/kết nối Mongo.</li>
+ * </ul>
+ * Cấu hình qua ldx.ratelimit.{counter|download|analysis}.{rate,burst,max-concurrent}.
+ * <p>
+ * Bucket được gắn với địa chỉ socket của client, không phải địa chỉ do X-Forwarded-For khai báo
+ * (header do client tự đặt được). Chỉ khi request đi qua một proxy trong ldx.ratelimit.trusted-proxies
+ * thì hop không tin cậy gần nhất trong X-Forwarded-For mới được dùng làm địa chỉ client.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /** Nhóm route dùng chung giới hạn */
+    enum RouteClass {
+        /** Ghi nhận lượt xem/tải: mỗi request là một lần ghi Mongo */
+        COUNTER("counter", "POST|GET", Pattern.compile("/api/v1/datasets/[^/]+/(view|download)"), 5.0, 20, 256),
+        /** Tải toàn bộ nội dung: mỗi request là một lần tải nguồn dữ liệu (và chuyển đổi) */
+        DOWNLOAD("download", "GET", Pattern.compile("/api/v1/datasets/[^/]+/(download\\.csv|csv|download\\.json|export)"), 1.0, 5, 32),
+        /**
+         * Xem/phân tích nội dung (preview, hồ sơ cột, phân trang rows, tổng hợp): một trang dataset gọi
+         * nhiều endpoint này liên tiếp, phần lớn được phục vụ từ cache cột hoặc chỉ đọc phần đầu nguồn
+         */
+        ANALYSIS("analysis", "GET", Pattern.compile("/api/v1/datasets/[^/]+/(preview|profile|rows|aggregate)"), 10.0, 40, 64);
+
+        private final String key;
+        private final Pattern methods;
+        private final Pattern path;
+        private final double defaultRate;
+        private final int defaultBurst;
+        private final int defaultMaxConcurrent;
+
+        RouteClass(String key, String methods, Pattern path, double defaultRate, int defaultBurst, int defaultMaxConcurrent) {
+            this.key = key;
+            this.methods = Pattern.compile(methods);
+            this.path = path;
+            this.defaultRate = defaultRate;
+            this.defaultBurst = defaultBurst;
+            this.defaultMaxConcurrent = defaultMaxConcurrent;
+        }
+
+        static RouteClass match(HttpServletRequest request) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            for (RouteClass route : values()) {
+                if (route.path.matcher(path).matches() && route.methods.matcher(request.getMethod()).matches()) {
+                    return route;
+                }
+            }
+            return null;
+        }
+    }
+
+    private record Limits(StripedRateLimiter limiter, Semaphore concurrency) {
+    }
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ldx.ratelimit.enabled:true}")
+    private boolean enabled;
+
+    /** Tổng số cặp (IP, nhóm route) được theo dõi mỗi nhóm */
+    @Value("${ldx.ratelimit.max-keys:100000}")
+    private int maxKeys;
+
+    /** IP của reverse proxy tin cậy đứng trước ứng dụng (phân tách bằng dấu phẩy) */
+    @Value("${ldx.ratelimit.trusted-proxies:}")
+    private Set<String> trustedProxies;
+
+    private final Map<RouteClass, Limits> limits = new EnumMap<>(RouteClass.class);
+
+    @PostConstruct
+    void init() {
+        for (RouteClass route : RouteClass.values()) {
+            String prefix = "ldx.ratelimit." + route.key + ".";
+            double rate = environment.getProperty(prefix + "rate", Double.class, route.defaultRate);
+            int burst = environment.getProperty(prefix + "burst", Integer.class, route.defaultBurst);
+            int maxConcurrent = environment.getProperty(prefix + "max-concurrent", Integer.class, route.defaultMaxConcurrent);
+
+            StripedRateLimiter limiter = new StripedRateLimiter(rate, burst, 64, maxKeys);
+            Semaphore concurrency = new Semaphore(maxConcurrent);
+            limits.put(route, new Limits(limiter, concurrency));
+
+            Gauge.builder("ldx.ratelimit.keys", limiter, StripedRateLimiter::size)
+                    .description("Số client đang được theo dõi bởi rate limiter")
+                    .tag("route", route.key)
+                    .register(meterRegistry);
+            Gauge.builder("ldx.ratelimit.in.flight", concurrency, s -> maxConcurrent - s.availablePermits())
+                    .description("Số request đang xử lý của nhóm route")
+                    .tag("route", route.key)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        RouteClass route = enabled ? RouteClass.match(request) : null;
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Limits routeLimits = limits.get(route);
+
+        long waitNanos = routeLimits.limiter().tryAcquire(clientAddress(request) + "|" + route.key);
+        if (waitNanos > 0) {
+            reject(response, route, HttpStatus.TOO_MANY_REQUESTS, "rate",
+                    Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)),
+                    "Too many requests, retry later");
+            return;
+        }
+        if (!routeLimits.concurrency().tryAcquire()) {
+            reject(response, route, HttpStatus.SERVICE_UNAVAILABLE, "concurrency", 1L,
+                    "Server is busy, retry later");
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                routeLimits.concurrency().release();
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        release.run();
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        release.run();
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        release.run();
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ldx.ratelimit.evict-interval:PT1M}",
+            initialDelayString = "${ldx.ratelimit.evict-interval:PT1M}")
+    public void evictIdle() {
+        limits.values().forEach(l -> l.limiter().evictIdle());
+    }
+
+    /**
+     * Địa chỉ client để gắn bucket. Với server.forward-headers-strategy=FRAMEWORK, request đã được bọc
+     * và getRemoteAddr() trả về giá trị từ X-Forwarded-For, nên đọc địa chỉ socket từ request gốc.
+     */
+    String clientAddress(HttpServletRequest request) {
+        ServletRequest raw = request;
+        while (raw instanceof ServletRequestWrapper wrapper) {
+            raw = wrapper.getRequest();
+        }
+        String peer = raw.getRemoteAddr();
+        if (!trustedProxies.contains(peer) || !(raw instanceof HttpServletRequest http)) {
+            return peer;
+        }
+        // Đi từ phải sang trái (hop gần nhất trước), bỏ qua các proxy tin cậy
+        String forwardedFor = http.getHeader("X-Forwarded-For");
+        if (forwardedFor != null) {
+            String[] hops = forwardedFor.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (!hop.isEmpty() && !trustedProxies.contains(hop)) {
+                    return hop;
+                }
+            }
+        }
+        return peer;
+    }
+
+    private void reject(HttpServletResponse response, RouteClass route, HttpStatus status, String reason,
+                        long retryAfterSeconds, String message) throws IOException {
+        meterRegistry.counter("ldx.ratelimit.rejected", "route", route.key, "reason", reason).increment();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // Cùng dạng body lỗi với GlobalExceptionHandler
+        response.getWriter().write("{\"timestamp\":\"" + LocalDateTime.now() + "\",\"status\":" + status.value()
+                + ",\"error\":\"" + status.getReasonPhrase() + "\",\"message\":\"" + message + "\"}");
+    }
+}
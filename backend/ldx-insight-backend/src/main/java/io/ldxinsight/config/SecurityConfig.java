@@ -17,15 +17,22 @@
 package io.ldxinsight.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -40,6 +47,11 @@ public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
     private final AuthenticationProvider authenticationProvider;
+    private final RateLimitFilter rateLimitFilter;
+
+    /** Địa chỉ/dải CIDR được scrape /actuator/prometheus không cần đăng nhập (phân tách bằng dấu phẩy) */
+    @Value("${ldx.metrics.allowed-addresses:127.0.0.1,::1}")
+    private List<String> metricsAllowedAddresses;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -66,7 +78,15 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/v1/datasets/*/download.csv").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/datasets/*/download").permitAll()
                         
-                        // 4. Tất cả các API còn lại đều phải xác thực
+                        // 4. API quản trị (index, backfill...) chỉ dành cho ADMIN
+                        .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+
+                        // 5. Actuator: health công khai, Prometheus cho ADMIN hoặc scraper trong allowlist, còn lại cho ADMIN
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/prometheus").access(adminOrMetricsScraper())
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
+                        // 6. Tất cả các API còn lại đều phải xác thực
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(ex -> ex
@@ -82,6 +102,23 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * ADMIN hoặc request từ địa chỉ trong ldx.metrics.allowed-addresses. Địa chỉ client lấy như RateLimitFilter
+     * (địa chỉ socket, chỉ tin X-Forwarded-For qua proxy tin cậy) để header giả không vượt được allowlist.
+     */
+    private AuthorizationManager<RequestAuthorizationContext> adminOrMetricsScraper() {
+        List<IpAddressMatcher> allowed = metricsAllowedAddresses.stream()
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        AuthorizationManager<RequestAuthorizationContext> scraper = (authentication, context) -> {
+            String client = rateLimitFilter.clientAddress(context.getRequest());
+            return new AuthorizationDecision(allowed.stream().anyMatch(matcher -> matcher.matches(client)));
+        };
+        return AuthorizationManagers.anyOf(AuthorityAuthorizationManager.hasRole("ADMIN"), scraper);
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration cfg = new CorsConfiguration();
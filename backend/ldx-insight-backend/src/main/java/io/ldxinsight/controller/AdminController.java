@@ -0,0 +1,84 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.controller;
+
+import io.ldxinsight.dto.IndexStatusDto;
+import io.ldxinsight.dto.QueryPlanDto;
+import io.ldxinsight.dto.SlowQueryShapeDto;
+import io.ldxinsight.service.CategoryKeyBackfillJob;
+import io.ldxinsight.service.IndexManager;
+import io.ldxinsight.service.SlowQueryMonitor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@Tag(name = "4. Admin APIs", description = "APIs quản trị hệ thống (chỉ ROLE_ADMIN)")
+public class AdminController {
+
+    private final IndexManager indexManager;
+    private final CategoryKeyBackfillJob categoryKeyBackfillJob;
+    private final SlowQueryMonitor slowQueryMonitor;
+
+    @Operation(summary = "Tạo/đối soát các index khai báo trên entity")
+    @PostMapping("/indexes/reconcile")
+    public ResponseEntity<List<IndexStatusDto>> reconcileIndexes() {
+        return ResponseEntity.ok(indexManager.reconcile());
+    }
+
+    @Operation(summary = "Chạy explain() cho từng dạng truy vấn và đánh dấu plan COLLSCAN")
+    @GetMapping("/indexes/query-plans")
+    public ResponseEntity<List<QueryPlanDto>> verifyQueryPlans() {
+        return ResponseEntity.ok(indexManager.verifyQueryPlans());
+    }
+
+    @Operation(summary = "Chạy lại job điền categoryKey/providerKey cho các dataset cũ")
+    @PostMapping("/categories/backfill")
+    public ResponseEntity<Map<String, Long>> backfillCategoryKeys() throws InterruptedException {
+        return ResponseEntity.ok(Map.of("updated", categoryKeyBackfillJob.run()));
+    }
+
+    @Operation(summary = "Top các dạng truy vấn Mongo chậm nhất (cửa sổ hiện tại + cửa sổ trước)")
+    @GetMapping("/mongo/slow-queries")
+    public ResponseEntity<List<SlowQueryShapeDto>> slowQueries(
+            @Parameter(description = "Số dạng truy vấn trả về")
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Sắp xếp theo: max | total | mean | count")
+            @RequestParam(defaultValue = "max") String sort) {
+        return ResponseEntity.ok(slowQueryMonitor.topShapes(limit, sort));
+    }
+
+    @Operation(summary = "Xóa thống kê truy vấn chậm")
+    @DeleteMapping("/mongo/slow-queries")
+    public ResponseEntity<Void> resetSlowQueries() {
+        slowQueryMonitor.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
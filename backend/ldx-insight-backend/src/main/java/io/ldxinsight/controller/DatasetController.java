@@ -16,37 +16,63 @@
 
 package io.ldxinsight.controller;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.ldxinsight.dto.BatchGetRequest;
+import io.ldxinsight.dto.BulkIngestResultDto;
 import io.ldxinsight.dto.CreateDatasetRequest;
+import io.ldxinsight.dto.DatasetAggregateDto;
+import io.ldxinsight.dto.DatasetBatchDto;
 import io.ldxinsight.dto.DatasetDto;
+import io.ldxinsight.dto.DatasetPreviewDto;
+import io.ldxinsight.dto.DatasetProfileDto;
+import io.ldxinsight.dto.DatasetRowsDto;
 import io.ldxinsight.exception.ResourceNotFoundException;
+import io.ldxinsight.exception.ServerBusyException;
+import io.ldxinsight.exception.UpstreamContentTooLargeException;
+import io.ldxinsight.service.DatasetAggregateService;
+import io.ldxinsight.service.DatasetContentService;
+import io.ldxinsight.service.DatasetExportService;
+import io.ldxinsight.service.DatasetIngestService;
+import io.ldxinsight.service.DatasetProfileService;
 import io.ldxinsight.service.DatasetService;
+import io.ldxinsight.service.UpstreamContentFetcher;
+import io.ldxinsight.util.RecordEncoder;
+import io.ldxinsight.util.SpooledContent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.UnsupportedMediaTypeStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import jakarta.servlet.http.HttpServletRequest;
 
-import java.net.URI;
-import java.net.URISyntaxException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.security.Principal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 
 @Slf4j
@@ -57,8 +83,15 @@ import java.util.*;
 public class DatasetController {
 
     private final DatasetService datasetService;
+    private final DatasetIngestService datasetIngestService;
     // Dùng ObjectMapper do Spring Boot auto-config cung cấp (được inject qua constructor)
     private final ObjectMapper objectMapper;
+    private final UpstreamContentFetcher upstreamContentFetcher;
+    private final DatasetContentService datasetContentService;
+    private final DatasetProfileService datasetProfileService;
+    private final DatasetAggregateService datasetAggregateService;
+    private final DatasetExportService datasetExportService;
+    private final MeterRegistry meterRegistry;
 
     @Operation(summary = "Tìm kiếm (search) HOẶC lọc (filter) dataset")
     @GetMapping
@@ -74,12 +107,45 @@ public class DatasetController {
         return ResponseEntity.ok(results);
     }
 
+    @Operation(summary = "Xuất toàn bộ catalog dưới dạng NDJSON (stream trực tiếp từ Mongo cursor)")
+    @GetMapping(value = "/export.ndjson", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportNdjson(
+            @Parameter(description = "Lọc theo danh mục")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Lọc theo đơn vị cung cấp")
+            @RequestParam(required = false) String provider,
+            @Parameter(description = "Chỉ lấy dataset cập nhật từ thời điểm này (ISO-8601, ví dụ: 2025-01-01T00:00:00Z)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedSince) {
+
+        StreamingResponseBody body = out -> datasetService.exportDatasets(category, provider, updatedSince, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("datasets.ndjson").build().toString())
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+
     @Operation(summary = "Lấy chi tiết một Bộ dữ liệu bằng ID")
     @GetMapping("/{id}")
     public ResponseEntity<DatasetDto> getDatasetById(@PathVariable String id) {
         return ResponseEntity.ok(datasetService.getDatasetById(id));
     }
 
+    @Operation(summary = "Lấy nhiều Bộ dữ liệu theo danh sách ID trong một lần gọi")
+    @PostMapping("/batch-get")
+    public ResponseEntity<DatasetBatchDto> batchGetDatasets(@Valid @RequestBody BatchGetRequest request) {
+        return ResponseEntity.ok(datasetService.getDatasetsByIds(request.getIds()));
+    }
+
+    @Operation(summary = "Lấy nhiều Bộ dữ liệu theo danh sách ID (query param lặp lại: ?ids=a&ids=b)")
+    @GetMapping("/batch-get")
+    public ResponseEntity<DatasetBatchDto> batchGetDatasets(
+            @Parameter(description = "Danh sách ID dataset")
+            @RequestParam List<String> ids) {
+        return ResponseEntity.ok(datasetService.getDatasetsByIds(ids));
+    }
+
     @Operation(summary = "Lấy tất cả các category từ cơ sở dữ liệu")
     @GetMapping("/categories")
     public ResponseEntity<List<String>> getAllCategories() {
@@ -98,8 +164,8 @@ public class DatasetController {
 
     @Operation(summary = "Ghi nhận 1 lượt xem (tăng view count)")
     @PostMapping("/{id}/view")
-    public ResponseEntity<Void> incrementView(@PathVariable String id) {
-        datasetService.incrementViewCount(id);
+    public ResponseEntity<Void> incrementView(@PathVariable String id, HttpServletRequest request) {
+        datasetService.incrementViewCount(id, viewerKey(request));
         return ResponseEntity.ok().build();
     }
 
@@ -136,7 +202,7 @@ public class DatasetController {
 
     @Operation(summary = "Tải dữ liệu dưới dạng CSV (nếu là JSON) hoặc file gốc (HTML/Text/JSON)")
     @GetMapping(value = {"/{id}/download.csv", "/{id}/csv"})
-    public ResponseEntity<Resource> downloadCsv(
+    public ResponseEntity<StreamingResponseBody> downloadCsv(
             @Parameter(description = "ID của dataset")
             @PathVariable("id") String id) {
         log.info("CSV download requested for dataset: {} (path: /{}/download.csv or /{}/csv)", id, id, id);
@@ -167,87 +233,103 @@ public class DatasetController {
                 return returnDatasetMetadataAsJson(dto, id);
             }
 
-            // Lấy dữ liệu
-            byte[] dataBytes;
+            // Lấy dữ liệu (nội dung lớn nằm trong file tạm, không giữ trên heap)
+            SpooledContent content;
             try {
-                dataBytes = fetchDataBytes(sourceUrl);
-                log.debug("Fetched {} bytes from data source", dataBytes.length);
+                content = upstreamContentFetcher.fetch(sourceUrl);
+                log.debug("Fetched {} bytes from data source", content.size());
+            } catch (ServerBusyException | UpstreamContentTooLargeException e) {
+                throw e;
             } catch (Exception e) {
                 log.warn("Failed to fetch data from URL {}: {}. Falling back to metadata JSON.", sourceUrl, e.getMessage());
                 return returnDatasetMetadataAsJson(dto, id);
             }
+
+            try (content) {
+                if (content.size() == 0) {
+                    log.warn("Empty data received for dataset: {}. Falling back to metadata JSON.", id);
+                    return returnDatasetMetadataAsJson(dto, id);
+                }
             
-            if (dataBytes == null || dataBytes.length == 0) {
-                log.warn("Empty data received for dataset: {}. Falling back to metadata JSON.", id);
-                return returnDatasetMetadataAsJson(dto, id);
-            }
-            
-            // Kiểm tra xem có phải WAF/Proxy block message không
-            String contentStr = new String(dataBytes, 0, Math.min(dataBytes.length, 500), StandardCharsets.UTF_8);
-            if (contentStr.contains("The requested URL was rejected") || 
-                contentStr.contains("Please consult with your administrator") ||
-                contentStr.contains("support ID")) {
-                log.warn("Data source was blocked by WAF/Proxy. Falling back to metadata JSON.");
-                return returnDatasetMetadataAsJson(dto, id);
-            }
+                // Kiểm tra xem có phải WAF/Proxy block message không
+                byte[] head = content.head(500);
+                String contentStr = new String(head, StandardCharsets.UTF_8);
+                if (contentStr.contains("The requested URL was rejected") || 
+                    contentStr.contains("Please consult with your administrator") ||
+                    contentStr.contains("support ID")) {
+                    log.warn("Data source was blocked by WAF/Proxy. Falling back to metadata JSON.");
+                    return returnDatasetMetadataAsJson(dto, id);
+                }
             
-            // Thử parse JSON và convert sang CSV
-            com.fasterxml.jackson.databind.JsonNode jsonNode = null;
-            try {
-                jsonNode = objectMapper.readTree(dataBytes);
-                log.debug("Successfully parsed JSON");
-                
-                // Convert sang CSV
-                String csvContent = convertJsonToCsv(jsonNode);
-                if (csvContent != null && !csvContent.trim().isEmpty()) {
+                // Nội dung mở đầu bằng object/array JSON thì chuyển sang CSV qua pipeline record dùng chung:
+                // lượt đọc đầu thu thập cột (đồng thời kiểm tra JSON hợp lệ trước khi gửi header), lượt sau ghi thẳng ra response
+                List<String> columns = null;
+                if (startsWithJsonContainer(head)) {
+                    try {
+                        columns = datasetExportService.collectColumns(content.openStream());
+                    } catch (IOException e) {
+                        log.debug("Cannot read content as JSON records: {}. Will return original content.", e.getMessage());
+                    }
+                }
+                if (columns != null && !columns.isEmpty()) {
+                    RecordEncoder csv = datasetExportService.getEncoder("csv");
                     String baseName = StringUtils.hasText(dto.getTitle()) ? dto.getTitle().trim() : ("dataset-" + id);
-                    String safeName = sanitizeForFilename(baseName) + ".csv";
-                    byte[] csvBytes = csvContent.getBytes(StandardCharsets.UTF_8);
-                    
-                    log.info("Returning CSV file: {} ({} bytes)", safeName, csvBytes.length);
-                    ByteArrayResource body = new ByteArrayResource(csvBytes);
+                    String safeName = sanitizeForFilename(baseName) + csv.getExtension();
+                    List<String> header = columns;
+                    // Nội dung (và file tạm) được giữ đến khi ghi response xong
+                    InputStream source = content.release();
+                    StreamingResponseBody body = out -> {
+                        try (source) {
+                            datasetExportService.export(source, header, csv, RecordEncoder.Options.DEFAULT, out);
+                        }
+                    };
+                    log.info("Returning CSV file: {} ({} columns)", safeName, header.size());
                     return ResponseEntity.ok()
-                            .contentType(MediaType.parseMediaType("text/csv; charset=utf-8"))
-                            .contentLength(csvBytes.length)
+                            .contentType(MediaType.parseMediaType(csv.getContentType()))
                             .header(HttpHeaders.CONTENT_DISPOSITION,
                                     ContentDisposition.attachment().filename(safeName, StandardCharsets.UTF_8).build().toString())
                             .cacheControl(CacheControl.noCache())
                             .body(body);
                 }
-            } catch (Exception e) {
-                log.debug("Cannot parse as JSON or convert to CSV: {}. Will return original content.", e.getMessage());
-            }
             
-            // Nếu không parse được JSON hoặc convert không được, trả về file gốc
-            String contentPreview = new String(dataBytes, 0, Math.min(dataBytes.length, 200), StandardCharsets.UTF_8).toLowerCase();
-            String extension = ".txt";
-            String contentType = MediaType.TEXT_PLAIN_VALUE;
+                // Nếu không parse được JSON hoặc convert không được, trả về file gốc
+                String contentPreview = new String(head, 0, Math.min(head.length, 200), StandardCharsets.UTF_8).toLowerCase();
+                String extension = ".txt";
+                String contentType = MediaType.TEXT_PLAIN_VALUE;
             
-            if (contentPreview.contains("<html") || contentPreview.contains("<!doctype")) {
-                extension = ".html";
-                contentType = MediaType.TEXT_HTML_VALUE;
-                log.info("Content is HTML, returning as HTML file");
-            } else if (contentPreview.trim().startsWith("{") || contentPreview.trim().startsWith("[")) {
-                extension = ".json";
-                contentType = MediaType.APPLICATION_JSON_VALUE;
-                log.info("Content looks like JSON but couldn't parse, returning as JSON file");
-            } else {
-                log.info("Content is not JSON/HTML, returning as text file");
-            }
+                if (contentPreview.contains("<html") || contentPreview.contains("<!doctype")) {
+                    extension = ".html";
+                    contentType = MediaType.TEXT_HTML_VALUE;
+                    log.info("Content is HTML, returning as HTML file");
+                } else if (contentPreview.trim().startsWith("{") || contentPreview.trim().startsWith("[")) {
+                    extension = ".json";
+                    contentType = MediaType.APPLICATION_JSON_VALUE;
+                    log.info("Content looks like JSON but couldn't parse, returning as JSON file");
+                } else {
+                    log.info("Content is not JSON/HTML, returning as text file");
+                }
             
-            String baseName = StringUtils.hasText(dto.getTitle()) ? dto.getTitle().trim() : ("dataset-" + id);
-            String safeName = sanitizeForFilename(baseName) + extension;
+                String baseName = StringUtils.hasText(dto.getTitle()) ? dto.getTitle().trim() : ("dataset-" + id);
+                String safeName = sanitizeForFilename(baseName) + extension;
             
-            log.info("Returning original content as file: {} ({} bytes, type: {})", safeName, dataBytes.length, contentType);
-            ByteArrayResource body = new ByteArrayResource(dataBytes);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType + "; charset=utf-8"))
-                    .contentLength(dataBytes.length)
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            ContentDisposition.attachment().filename(safeName, StandardCharsets.UTF_8).build().toString())
-                    .cacheControl(CacheControl.noCache())
-                    .body(body);
-                    
+                log.info("Returning original content as file: {} ({} bytes, type: {})", safeName, content.size(), contentType);
+                // Stream nội dung gốc; file tạm bị xoá khi ghi response xong
+                InputStream source = content.release();
+                StreamingResponseBody body = out -> {
+                    try (source) {
+                        source.transferTo(out);
+                    }
+                };
+                return ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(contentType + "; charset=utf-8"))
+                        .contentLength(content.size())
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                ContentDisposition.attachment().filename(safeName, StandardCharsets.UTF_8).build().toString())
+                        .cacheControl(CacheControl.noCache())
+                        .body(body);
+            }
+        } catch (ServerBusyException | UpstreamContentTooLargeException e) {
+            throw e;
         } catch (Exception e) {
             // Fallback cuối cùng: trả về metadata JSON nếu có bất kỳ lỗi nào
             log.error("Unexpected error processing dataset {}: {}. Falling back to metadata JSON.", id, e.getMessage(), e);
@@ -258,7 +340,7 @@ public class DatasetController {
     /**
      * Trả về metadata của dataset dưới dạng JSON file
      */
-    private ResponseEntity<Resource> returnDatasetMetadataAsJson(DatasetDto dto, String id) {
+    private ResponseEntity<StreamingResponseBody> returnDatasetMetadataAsJson(DatasetDto dto, String id) {
         try {
             String jsonContent = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(dto);
             byte[] jsonBytes = jsonContent.getBytes(StandardCharsets.UTF_8);
@@ -266,14 +348,13 @@ public class DatasetController {
             String safeName = sanitizeForFilename(baseName) + ".json";
             
             log.info("Returning dataset metadata as JSON file: {} ({} bytes)", safeName, jsonBytes.length);
-            ByteArrayResource body = new ByteArrayResource(jsonBytes);
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_JSON)
                     .contentLength(jsonBytes.length)
                     .header(HttpHeaders.CONTENT_DISPOSITION,
                             ContentDisposition.attachment().filename(safeName, StandardCharsets.UTF_8).build().toString())
                     .cacheControl(CacheControl.noCache())
-                    .body(body);
+                    .body(out -> out.write(jsonBytes));
         } catch (Exception e) {
             log.error("Error creating metadata JSON: {}", e.getMessage(), e);
             // Nếu không thể tạo JSON, trả về error message đơn giản
@@ -282,7 +363,7 @@ public class DatasetController {
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_JSON)
                     .contentLength(errorBytes.length)
-                    .body(new ByteArrayResource(errorBytes));
+                    .body(out -> out.write(errorBytes));
         }
     }
 
@@ -304,239 +385,187 @@ public class DatasetController {
             throw new ResourceNotFoundException("Dataset does not have a download URL");
         }
 
-        byte[] bytes = fetchDataBytes(sourceUrl); // Lấy dữ liệu, không kiểm tra format strict
+        // Lấy dữ liệu, không kiểm tra format strict
+        try (SpooledContent content = upstreamContentFetcher.fetch(sourceUrl)) {
+            // Kiểm tra JSON bằng cách đọc lướt token (không dựng cây), hợp lệ thì gửi Content-Type JSON; nội dung giữ nguyên
+            boolean json = false;
+            Timer.Sample conversion = Timer.start(meterRegistry);
+            try (JsonParser parser = objectMapper.createParser(content.openStream())) {
+                long records = countJsonRecords(parser);
+                json = records >= 0;
+                if (json) {
+                    recordConversion("json", conversion, records);
+                }
+            } catch (Exception e) {
+                // Không phải JSON hợp lệ, giữ nguyên dữ liệu gốc (có thể là HTML, text, etc.)
+                log.debug("Data is not valid JSON, returning as-is: {}", e.getMessage());
+            }
 
-        // Thử parse JSON, nếu thành công thì format lại, nếu không thì giữ nguyên
-        try {
-            Object tree = objectMapper.readTree(bytes);
-            bytes = objectMapper.writeValueAsBytes(tree);
-        } catch (Exception e) {
-            // Không phải JSON hợp lệ, giữ nguyên dữ liệu gốc (có thể là HTML, text, etc.)
-            log.debug("Data is not valid JSON, returning as-is: {}", e.getMessage());
+            String baseName = StringUtils.hasText(dto.getTitle()) ? dto.getTitle().trim() : ("dataset-" + id);
+            String safeName = sanitizeForFilename(baseName) + (json ? ".json" : ".txt");
+
+            // Stream nội dung gốc; file tạm bị xoá khi ghi response xong
+            InputStreamResource body = new InputStreamResource(content.release());
+            return ResponseEntity.ok()
+                    .contentType(json ? MediaType.APPLICATION_JSON : MediaType.TEXT_PLAIN)
+                    .contentLength(content.size())
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(safeName, StandardCharsets.UTF_8).build().toString())
+                    .cacheControl(CacheControl.noCache())
+                    .body(body);
+        } catch (IOException e) {
+            throw new ResourceNotFoundException("Cannot read data content: " + e.getMessage());
         }
+    }
 
-        String baseName = StringUtils.hasText(dto.getTitle()) ? dto.getTitle().trim() : ("dataset-" + id);
-        String safeName = sanitizeForFilename(baseName) + ".txt";
+    /** Token đầu của {@code head} (vài trăm byte đầu nội dung) là object hoặc array JSON */
+    private boolean startsWithJsonContainer(byte[] head) {
+        try (JsonParser parser = objectMapper.createParser(head)) {
+            JsonToken first = parser.nextToken();
+            return first == JsonToken.START_OBJECT || first == JsonToken.START_ARRAY;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** Số phần tử (mảng) hoặc 1 (giá trị đơn) của một văn bản JSON đọc hết bằng parser; -1 nếu rỗng */
+    private static long countJsonRecords(JsonParser parser) throws IOException {
+        JsonToken first = parser.nextToken();
+        if (first == null) {
+            return -1;
+        }
+        if (first != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return 1;
+        }
+        long records = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+            records++;
+        }
+        return records;
+    }
+
+    @Operation(summary = "Xuất dữ liệu theo định dạng csv, tsv, ndjson, json (stream từng record, bộ nhớ cố định)")
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String id,
+            @Parameter(description = "Định dạng: csv | tsv | ndjson | json")
+            @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "Ký tự phân tách cho csv/tsv, ví dụ: ; hoặc tab")
+            @RequestParam(required = false) String delimiter,
+            @Parameter(description = "Ghi BOM UTF-8 (để Excel mở đúng tiếng Việt)")
+            @RequestParam(required = false) Boolean bom) {
+        RecordEncoder encoder = datasetExportService.getEncoder(format);
+        RecordEncoder.Options options = new RecordEncoder.Options(parseDelimiter(delimiter), bom);
+        DatasetDto dto = datasetService.getDatasetById(id);
+        // Kiểm tra nguồn dữ liệu trước khi gửi header, lỗi trong lúc stream chỉ còn cách ngắt kết nối
+        datasetService.getDataUrl(id);
 
-        ByteArrayResource body = new ByteArrayResource(bytes);
+        String baseName = StringUtils.hasText(dto.getTitle()) ? dto.getTitle().trim() : ("dataset-" + id);
+        String safeName = sanitizeForFilename(baseName) + encoder.getExtension();
+        StreamingResponseBody body = out -> datasetExportService.export(id, encoder, options, out);
         return ResponseEntity.ok()
-                .contentType(MediaType.TEXT_PLAIN)
-                .contentLength(bytes.length)
+                .contentType(MediaType.parseMediaType(encoder.getContentType()))
                 .header(HttpHeaders.CONTENT_DISPOSITION,
                         ContentDisposition.attachment().filename(safeName, StandardCharsets.UTF_8).build().toString())
                 .cacheControl(CacheControl.noCache())
                 .body(body);
     }
 
-    /* ---------------- Helpers ---------------- */
-
-    private byte[] fetchDataBytes(String sourceUrl) {
-        try {
-            if (isHttp(sourceUrl)) {
-                RestTemplate rt = new RestTemplate();
-                HttpHeaders h = new HttpHeaders();
-                h.set(HttpHeaders.USER_AGENT, "Ldx-Insight/1.0 (+spring)");
-                h.setAccept(List.of(MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN, MediaType.TEXT_HTML, MediaType.ALL));
-
-                ResponseEntity<byte[]> up = rt.exchange(URI.create(sourceUrl), HttpMethod.GET, new HttpEntity<>(h), byte[].class);
-                if (!up.getStatusCode().is2xxSuccessful() || up.getBody() == null) {
-                    throw new ResourceNotFoundException("Upstream error: " + up.getStatusCode());
-                }
-
-                byte[] body = up.getBody();
-                if (body.length == 0) {
-                    throw new ResourceNotFoundException("Upstream content is empty");
-                }
-
-                // Log warning nếu là HTML nhưng vẫn trả về
-                String head = new String(body, 0, Math.min(body.length, 400), StandardCharsets.UTF_8).toLowerCase();
-                if (head.contains("<html") || head.contains("<!doctype html")) {
-                    log.warn("Upstream returned HTML content (may be blocked by WAF/Proxy), but returning as-is. URL: {}", sourceUrl);
-                }
-                
-                return body;
-            } else {
-                // Local file / file://
-                byte[] body = readLocal(sourceUrl);
-                if (body.length == 0) {
-                    throw new ResourceNotFoundException("Local file is empty");
-                }
-                return body;
-            }
-        } catch (ResourceNotFoundException e) {
-            // Re-throw ResourceNotFoundException để giữ nguyên message
-            throw e;
-        } catch (Exception e) {
-            // Log chi tiết lỗi để debug
-            log.error("Error fetching data content from dataUrl: {}", sourceUrl, e);
-            String errorMsg = String.format("Cannot fetch data content from dataUrl: %s. Source URL: %s. Error: %s", 
-                    e.getClass().getSimpleName(), sourceUrl, e.getMessage());
-            throw new ResourceNotFoundException(errorMsg);
-        }
+    @Operation(summary = "Xem trước N dòng đầu của dữ liệu (dạng bảng gọn), không tải toàn bộ nguồn")
+    @GetMapping("/{id}/preview")
+    public ResponseEntity<DatasetPreviewDto> preview(
+            @PathVariable String id,
+            @Parameter(description = "Số dòng muốn xem, ví dụ: 50")
+            @RequestParam(defaultValue = "50") int rows) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)))
+                .body(datasetContentService.preview(id, rows));
     }
 
-    private boolean isHttp(String url) {
-        String u = url.trim().toLowerCase();
-        return u.startsWith("http://") || u.startsWith("https://");
+    @Operation(summary = "Truy vấn record của dữ liệu: lọc theo điều kiện, chọn field, phân trang (đọc stream phía server)")
+    @Parameter(name = "where", in = ParameterIn.QUERY, array = @ArraySchema(schema = @Schema(type = "string")),
+            description = "Điều kiện field:op:value, lặp lại tham số để kết hợp AND. "
+                    + "op: eq, ne, gt, gte, lt, lte, contains, in (a|b|c), null, notnull. Ví dụ: tinh:eq:Hà Nội")
+    @GetMapping("/{id}/rows")
+    public ResponseEntity<DatasetRowsDto> rows(
+            @PathVariable String id,
+            @Parameter(description = "Các field cần lấy, cách nhau bởi dấu phẩy (bỏ trống: mọi field)")
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(defaultValue = "0") long offset,
+            @RequestParam(defaultValue = "100") int limit,
+            HttpServletRequest request) {
+        // Đọc trực tiếp để giá trị điều kiện chứa dấu phẩy không bị tách như @RequestParam List<String>
+        String[] where = request.getParameterValues("where");
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)))
+                .body(datasetContentService.rows(id, fields, where == null ? null : Arrays.asList(where), offset, limit));
     }
 
-    private byte[] readLocal(String url) throws Exception {
-        try {
-            if (url.startsWith("file:")) {
-                URI uri = new URI(url);
-                Path path;
-                try {
-                    // Thử parse URI trực tiếp
-                    path = Path.of(uri);
-                } catch (Exception e) {
-                    // Nếu không được, thử lấy path từ URI
-                    String pathStr = uri.getPath();
-                    // Xử lý Windows path (file:///C:/path -> C:/path)
-                    if (pathStr != null && pathStr.startsWith("/") && pathStr.length() > 2 && pathStr.charAt(2) == ':') {
-                        pathStr = pathStr.substring(1); // Bỏ dấu / đầu tiên
-                    }
-                    path = Paths.get(pathStr);
-                }
-                if (!Files.exists(path) || !Files.isReadable(path)) {
-                    throw new ResourceNotFoundException("Local file not found or not readable: " + url + " (resolved to: " + path + ")");
-                }
-                return Files.readAllBytes(path);
-            }
-        } catch (URISyntaxException e) {
-            // fallthrough: thử coi như đường dẫn hệ điều hành
-        } catch (ResourceNotFoundException e) {
-            throw e; // Re-throw ResourceNotFoundException
-        }
-        // Xử lý như đường dẫn hệ điều hành thông thường
-        Path p = Paths.get(url);
-        if (!Files.exists(p) || !Files.isReadable(p)) {
-            throw new ResourceNotFoundException("Local file not found or not readable: " + url + " (absolute path: " + p.toAbsolutePath() + ")");
-        }
-        return Files.readAllBytes(p);
+    @Operation(summary = "Tổng hợp theo nhóm trên dữ liệu (count, sum, avg, min, max), tính phía server")
+    @GetMapping("/{id}/aggregate")
+    public ResponseEntity<DatasetAggregateDto> aggregate(
+            @PathVariable String id,
+            @Parameter(description = "Cột nhóm, ví dụ: tinh_thanh (bỏ trống: tổng hợp cả dataset)")
+            @RequestParam(required = false) String groupBy,
+            @Parameter(description = "Metric, lặp lại hoặc cách nhau bởi dấu phẩy: count, count:col, sum:col, avg:col, min:col, max:col")
+            @RequestParam(required = false) List<String> metric,
+            @Parameter(description = "Số nhóm trả về (theo metric đầu tiên giảm dần)")
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)))
+                .body(datasetAggregateService.aggregate(id, groupBy, metric, limit));
     }
 
-    private String sanitizeForFilename(String input) {
-        return input.replaceAll("[\\\\/:*?\"<>|]", "_");
+    @Operation(summary = "Hồ sơ cột của dữ liệu: kiểu, tỉ lệ null, min/max, phân vị, số giá trị phân biệt (xấp xỉ)")
+    @GetMapping("/{id}/profile")
+    public ResponseEntity<DatasetProfileDto> profile(@PathVariable String id) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)))
+                .body(datasetProfileService.getProfile(id));
     }
 
-    /**
-     * Chuyển đổi JSON sang CSV format
-     * Hỗ trợ:
-     * - JSON array of objects: mỗi object là một row, keys là headers
-     * - JSON object: single row với keys là headers
-     * - Nested objects: được flatten hoặc stringify
-     */
-    private String convertJsonToCsv(com.fasterxml.jackson.databind.JsonNode jsonNode) {
-        StringBuilder csv = new StringBuilder();
-        
-        if (jsonNode.isArray()) {
-            // JSON array: mỗi element là một row
-            java.util.List<String> headers = new java.util.ArrayList<>();
-            java.util.List<java.util.Map<String, String>> rows = new java.util.ArrayList<>();
-            
-            // Thu thập tất cả keys từ tất cả objects để tạo headers
-            for (com.fasterxml.jackson.databind.JsonNode item : jsonNode) {
-                if (item.isObject()) {
-                    java.util.Map<String, String> row = new java.util.LinkedHashMap<>();
-                    item.fields().forEachRemaining(entry -> {
-                        String key = entry.getKey();
-                        String value = formatJsonValue(entry.getValue());
-                        if (!headers.contains(key)) {
-                            headers.add(key);
-                        }
-                        row.put(key, value);
-                    });
-                    rows.add(row);
-                }
-            }
-            
-            // Viết header
-            if (!headers.isEmpty()) {
-                csv.append(String.join(",", escapeCsvValues(headers)));
-                csv.append("\n");
-            }
-            
-            // Viết rows
-            for (java.util.Map<String, String> row : rows) {
-                java.util.List<String> values = new java.util.ArrayList<>();
-                for (String header : headers) {
-                    values.add(row.getOrDefault(header, ""));
-                }
-                csv.append(String.join(",", escapeCsvValues(values)));
-                csv.append("\n");
-            }
-            
-        } else if (jsonNode.isObject()) {
-            // JSON object: single row
-            java.util.List<String> headers = new java.util.ArrayList<>();
-            java.util.List<String> values = new java.util.ArrayList<>();
-            
-            jsonNode.fields().forEachRemaining(entry -> {
-                headers.add(entry.getKey());
-                values.add(formatJsonValue(entry.getValue()));
-            });
-            
-            // Viết header
-            csv.append(String.join(",", escapeCsvValues(headers)));
-            csv.append("\n");
-            // Viết values
-            csv.append(String.join(",", escapeCsvValues(values)));
-            csv.append("\n");
-            
-        } else {
-            // Primitive value: single cell
-            csv.append("value\n");
-            csv.append(escapeCsvValue(formatJsonValue(jsonNode)));
-            csv.append("\n");
-        }
-        
-        return csv.toString();
+    /* ---------------- Helpers ---------------- */
+
+    /** Thời gian chuyển đổi nội dung (ldx.conversion) và số dòng đầu ra (ldx.conversion.rows) theo định dạng */
+    private void recordConversion(String format, Timer.Sample sample, long rows) {
+        sample.stop(Timer.builder("ldx.conversion")
+                .description("Thời gian chuyển đổi dữ liệu tải về")
+                .tag("format", format)
+                .register(meterRegistry));
+        DistributionSummary.builder("ldx.conversion.rows")
+                .description("Số dòng dữ liệu sau chuyển đổi")
+                .tag("format", format)
+                .register(meterRegistry)
+                .record(rows);
     }
 
-    /**
-     * Format giá trị JSON thành string cho CSV
-     */
-    private String formatJsonValue(com.fasterxml.jackson.databind.JsonNode node) {
-        if (node.isNull()) {
-            return "";
-        } else if (node.isTextual()) {
-            return node.asText();
-        } else if (node.isNumber()) {
-            return node.asText();
-        } else if (node.isBoolean()) {
-            return String.valueOf(node.asBoolean());
-        } else if (node.isArray() || node.isObject()) {
-            // Nested objects/arrays: convert to JSON string
-            try {
-                return objectMapper.writeValueAsString(node);
-            } catch (Exception e) {
-                return node.toString();
-            }
-        } else {
-            return node.asText();
+    /** "tab" hoặc "\t" là tab, còn lại phải là đúng một ký tự */
+    private static Character parseDelimiter(String delimiter) {
+        if (delimiter == null || delimiter.isEmpty()) {
+            return null;
+        }
+        if ("tab".equalsIgnoreCase(delimiter) || "\\t".equals(delimiter)) {
+            return '\t';
         }
+        if (delimiter.length() != 1 || "\"\r\n".indexOf(delimiter.charAt(0)) >= 0) {
+            throw new IllegalArgumentException("delimiter must be a single character (not a quote or newline) or 'tab'");
+        }
+        return delimiter.charAt(0);
     }
 
-    /**
-     * Escape và quote các giá trị CSV
-     */
-    private java.util.List<String> escapeCsvValues(java.util.List<String> values) {
-        return values.stream()
-                .map(this::escapeCsvValue)
-                .collect(java.util.stream.Collectors.toList());
+    /** Định danh người xem cho đếm người xem phân biệt: user đã đăng nhập, hoặc IP + User-Agent */
+    private String viewerKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "u:" + principal.getName();
+        }
+        return "a:" + request.getRemoteAddr() + "|" + Objects.toString(request.getHeader(HttpHeaders.USER_AGENT), "");
     }
 
-    private String escapeCsvValue(String value) {
-        if (value == null) {
-            return "";
-        }
-        // Nếu chứa comma, newline, hoặc quote thì cần quote và escape
-        if (value.contains(",") || value.contains("\n") || value.contains("\"") || value.contains("\r")) {
-            // Escape quotes bằng cách double them
-            String escaped = value.replace("\"", "\"\"");
-            return "\"" + escaped + "\"";
-        }
-        return value;
+    private String sanitizeForFilename(String input) {
+        return input.replaceAll("[\\\\/:*?\"<>|]", "_");
     }
 
     @Operation(summary = "Tạo một Bộ dữ liệu mới")
@@ -547,6 +576,17 @@ public class DatasetController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdDataset);
     }
 
+    @Operation(summary = "Nhập hàng loạt dataset (NDJSON hoặc JSON array), upsert theo source + dataUrl")
+    @ApiResponse(responseCode = "200", description = "Kết quả theo từng bản ghi (CREATED/UPDATED/INVALID/FAILED)")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BulkIngestResultDto> bulkIngest(
+            @Parameter(description = "Chỉ trả về các bản ghi lỗi trong danh sách items (mặc định); false: trả về mọi bản ghi")
+            @RequestParam(defaultValue = "true") boolean errorsOnly,
+            HttpServletRequest request) throws IOException {
+        // Đọc trực tiếp từ input stream để validate/ghi theo lô mà không giữ toàn bộ body trong bộ nhớ
+        return ResponseEntity.ok(datasetIngestService.ingest(request.getInputStream(), errorsOnly));
+    }
+
     @Operation(summary = "Cập nhật một Bộ dữ liệu")
     @PutMapping("/{id}")
     public ResponseEntity<DatasetDto> updateDataset(
@@ -18,14 +18,18 @@ package io.ldxinsight.controller;
 
 import io.ldxinsight.dto.CategoryStatisDTO;
 import io.ldxinsight.dto.DatasetDto;
+import io.ldxinsight.dto.DatasetViewStatsDto;
 import io.ldxinsight.dto.StatSummaryDto;
+import io.ldxinsight.dto.TrendingDatasetDto;
 import io.ldxinsight.service.DatasetService;
+import io.ldxinsight.service.StatsWindow;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -42,8 +46,11 @@ public class StatisticsController {
 
     @Operation(summary = "Lấy thống kê tổng quan (tổng dataset, views, downloads)")
     @GetMapping("/summary")
-    public ResponseEntity<StatSummaryDto> getSummary() {
-        return ResponseEntity.ok(datasetService.getStatsSummary());
+    public ResponseEntity<StatSummaryDto> getSummary(
+            @Parameter(description = "Khoảng thời gian: 24h, 7d, 30d, 12m hoặc all (mặc định, tính trọn đời)")
+            @RequestParam(required = false) String window
+    ) {
+        return ResponseEntity.ok(datasetService.getStatsSummary(StatsWindow.parse(window)));
     }
 
     @Operation(summary = "Thống kê số lượng dataset theo từng danh mục")
@@ -56,17 +63,40 @@ public class StatisticsController {
     @GetMapping("/top-viewed")
     public ResponseEntity<List<DatasetDto>> getTopViewed(
             @Parameter(description = "Số lượng dataset muốn lấy, ví dụ: 5")
-            @RequestParam(defaultValue = "5") int limit
+            @RequestParam(defaultValue = "5") int limit,
+            @Parameter(description = "Khoảng thời gian: 24h, 7d, 30d, 12m hoặc all (mặc định, tính trọn đời)")
+            @RequestParam(required = false) String window
     ) {
-        return ResponseEntity.ok(datasetService.getTopViewedDatasets(limit));
+        return ResponseEntity.ok(datasetService.getTopViewedDatasets(limit, StatsWindow.parse(window)));
     }
 
     @Operation(summary = "Lấy Top N dataset được TẢI nhiều nhất")
     @GetMapping("/top-downloaded")
     public ResponseEntity<List<DatasetDto>> getTopDownloaded(
             @Parameter(description = "Số lượng dataset muốn lấy, ví dụ: 5")
-            @RequestParam(defaultValue = "5") int limit
+            @RequestParam(defaultValue = "5") int limit,
+            @Parameter(description = "Khoảng thời gian: 24h, 7d, 30d, 12m hoặc all (mặc định, tính trọn đời)")
+            @RequestParam(required = false) String window
+    ) {
+        return ResponseEntity.ok(datasetService.getTopDownloadedDatasets(limit, StatsWindow.parse(window)));
+    }
+
+    @Operation(summary = "Lấy Top N dataset đang thịnh hành (lượt xem/tải gần đây có trọng số cao hơn)")
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingDatasetDto>> getTrending(
+            @Parameter(description = "Số lượng dataset muốn lấy, ví dụ: 10")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(datasetService.getTrendingDatasets(limit));
+    }
+
+    @Operation(summary = "Lượt xem và số người xem phân biệt (ước lượng HyperLogLog) của một dataset")
+    @GetMapping("/datasets/{id}/views")
+    public ResponseEntity<DatasetViewStatsDto> getViewStats(
+            @PathVariable String id,
+            @Parameter(description = "Khoảng thời gian: 7d, 30d, 12m hoặc all (mặc định)")
+            @RequestParam(required = false) String window
     ) {
-        return ResponseEntity.ok(datasetService.getTopDownloadedDatasets(limit));
+        return ResponseEntity.ok(datasetService.getViewStats(id, StatsWindow.parse(window)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkIngestResultDto {
+    private int received;
+    private int created;
+    private int updated;
+    private int invalid;
+    private int failed;
+    private long durationMs;
+
+    /** Lỗi cú pháp làm dừng việc đọc body (các bản ghi trước đó vẫn được ghi) */
+    private String error;
+
+    private List<BulkIngestItemResult> items = new ArrayList<>();
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kết quả tổng hợp theo nhóm trên record của dataset.
+ * Các nhóm được sắp theo metric đầu tiên giảm dần (nhóm không có giá trị ở cuối).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatasetAggregateDto {
+    private String datasetId;
+    private String groupBy;
+    private List<String> metrics;
+    private List<GroupDto> groups;
+    /** Tổng số nhóm (có thể nhiều hơn số nhóm trả về) */
+    private int totalGroups;
+    /** Số record đã tổng hợp */
+    private long scannedRows;
+    /** columnar: tính trên cache dạng cột; json: parse nội dung gốc */
+    private String source;
+    /** Kết quả lấy từ cache (cùng checksum nội dung và cùng truy vấn) */
+    private boolean cached;
+    private long durationMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GroupDto {
+        /** Giá trị nhóm, null với các record không có giá trị nhóm */
+        private JsonNode key;
+        private long rows;
+        /** metric (vd: sum:gia_tri) -> giá trị, null khi nhóm không có giá trị số */
+        private Map<String, Double> values;
+    }
+}
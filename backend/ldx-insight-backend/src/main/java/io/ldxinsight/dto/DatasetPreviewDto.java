@@ -0,0 +1,39 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Xem trước dữ liệu dạng bảng gọn: danh sách cột và các dòng là mảng giá trị theo thứ tự cột
+ * (null khi record không có cột đó).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatasetPreviewDto {
+    private String datasetId;
+    private List<String> columns;
+    private List<List<JsonNode>> rows;
+    /** Nguồn còn record sau các dòng đã trả về */
+    private boolean truncated;
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class DatasetProfileDto {
+    private String datasetId;
+    private String checksum;
+    private long contentBytes;
+    private long rowCount;
+    private boolean columnsTruncated;
+    private List<ColumnProfileDto> columns;
+    private Instant profiledAt;
+    private Instant checkedAt;
+
+    @Data
+    public static class ColumnProfileDto {
+        private String name;
+        private String type;
+        private Map<String, Long> typeCounts;
+        private long nonNull;
+        private long nulls;
+        private double nullRatio;
+        private long distinct;
+        private Double min;
+        private Double max;
+        private Double mean;
+        private Map<String, Double> quantiles;
+        private Integer minLength;
+        private Integer maxLength;
+        private List<ValueCountDto> topValues;
+    }
+
+    @Data
+    public static class ValueCountDto {
+        private String value;
+        private long count;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.dto;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Một trang record của dataset sau khi lọc (where) và chọn field (fields).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatasetRowsDto {
+    private String datasetId;
+    private long offset;
+    private int limit;
+    private List<ObjectNode> rows;
+    /** Còn record thỏa điều kiện sau trang này */
+    private boolean hasMore;
+    /** Số record đã đọc từ nguồn để tạo trang này */
+    private long scanned;
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexStatusDto {
+
+    public enum Status {
+        OK,
+        CREATED,
+        RECREATED,
+        EXISTS_WITH_OTHER_NAME,
+        UNMANAGED,
+        DROPPED,
+        FAILED
+    }
+
+    private String collection;
+    private String name;
+    private Map<String, Object> keys;
+    private Status status;
+    private String message;
+}
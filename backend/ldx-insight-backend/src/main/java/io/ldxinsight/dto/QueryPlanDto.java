@@ -0,0 +1,39 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryPlanDto {
+    /** Tên dạng truy vấn (tương ứng một method repository/service) */
+    private String name;
+    private String collection;
+    /** Các stage của winning plan, từ ngoài vào trong */
+    private List<String> stages;
+    private List<String> indexes;
+    private boolean collscan;
+    /** COLLSCAN được chấp nhận có chủ đích (xem note) */
+    private boolean accepted;
+    private String note;
+}
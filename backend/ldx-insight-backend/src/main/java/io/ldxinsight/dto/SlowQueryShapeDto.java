@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowQueryShapeDto {
+    /** Tên lệnh Mongo (find, aggregate, update...) */
+    private String command;
+    private String collection;
+    /** Dạng truy vấn đã bỏ giá trị cụ thể (literal thay bằng "?") */
+    private String shape;
+    private long count;
+    /** Số lần vượt ngưỡng chậm */
+    private long slowCount;
+    private double meanMs;
+    private double maxMs;
+    private double totalMs;
+    /** Tóm tắt winning plan của lần chậm gần nhất (nếu đã explain) */
+    private String lastPlan;
+    private Instant lastSeen;
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** Node đang quá tải (hết ngân sách bộ nhớ cho việc tải/chuyển đổi dữ liệu), client nên thử lại sau */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServerBusyException extends RuntimeException {
+
+    public ServerBusyException(String message) {
+        super(message);
+    }
+}
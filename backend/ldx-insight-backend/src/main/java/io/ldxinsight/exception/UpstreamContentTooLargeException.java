@@ -0,0 +1,29 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** Nội dung nguồn dữ liệu vượt quá kích thước tối đa được phép tải (ldx.upstream.max-content-size) */
+@ResponseStatus(HttpStatus.BAD_GATEWAY)
+public class UpstreamContentTooLargeException extends RuntimeException {
+
+    public UpstreamContentTooLargeException(long maxBytes) {
+        super("Upstream content exceeds the maximum size of " + maxBytes + " bytes");
+    }
+}
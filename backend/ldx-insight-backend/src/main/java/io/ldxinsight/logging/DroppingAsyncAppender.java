@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AsyncAppender không bao giờ chặn luồng request: khi hàng đợi đầy (hoặc vượt ngưỡng
+ * discardingThreshold với event mức INFO trở xuống) thì bỏ event và đếm số event bị bỏ.
+ * Bộ đếm giữ theo tên appender nên không bị mất khi logback được cấu hình lại.
+ */
+public class DroppingAsyncAppender extends AsyncAppender {
+
+    private static final Map<String, LongAdder> DROPPED = new ConcurrentHashMap<>();
+
+    private LongAdder dropped;
+
+    public DroppingAsyncAppender() {
+        setNeverBlock(true);
+    }
+
+    /** Số event đã bị bỏ của từng appender từ khi JVM khởi động */
+    public static Map<String, LongAdder> droppedCounts() {
+        return DROPPED;
+    }
+
+    @Override
+    public void start() {
+        dropped = DROPPED.computeIfAbsent(getName(), k -> new LongAdder());
+        super.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        // Cùng điều kiện bỏ event của AsyncAppenderBase, kiểm tra trước để đếm được
+        if (remaining == 0 || (remaining < getDiscardingThreshold() && isDiscardable(event))) {
+            dropped.increment();
+            return;
+        }
+        super.append(event);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lấy mẫu log chi tiết theo request: với mỗi category khai báo (vd: org.springframework.security=DEBUG),
+ * event từ mức đó trở xuống chỉ được ghi khi request hiện tại được chọn mẫu (MDC sampled=true,
+ * do AccessLogFilter quyết định). Event bị loại ngay tại đây, trước khi format message.
+ */
+public class RequestSamplingTurboFilter extends TurboFilter {
+
+    public static final String SAMPLED_MDC_KEY = "sampled";
+
+    /** Tiền tố tên logger -> mức cao nhất cần lấy mẫu */
+    private final Map<String, Level> categories = new LinkedHashMap<>();
+
+    /** Dạng "tên.logger=LEVEL", mặc định DEBUG */
+    public void addCategory(String category) {
+        int eq = category.indexOf('=');
+        String name = (eq < 0 ? category : category.substring(0, eq)).trim();
+        Level level = eq < 0 ? Level.DEBUG : Level.toLevel(category.substring(eq + 1).trim(), Level.DEBUG);
+        categories.put(name, level);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || !isStarted()) {
+            return FilterReply.NEUTRAL;
+        }
+        Level sampledUpTo = sampledLevel(logger.getName());
+        if (sampledUpTo == null || level.toInt() > sampledUpTo.toInt()) {
+            return FilterReply.NEUTRAL;
+        }
+        return "true".equals(MDC.get(SAMPLED_MDC_KEY)) ? FilterReply.ACCEPT : FilterReply.DENY;
+    }
+
+    private Level sampledLevel(String loggerName) {
+        for (Map.Entry<String, Level> entry : categories.entrySet()) {
+            String prefix = entry.getKey();
+            if (loggerName.startsWith(prefix)
+                    && (loggerName.length() == prefix.length() || loggerName.charAt(prefix.length()) == '.')) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
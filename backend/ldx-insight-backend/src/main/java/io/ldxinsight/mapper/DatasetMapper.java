@@ -19,20 +19,26 @@ package io.ldxinsight.mapper;
 import io.ldxinsight.dto.CreateDatasetRequest;
 import io.ldxinsight.dto.DatasetDto;
 import io.ldxinsight.model.Dataset;
+import io.ldxinsight.util.TextNormalizer;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.ReportingPolicy;
 
 import java.util.List;
 
-@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE, imports = TextNormalizer.class)
 public interface DatasetMapper {
 
     DatasetDto toDto(Dataset dataset);
 
     List<DatasetDto> toDtoList(List<Dataset> datasets);
 
+    @Mapping(target = "categoryKey", expression = "java(TextNormalizer.categoryKey(request.getCategory()))")
+    @Mapping(target = "providerKey", expression = "java(TextNormalizer.providerKey(request.getProvider()))")
     Dataset toEntity(CreateDatasetRequest request);
 
+    @Mapping(target = "categoryKey", expression = "java(TextNormalizer.categoryKey(request.getCategory()))")
+    @Mapping(target = "providerKey", expression = "java(TextNormalizer.providerKey(request.getProvider()))")
     void updateFromRequest(CreateDatasetRequest request, @MappingTarget Dataset dataset);
 }
\ No newline at end of file
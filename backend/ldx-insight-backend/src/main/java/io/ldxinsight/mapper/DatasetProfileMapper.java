@@ -0,0 +1,34 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.mapper;
+
+import io.ldxinsight.dto.DatasetProfileDto;
+import io.ldxinsight.model.DatasetProfile;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface DatasetProfileMapper {
+
+    @Mapping(target = "datasetId", source = "id")
+    DatasetProfileDto toDto(DatasetProfile profile);
+
+    DatasetProfileDto.ColumnProfileDto toDto(DatasetProfile.Column column);
+
+    DatasetProfileDto.ValueCountDto toDto(DatasetProfile.ValueCount valueCount);
+}
@@ -23,6 +23,10 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.IndexDirection;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -33,6 +37,13 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Document(collection = "datasets")
+@CompoundIndexes({
+        // Lọc theo category + sắp theo ngày tạo (trang danh mục)
+        @CompoundIndex(name = "categoryKey_createdAt", def = "{'categoryKey': 1, 'createdAt': 1}"),
+        // Khóa upsert của bulk ingest; chỉ áp dụng khi có đủ source và dataUrl (dataset tạo tay có thể thiếu)
+        @CompoundIndex(name = "source_dataUrl", def = "{'source': 1, 'dataUrl': 1}", unique = true,
+                partialFilter = "{'source': {'$exists': true}, 'dataUrl': {'$exists': true}}")
+})
 public class Dataset {
 
     @Id
@@ -43,15 +54,24 @@ public class Dataset {
     private String source;
     private List<String> tags;
     private String category;
+    /** Dạng chuẩn hóa của category (xem TextNormalizer.categoryKey), dùng để lọc/group theo index */
+    private String categoryKey;
     private String dataUrl;
     private String provider;
+    /** Dạng chuẩn hóa của provider (xem TextNormalizer.providerKey), dùng để lọc theo index */
+    @Indexed(name = "providerKey")
+    private String providerKey;
 
+    @Indexed(name = "viewCount", direction = IndexDirection.DESCENDING)
     private long viewCount = 0;
+    @Indexed(name = "downloadCount", direction = IndexDirection.DESCENDING)
     private long downloadCount = 0;
 
     @CreatedDate
+    @Indexed(name = "createdAt")
     private Instant createdAt;
 
     @LastModifiedDate
+    @Indexed(name = "updatedAt")
     private Instant updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hồ sơ cột của nội dung một dataset (id = id dataset), tính bằng một lượt đọc stream.
+ * Chỉ được tính lại khi checksum nội dung thay đổi.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "dataset_profiles")
+public class DatasetProfile {
+
+    @Id
+    private String id;
+
+    /** SHA-256 (hex) của nội dung gốc */
+    private String checksum;
+    private long contentBytes;
+    private long rowCount;
+    /** true nếu số cột vượt giới hạn và các cột sau bị bỏ qua */
+    private boolean columnsTruncated;
+    private List<Column> columns;
+
+    /** Thời điểm tính hồ sơ (nội dung thay đổi) */
+    private Instant profiledAt;
+    /** Thời điểm kiểm tra checksum gần nhất */
+    private Instant checkedAt;
+    private long durationMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Column {
+        private String name;
+        /** Kiểu chiếm đa số trong các giá trị khác null: string, integer, number, boolean, object, array */
+        private String type;
+        /** Số giá trị theo kiểu */
+        private Map<String, Long> typeCounts;
+        private long nonNull;
+        /** Số record có giá trị null hoặc thiếu cột */
+        private long nulls;
+        private double nullRatio;
+        /** Số giá trị phân biệt, ước lượng bằng HyperLogLog */
+        private long distinct;
+        private Double min;
+        private Double max;
+        private Double mean;
+        /** Phân vị (p01, p25, p50, p75, p95, p99) của giá trị số, ước lượng bằng t-digest */
+        private Map<String, Double> quantiles;
+        private Integer minLength;
+        private Integer maxLength;
+        /** Các giá trị thường gặp nhất (Space-Saving) */
+        private List<ValueCount> topValues;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ValueCount {
+        private String value;
+        private long count;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Số lượt xem/tải của một dataset trong một giờ (UTC). Được ghi theo lô từ bộ đệm của
+ * DatasetAnalyticsService bằng upsert $inc; tự xóa sau 35 ngày (dữ liệu cũ hơn đã nằm trong bản tổng hợp ngày).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "dataset_stats_hourly")
+@CompoundIndexes({
+        // Khóa upsert: mỗi dataset một document cho mỗi bucket
+        @CompoundIndex(name = "datasetId_bucket", def = "{'datasetId': 1, 'bucket': 1}", unique = true),
+        // Truy vấn theo cửa sổ thời gian đọc hoàn toàn từ index (không fetch document)
+        @CompoundIndex(name = "bucket_covering", def = "{'bucket': 1, 'datasetId': 1, 'views': 1, 'downloads': 1}")
+})
+public class DatasetStatsHourly {
+
+    @Id
+    private String id;
+
+    private String datasetId;
+    /** Thời điểm bắt đầu bucket (UTC) */
+    @Indexed(name = "bucket_ttl", expireAfter = "35d")
+    private Instant bucket;
+    private long views;
+    private long downloads;
+}
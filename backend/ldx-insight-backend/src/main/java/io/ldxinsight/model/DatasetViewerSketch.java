@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * HyperLogLog người xem phân biệt của một dataset trong một ngày (UTC), do một node ghi.
+ * Mỗi node chỉ ghi document của chính nó; số người xem phân biệt là hợp (merge) của mọi
+ * document trong khoảng thời gian cần tính. Tự xóa sau 400 ngày như bucket ngày.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "dataset_viewers_daily")
+@CompoundIndexes({
+        // Khóa upsert của từng node, và truy vấn theo dataset + khoảng ngày
+        @CompoundIndex(name = "datasetId_bucket_node", def = "{'datasetId': 1, 'bucket': 1, 'node': 1}", unique = true)
+})
+public class DatasetViewerSketch {
+
+    @Id
+    private String id;
+
+    private String datasetId;
+    /** Ngày của sketch (UTC) */
+    @Indexed(name = "bucket_ttl", expireAfter = "400d")
+    private Instant bucket;
+    private String node;
+    /** HyperLogLog.toBytes() */
+    private byte[] sketch;
+}
@@ -33,9 +33,9 @@ public interface DatasetRepository extends MongoRepository<Dataset, String> {
             String titleKeyword, String descriptionKeyword, Pageable pageable
     );
 
-    Page<Dataset> findByCategoryIgnoreCase(String category, Pageable pageable);
+    Page<Dataset> findByCategoryKey(String categoryKey, Pageable pageable);
 
-    long countByCategoryIgnoreCase(String category);
+    long countByCategoryKey(String categoryKey);
 
     @Query("SELECT new io.ldxinsight.dto.CategoryStatDto(d.category, COUNT(d.id)) " +
            "FROM Dataset d " +
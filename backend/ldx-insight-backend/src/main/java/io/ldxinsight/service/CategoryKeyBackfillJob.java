@@ -0,0 +1,170 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import io.ldxinsight.model.Dataset;
+import io.ldxinsight.util.TextNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Điền categoryKey và providerKey cho các dataset cũ (được tạo trước khi có các trường này).
+ * Một luồng đọc cursor (_id, category, provider) của các document còn thiếu khóa, chia lô và
+ * giao cho nhiều worker ghi song song bằng BulkOperations.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CategoryKeyBackfillJob {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${ldx.categories.backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ldx.categories.backfill.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${ldx.categories.backfill.threads:4}")
+    private int threads;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        // Chạy nền để không chặn quá trình khởi động (và không làm hỏng startup khi Mongo chưa sẵn sàng)
+        Thread worker = new Thread(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                log.warn("Category key backfill failed: {}", e.getMessage());
+            }
+        }, "category-key-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** @return số document đã được điền khóa, hoặc -1 nếu đang có một lượt khác chạy */
+    public long run() throws InterruptedException {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Category key backfill is already running");
+            return -1;
+        }
+        try {
+            return backfill();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private long backfill() throws InterruptedException {
+        long started = System.nanoTime();
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("categoryKey").exists(false), Criteria.where("providerKey").exists(false)));
+        query.fields().include("_id", "category", "provider");
+        query.cursorBatchSize(batchSize);
+
+        AtomicLong updated = new AtomicLong();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "category-key-backfill-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // Giới hạn số lô đang chờ ghi để bộ nhớ không tăng theo kích thước collection
+        Semaphore inFlight = new Semaphore(threads * 2);
+
+        try (Stream<Dataset> stream = mongoTemplate.stream(query, Dataset.class)) {
+            List<Dataset> batch = new ArrayList<>(batchSize);
+            Iterator<Dataset> it = stream.iterator();
+            while (it.hasNext()) {
+                batch.add(it.next());
+                if (batch.size() >= batchSize) {
+                    submit(pool, inFlight, batch, updated);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(pool, inFlight, batch, updated);
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.HOURS);
+        }
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        if (updated.get() > 0) {
+            log.info("Category key backfill updated {} datasets in {} ms", updated.get(), elapsedMs);
+        }
+        return updated.get();
+    }
+
+    private void submit(ExecutorService pool, Semaphore inFlight, List<Dataset> batch, AtomicLong updated)
+            throws InterruptedException {
+        inFlight.acquire();
+        pool.execute(() -> {
+            try {
+                updated.addAndGet(applyBatch(batch));
+            } catch (Exception e) {
+                log.warn("Category key backfill batch of {} failed: {}", batch.size(), e.getMessage());
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private long applyBatch(List<Dataset> batch) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Dataset.class);
+        for (Dataset dataset : batch) {
+            // Điều kiện theo category/provider đã đọc: nếu dataset vừa bị sửa song song thì bỏ qua,
+            // vì lần ghi đó đã tự đặt khóa mới
+            Query query = new Query(Criteria.where("_id").is(dataset.getId())
+                    .and("category").is(dataset.getCategory())
+                    .and("provider").is(dataset.getProvider()));
+            ops.updateOne(query, new Update()
+                    .set("categoryKey", TextNormalizer.categoryKey(dataset.getCategory()))
+                    .set("providerKey", TextNormalizer.providerKey(dataset.getProvider())));
+        }
+        return ops.execute().getModifiedCount();
+    }
+}
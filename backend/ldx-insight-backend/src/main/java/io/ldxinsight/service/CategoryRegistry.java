@@ -0,0 +1,201 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import io.ldxinsight.dto.CategoryStatisDTO;
+import io.ldxinsight.model.Dataset;
+import io.ldxinsight.util.TextNormalizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Danh sách category và số dataset của từng category, giữ trong bộ nhớ.
+ * Category được gộp theo categoryKey (không phân biệt hoa/thường, dấu, khoảng trắng);
+ * tên hiển thị là tên gốc gặp đầu tiên của khóa đó.
+ * Được cập nhật tăng dần khi tạo/sửa/xóa dataset và đối soát định kỳ với Mongo
+ * (lần đối soát sau sẽ sửa mọi sai lệch do ghi song song hoặc do ghi từ node khác).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CategoryRegistry {
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /** categoryKey -> số dataset */
+    private volatile ConcurrentHashMap<String, AtomicLong> counts = new ConcurrentHashMap<>();
+    /** categoryKey -> tên hiển thị, giữ qua các lần đối soát */
+    private final ConcurrentHashMap<String, String> displayNames = new ConcurrentHashMap<>();
+    private volatile boolean stale = true;
+    private final Object reconcileLock = new Object();
+
+    /** Tên các category hiện có dataset, sắp xếp theo alphabet */
+    public List<String> getCategories() {
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<String, AtomicLong> entry : current().entrySet()) {
+            if (entry.getValue().get() > 0) {
+                names.add(displayName(entry.getKey()));
+            }
+        }
+        names.sort(Comparator.naturalOrder());
+        return names;
+    }
+
+    /** Thống kê số dataset theo category, giảm dần theo số lượng */
+    public List<CategoryStatisDTO> getCategoryStats() {
+        List<CategoryStatisDTO> stats = new ArrayList<>();
+        for (Map.Entry<String, AtomicLong> entry : current().entrySet()) {
+            long count = entry.getValue().get();
+            if (count > 0) {
+                stats.add(new CategoryStatisDTO(displayName(entry.getKey()), count));
+            }
+        }
+        stats.sort(Comparator.comparingLong(CategoryStatisDTO::getCount).reversed()
+                .thenComparing(CategoryStatisDTO::getCategory));
+        return stats;
+    }
+
+    /** Bản chụp category -> count, dùng lại cho facet */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (CategoryStatisDTO stat : getCategoryStats()) {
+            result.put(stat.getCategory(), stat.getCount());
+        }
+        return result;
+    }
+
+    public void onCreated(String category) {
+        adjust(category, 1);
+    }
+
+    public void onUpdated(String oldCategory, String newCategory) {
+        if (Objects.equals(TextNormalizer.categoryKey(oldCategory), TextNormalizer.categoryKey(newCategory))) {
+            return;
+        }
+        adjust(oldCategory, -1);
+        adjust(newCategory, 1);
+    }
+
+    public void onDeleted(String category) {
+        adjust(category, -1);
+    }
+
+    /** Đánh dấu cần đối soát lại ở lần đọc kế tiếp (vd: sau khi ingest hàng loạt) */
+    public void invalidate() {
+        stale = true;
+    }
+
+    @Scheduled(fixedDelayString = "${ldx.categories.reconcile-interval:PT5M}",
+            initialDelayString = "${ldx.categories.reconcile-interval:PT5M}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("Category registry reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Tính lại toàn bộ từ Mongo rồi thay thế bảng đếm. Aggregation chỉ đọc categoryKey
+     * nên được phục vụ hoàn toàn từ index (categoryKey, createdAt), không fetch document.
+     */
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("categoryKey").ne(null)),
+                    Aggregation.group("categoryKey").count().as("count"),
+                    Aggregation.project("count").and("_id").as("category")
+            );
+            List<CategoryStatisDTO> results = mongoTemplate
+                    .aggregate(aggregation, "datasets", CategoryStatisDTO.class)
+                    .getMappedResults();
+
+            ConcurrentHashMap<String, AtomicLong> fresh = new ConcurrentHashMap<>();
+            for (CategoryStatisDTO stat : results) {
+                String key = stat.getCategory();
+                if (StringUtils.hasText(key)) {
+                    fresh.put(key, new AtomicLong(stat.getCount()));
+                    if (!displayNames.containsKey(key)) {
+                        displayNames.put(key, lookupDisplayName(key));
+                    }
+                }
+            }
+            counts = fresh;
+            stale = false;
+            log.debug("Category registry reconciled: {} categories", fresh.size());
+        }
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private Map<String, AtomicLong> current() {
+        boolean hit = !stale;
+        if (!hit) {
+            synchronized (reconcileLock) {
+                if (stale) {
+                    reconcile();
+                }
+            }
+        }
+        // Cùng tên/tag với metric cache của Micrometer để tính hit ratio chung cho mọi cache
+        meterRegistry.counter("cache.gets", "cache", "categories", "result", hit ? "hit" : "miss").increment();
+        return counts;
+    }
+
+    private void adjust(String category, long delta) {
+        String key = TextNormalizer.categoryKey(category);
+        if (key == null) {
+            return;
+        }
+        displayNames.putIfAbsent(key, category.trim());
+        if (stale) {
+            // Chưa nạp lần nào thì không cần cộng dồn, lần đọc đầu tiên sẽ đối soát
+            return;
+        }
+        counts.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta);
+    }
+
+    private String displayName(String key) {
+        return displayNames.getOrDefault(key, key);
+    }
+
+    /** Lấy tên gốc của một dataset thuộc khóa này (lookup theo index, chỉ khi chưa biết tên) */
+    private String lookupDisplayName(String key) {
+        Query query = new Query(Criteria.where("categoryKey").is(key));
+        query.fields().include("category");
+        Dataset sample = mongoTemplate.findOne(query, Dataset.class);
+        return sample != null && StringUtils.hasText(sample.getCategory()) ? sample.getCategory().trim() : key;
+    }
+}
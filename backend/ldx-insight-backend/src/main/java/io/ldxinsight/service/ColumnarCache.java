@@ -0,0 +1,404 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.ldxinsight.util.ColumnarFile;
+import io.ldxinsight.util.ContentChecksum;
+import io.ldxinsight.util.JsonRecordReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Cache dạng cột (ColumnarFile) của nội dung dataset trên đĩa local, mỗi dataset một file
+ * {@code <id>-<sha256>.ldxc} trong ldx.columnar.dir.
+ * File được tạo ở nền ở lần đọc đầu tiên; trong lúc đó người gọi đọc thẳng nội dung JSON.
+ * Giống hồ sơ cột, sau ldx.columnar.recheck-interval checksum nội dung được kiểm tra lại ở nền
+ * và file chỉ được tạo lại khi checksum đổi.
+ * <p>
+ * Thư mục được quét một lần ở lần đọc đầu tiên; sau đó danh sách file trên đĩa được giữ trong bộ nhớ nên
+ * dataset chưa có file không tốn một lần duyệt thư mục mỗi lần đọc. Tổng dung lượng các file bị giới hạn bởi
+ * ldx.columnar.max-total-size: vượt ngưỡng thì xoá file của dataset lâu chưa được đọc nhất (LRU).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ColumnarCache {
+
+    /** Chỉ cache dataset có id an toàn để dùng làm tên file (ObjectId của Mongo) */
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9_]{1,64}");
+
+    private final DatasetService datasetService;
+    private final UpstreamContentFetcher upstreamContentFetcher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ldx.columnar.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ldx.columnar.dir:${java.io.tmpdir}/ldx-columnar}")
+    private String directory;
+
+    @Value("${ldx.columnar.max-file-size:1GB}")
+    private DataSize maxFileSize;
+
+    @Value("${ldx.columnar.max-total-size:10GB}")
+    private DataSize maxTotalSize;
+
+    @Value("${ldx.columnar.chunk-rows:8192}")
+    private int chunkRows;
+
+    @Value("${ldx.columnar.recheck-interval:PT6H}")
+    private Duration recheckInterval;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /** Dataset không tạo được file (quá lớn, không phải record JSON, lỗi nguồn) -> thời điểm được thử lại */
+    private final Map<String, Instant> retryAfter = new ConcurrentHashMap<>();
+    private final Set<String> building = ConcurrentHashMap.newKeySet();
+    /** File cột đang có trên đĩa (đã mở hay chưa), có giá trị sau lần quét thư mục đầu tiên */
+    private final Map<String, Path> files = new ConcurrentHashMap<>();
+    /** Dung lượng file theo dataset, thứ tự truy cập (đầu: lâu chưa đọc nhất); khoá bằng chính map */
+    private final LinkedHashMap<String, Long> diskUsage = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskUsed;
+    private volatile boolean indexed;
+    private final ThreadPoolExecutor buildExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(64), r -> {
+                Thread thread = new Thread(r, "columnar-cache");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+
+    private record Entry(String checksum, Path path, ColumnarFile.Reader reader, Instant checkedAt) {
+    }
+
+    /** File cột cùng checksum của nội dung đã tạo ra nó */
+    public record Snapshot(String checksum, ColumnarFile.Reader reader) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        buildExecutor.shutdownNow();
+    }
+
+    /**
+     * File cột của dataset, null khi chưa có (việc tạo file được lên lịch ở nền).
+     * File quá hạn kiểm tra vẫn được trả về, checksum được kiểm tra lại ở nền.
+     */
+    public ColumnarFile.Reader get(String id) {
+        Snapshot snapshot = lookup(id);
+        return snapshot != null ? snapshot.reader() : null;
+    }
+
+    /** Như {@link #get(String)}, kèm checksum nội dung (dùng làm khoá cache kết quả tính trên file) */
+    public Snapshot lookup(String id) {
+        if (!enabled || !SAFE_ID.matcher(id).matches()) {
+            return null;
+        }
+        index();
+        Entry entry = entries.get(id);
+        if (entry == null && files.containsKey(id)) {
+            entry = loadExisting(id);
+            if (entry != null) {
+                Entry raced = entries.putIfAbsent(id, entry);
+                entry = raced != null ? raced : entry;
+            }
+        }
+        if (entry != null) {
+            synchronized (diskUsage) {
+                // Truy cập để đưa dataset về cuối thứ tự LRU
+                diskUsage.get(id);
+            }
+        }
+        if (entry == null || entry.checkedAt().plus(recheckInterval).isBefore(Instant.now())) {
+            schedule(id);
+        }
+        Counter.builder("ldx.columnar.requests")
+                .description("Số lần đọc dữ liệu qua cache dạng cột")
+                .tag("result", entry != null ? "hit" : "miss")
+                .register(meterRegistry)
+                .increment();
+        return entry != null ? new Snapshot(entry.checksum(), entry.reader()) : null;
+    }
+
+    /**
+     * Kiểm tra checksum nội dung, tạo lại file nếu nội dung đã đổi (hoặc chưa có file).
+     */
+    public void refresh(String id) {
+        String sourceUrl = datasetService.getDataUrl(id);
+        Entry current = entries.get(id);
+        if (current != null) {
+            String checksum = upstreamContentFetcher.stream(sourceUrl, ContentChecksum::of);
+            if (checksum.equals(current.checksum())) {
+                Instant now = Instant.now();
+                try {
+                    Files.setLastModifiedTime(current.path(), FileTime.from(now));
+                } catch (IOException e) {
+                    log.debug("Cannot touch columnar file {}: {}", current.path(), e.getMessage());
+                }
+                entries.put(id, new Entry(current.checksum(), current.path(), current.reader(), now));
+                return;
+            }
+        }
+        build(id, sourceUrl, current);
+    }
+
+    /** Xoá file cột của dataset (khi dataset bị xoá) */
+    public void remove(String id) {
+        entries.remove(id);
+        retryAfter.remove(id);
+        synchronized (diskUsage) {
+            Long size = diskUsage.remove(id);
+            diskUsed -= size != null ? size : 0;
+        }
+        Path path = files.remove(id);
+        if (path != null) {
+            deleteQuietly(path);
+        }
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private void schedule(String id) {
+        Instant retry = retryAfter.get(id);
+        if (retry != null && retry.isAfter(Instant.now())) {
+            return;
+        }
+        if (!building.add(id)) {
+            return;
+        }
+        try {
+            buildExecutor.execute(() -> {
+                try {
+                    refresh(id);
+                    retryAfter.remove(id);
+                } catch (Exception e) {
+                    retryAfter.put(id, Instant.now().plus(recheckInterval));
+                    log.info("Columnar cache of dataset {} not built: {}", id, e.getMessage());
+                } finally {
+                    building.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Hàng đợi đầy: bỏ qua, lần đọc sau sẽ thử lại
+            building.remove(id);
+        }
+    }
+
+    private void build(String id, String sourceUrl, Entry previous) {
+        Path dir = Path.of(directory);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        Path temp = null;
+        try {
+            Files.createDirectories(dir);
+            Path tempFile = Files.createTempFile(dir, id + ".", ".tmp");
+            temp = tempFile;
+            long[] rows = new long[1];
+            String checksum = upstreamContentFetcher.stream(sourceUrl, in -> write(in, tempFile, rows));
+            Path target = dir.resolve(id + "-" + checksum + ColumnarFile.EXTENSION);
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            ColumnarFile.Reader reader = ColumnarFile.Reader.open(target, objectMapper);
+            entries.put(id, new Entry(checksum, target, reader, Instant.now()));
+            Path replaced = files.put(id, target);
+            if (replaced != null && !replaced.equals(target)) {
+                // Reader cũ có thể vẫn đang được đọc: vùng nhớ đã map vẫn hợp lệ sau khi xoá file
+                Files.deleteIfExists(replaced);
+            }
+            evict(account(id, reader.getFileSize()));
+            outcome = "success";
+            log.info("Built columnar cache for dataset {}: {} rows, {} columns, {} bytes",
+                    id, rows[0], reader.getColumns().size(), reader.getFileSize());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write columnar cache: " + e.getMessage(), e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.debug("Cannot delete temporary columnar file {}: {}", temp, e.getMessage());
+                }
+            }
+            sample.stop(Timer.builder("ldx.columnar.build")
+                    .description("Thời gian tạo cache dạng cột cho một dataset")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /** Ghi record từ nội dung JSON vào file cột, trả về checksum của toàn bộ nội dung */
+    private String write(InputStream source, Path target, long[] rows) throws IOException {
+        MessageDigest digest = ContentChecksum.newDigest();
+        DigestInputStream in = new DigestInputStream(source, digest);
+        try (JsonRecordReader reader = JsonRecordReader.open(in, objectMapper);
+             ColumnarFile.Writer writer = new ColumnarFile.Writer(target, chunkRows, maxFileSize.toBytes())) {
+            ObjectNode record;
+            while ((record = reader.next()) != null) {
+                writer.add(record);
+            }
+            writer.finish();
+            rows[0] = writer.getRowCount();
+            // Đọc nốt phần sau mảng record để checksum bao phủ toàn bộ nội dung
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return ContentChecksum.hex(digest);
+    }
+
+    /** File đã có trên đĩa (theo danh sách đã quét), thời điểm kiểm tra là mtime của file */
+    private Entry loadExisting(String id) {
+        Path path = files.get(id);
+        if (path == null) {
+            return null;
+        }
+        try {
+            String name = path.getFileName().toString();
+            String checksum = name.substring(id.length() + 1, name.length() - ColumnarFile.EXTENSION.length());
+            return new Entry(checksum, path, ColumnarFile.Reader.open(path, objectMapper),
+                    Files.getLastModifiedTime(path).toInstant());
+        } catch (IOException e) {
+            log.warn("Discarding unreadable columnar cache {} of dataset {}: {}", path, id, e.getMessage());
+            // lần tạo file kế tiếp sẽ ghi lại
+            remove(id);
+            return null;
+        }
+    }
+
+    /**
+     * Quét thư mục một lần: file mới nhất của mỗi dataset vào danh sách (cũ nhất theo mtime đứng đầu LRU),
+     * file cũ hơn của cùng dataset bị xoá.
+     */
+    private void index() {
+        if (indexed) {
+            return;
+        }
+        synchronized (files) {
+            if (indexed) {
+                return;
+            }
+            Path dir = Path.of(directory);
+            Map<String, Path> latest = new LinkedHashMap<>();
+            Map<Path, FileTime> modified = new LinkedHashMap<>();
+            if (Files.isDirectory(dir)) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*-*" + ColumnarFile.EXTENSION)) {
+                    for (Path file : stream) {
+                        String id = file.getFileName().toString().substring(0, file.getFileName().toString().indexOf('-'));
+                        modified.put(file, Files.getLastModifiedTime(file));
+                        Path current = latest.get(id);
+                        if (current == null || modified.get(file).compareTo(modified.get(current)) > 0) {
+                            latest.put(id, file);
+                            if (current != null) {
+                                deleteQuietly(current);
+                            }
+                        } else {
+                            deleteQuietly(file);
+                        }
+                    }
+                } catch (IOException e) {
+                    log.warn("Cannot scan columnar cache directory {}: {}", dir, e.getMessage());
+                }
+            }
+            List<Map.Entry<String, Path>> byAge = new ArrayList<>(latest.entrySet());
+            byAge.sort(Comparator.comparing(e -> modified.get(e.getValue())));
+            List<String> evicted = new ArrayList<>();
+            for (Map.Entry<String, Path> file : byAge) {
+                files.put(file.getKey(), file.getValue());
+                try {
+                    evicted.addAll(account(file.getKey(), Files.size(file.getValue())));
+                } catch (IOException e) {
+                    files.remove(file.getKey());
+                }
+            }
+            evict(evicted);
+            indexed = true;
+        }
+    }
+
+    /**
+     * Ghi nhận dung lượng file của dataset {@code id} (là file vừa dùng gần nhất).
+     *
+     * @return các dataset cần xoá file để tổng dung lượng không vượt ldx.columnar.max-total-size
+     */
+    private List<String> account(String id, long bytes) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (diskUsage) {
+            Long previous = diskUsage.put(id, bytes);
+            diskUsed += bytes - (previous != null ? previous : 0);
+            Iterator<Map.Entry<String, Long>> eldest = diskUsage.entrySet().iterator();
+            while (diskUsed > maxTotalSize.toBytes() && eldest.hasNext()) {
+                Map.Entry<String, Long> candidate = eldest.next();
+                if (!candidate.getKey().equals(id)) {
+                    eldest.remove();
+                    diskUsed -= candidate.getValue();
+                    evicted.add(candidate.getKey());
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private void evict(List<String> ids) {
+        for (String id : ids) {
+            entries.remove(id);
+            Path path = files.remove(id);
+            if (path != null) {
+                log.info("Evicting columnar cache of dataset {} ({} limit reached)", id, maxTotalSize);
+                deleteQuietly(path);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Cannot delete columnar file {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.ldxinsight.dto.DatasetAggregateDto;
+import io.ldxinsight.util.ContentChecksum;
+import io.ldxinsight.util.GroupAggregator;
+import io.ldxinsight.util.JsonRecordReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tổng hợp theo nhóm (count/sum/avg/min/max) trên nội dung dataset.
+ * Khi dataset đã có cache dạng cột, các chunk được tổng hợp song song trên một ForkJoinPool riêng;
+ * ngược lại parse tuần tự nội dung JSON, đồng thời tính checksum của nội dung khi đọc.
+ * Kết quả được cache theo checksum nội dung + truy vấn. Với nguồn JSON, checksum lần đọc gần nhất của dataset
+ * được dùng lại trong ldx.aggregate.json-recheck-interval, quá hạn thì đọc lại nguồn.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatasetAggregateService {
+
+    private static final int MAX_METRICS = 16;
+
+    private final DatasetService datasetService;
+    private final ColumnarCache columnarCache;
+    private final UpstreamContentFetcher upstreamContentFetcher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ldx.aggregate.max-groups:10000}")
+    private int maxGroups;
+
+    /** Số luồng tổng hợp, 0: số CPU */
+    @Value("${ldx.aggregate.parallelism:0}")
+    private int parallelism;
+
+    /** Số kết quả giữ trong cache (LRU) */
+    @Value("${ldx.aggregate.cache-size:256}")
+    private int cacheSize;
+
+    /** Thời gian dùng lại checksum nội dung JSON đã đọc trước khi phải đọc lại nguồn */
+    @Value("${ldx.aggregate.json-recheck-interval:PT10M}")
+    private Duration jsonRecheckInterval;
+
+    private ForkJoinPool pool;
+    private Map<String, Result> results;
+    private Map<String, Checksum> jsonChecksums;
+
+    /** Kết quả đầy đủ (mọi nhóm, đã sắp xếp) của một truy vấn, kèm checksum nội dung đã tổng hợp */
+    private record Result(List<DatasetAggregateDto.GroupDto> groups, long scanned, String source, long durationMs,
+                          String checksum) {
+    }
+
+    /** Checksum nội dung JSON của một dataset ở lần đọc gần nhất */
+    private record Checksum(String value, Instant checkedAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        int capacity = cacheSize;
+        results = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Result> eldest) {
+                return size() > capacity;
+            }
+        });
+        jsonChecksums = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Checksum> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * @param groupBy cột nhóm, null/rỗng: cả dataset là một nhóm
+     * @param metrics vd: count, sum:gia_tri, avg:gia_tri (rỗng: count)
+     * @param limit   số nhóm trả về
+     */
+    public DatasetAggregateDto aggregate(String id, String groupBy, List<String> metrics, int limit) {
+        if (limit < 1 || limit > maxGroups) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxGroups);
+        }
+        List<GroupAggregator.Metric> specs = new ArrayList<>();
+        for (String expression : metrics == null || metrics.isEmpty() ? List.of("count") : metrics) {
+            if (!expression.isBlank()) {
+                specs.add(GroupAggregator.Metric.parse(expression));
+            }
+        }
+        if (specs.isEmpty() || specs.size() > MAX_METRICS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_METRICS + " metrics are required");
+        }
+        // Bỏ metric trùng, giữ thứ tự
+        specs = specs.stream().distinct().toList();
+        String group = groupBy == null || groupBy.isBlank() ? null : groupBy.trim();
+        GroupAggregator aggregator = new GroupAggregator(group, specs, maxGroups);
+        List<String> names = specs.stream().map(GroupAggregator.Metric::toString).toList();
+
+        String sourceUrl = datasetService.getDataUrl(id);
+        ColumnarCache.Snapshot snapshot = columnarCache.lookup(id);
+        String query = group + '\u0000' + String.join("\u0000", names);
+        String checksum = snapshot != null ? snapshot.checksum() : recentJsonChecksum(id);
+        Result result = checksum == null ? null : results.get(checksum + '\u0000' + query);
+        boolean cached = result != null;
+        if (result == null) {
+            result = compute(aggregator, names, snapshot, sourceUrl);
+            results.put(result.checksum() + '\u0000' + query, result);
+            if (snapshot == null) {
+                jsonChecksums.put(id, new Checksum(result.checksum(), Instant.now()));
+            }
+        }
+        List<DatasetAggregateDto.GroupDto> groups = result.groups();
+        return new DatasetAggregateDto(id, group, names,
+                groups.size() > limit ? groups.subList(0, limit) : groups, groups.size(),
+                result.scanned(), result.source(), cached, result.durationMs());
+    }
+
+    /* ====================== Helpers ====================== */
+
+    /** Checksum nội dung JSON đã đọc của dataset nếu chưa quá ldx.aggregate.json-recheck-interval, ngược lại null */
+    private String recentJsonChecksum(String id) {
+        Checksum checksum = jsonChecksums.get(id);
+        if (checksum == null || checksum.checkedAt().plus(jsonRecheckInterval).isBefore(Instant.now())) {
+            return null;
+        }
+        return checksum.value();
+    }
+
+    private Result compute(GroupAggregator aggregator, List<String> names,
+                           ColumnarCache.Snapshot snapshot, String sourceUrl) {
+        String source = snapshot != null ? "columnar" : "json";
+        long started = System.nanoTime();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        GroupAggregator.Groups groups;
+        String checksum;
+        try {
+            if (snapshot != null) {
+                groups = aggregator.aggregate(snapshot.reader(), pool);
+                checksum = snapshot.checksum();
+            } else {
+                MessageDigest digest = ContentChecksum.newDigest();
+                groups = upstreamContentFetcher.stream(sourceUrl, content -> {
+                    DigestInputStream in = new DigestInputStream(content, digest);
+                    try (JsonRecordReader reader = JsonRecordReader.open(in, objectMapper)) {
+                        GroupAggregator.Groups aggregated = aggregator.aggregate(reader.cursor(null));
+                        // Đọc nốt phần sau mảng record để checksum bao phủ toàn bộ nội dung
+                        in.transferTo(OutputStream.nullOutputStream());
+                        return aggregated;
+                    } catch (IOException e) {
+                        throw new IllegalArgumentException("Dataset content is not readable as JSON records: " + e.getMessage());
+                    }
+                });
+                checksum = ContentChecksum.hex(digest);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Columnar cache is not readable: " + e.getMessage(), e);
+        } finally {
+            sample.stop(Timer.builder("ldx.aggregate")
+                    .description("Thời gian tổng hợp theo nhóm trên nội dung dataset")
+                    .tag("source", source)
+                    .register(meterRegistry));
+        }
+
+        List<DatasetAggregateDto.GroupDto> result = new ArrayList<>(groups.size());
+        for (int g = 0; g < groups.size(); g++) {
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (int m = 0; m < names.size(); m++) {
+                values.put(names.get(m), groups.value(g, m));
+            }
+            result.add(new DatasetAggregateDto.GroupDto(groups.key(g), groups.rows(g), values));
+        }
+        String first = names.get(0);
+        result.sort(Comparator.comparing((DatasetAggregateDto.GroupDto dto) -> dto.getValues().get(first),
+                        Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(DatasetAggregateDto.GroupDto::getRows, Comparator.reverseOrder()));
+        return new Result(result, groups.getScanned(), source, (System.nanoTime() - started) / 1_000_000L, checksum);
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import io.ldxinsight.model.Dataset;
+import io.ldxinsight.model.DatasetStatsDaily;
+import io.ldxinsight.model.DatasetStatsHourly;
+import io.ldxinsight.model.DatasetStatsMonthly;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thống kê lượt xem/tải theo thời gian.
+ * Mỗi lượt được cộng vào bộ đệm trong bộ nhớ (theo dataset + giờ) và ghi xuống Mongo theo lô:
+ * upsert $inc vào dataset_stats_hourly và $inc bộ đếm trọn đời trên datasets.
+ * Định kỳ tổng hợp giờ -> ngày -> tháng bằng $merge; truy vấn theo cửa sổ thời gian chỉ đọc
+ * collection tổng hợp phù hợp với đơn vị của cửa sổ.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatasetAnalyticsService {
+
+    public enum CounterType {
+        VIEW("view", "views", "viewCount"),
+        DOWNLOAD("download", "downloads", "downloadCount");
+
+        /** Tag metric */
+        private final String tag;
+        /** Field trong collection bucket */
+        private final String bucketField;
+        /** Field bộ đếm trọn đời trên Dataset */
+        private final String datasetField;
+
+        CounterType(String tag, String bucketField, String datasetField) {
+            this.tag = tag;
+            this.bucketField = bucketField;
+            this.datasetField = datasetField;
+        }
+    }
+
+    /** hourEpochSecond = LIFETIME_ONLY: phần bộ đếm trọn đời chờ ghi lại (bucket giờ đã ghi) */
+    private record PendingKey(String datasetId, long hourEpochSecond, CounterType type) {
+    }
+
+    private static final long LIFETIME_ONLY = -1L;
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<PendingKey, Long> pending = new ConcurrentHashMap<>();
+    /** System.nanoTime() của lượt đầu tiên chưa được ghi, 0 nếu bộ đệm rỗng */
+    private final AtomicLong oldestPendingNanos = new AtomicLong();
+    private final Object flushLock = new Object();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("ldx.analytics.pending", pending, Map::size)
+                .description("Số bucket lượt xem/tải đang chờ ghi xuống Mongo")
+                .register(meterRegistry);
+    }
+
+    /** Ghi nhận một lượt (chỉ cộng vào bộ đệm, không chạm Mongo) */
+    public void record(String datasetId, CounterType type) {
+        if (oldestPendingNanos.get() == 0L) {
+            oldestPendingNanos.compareAndSet(0L, System.nanoTime());
+        }
+        long hour = Instant.now().truncatedTo(ChronoUnit.HOURS).getEpochSecond();
+        pending.merge(new PendingKey(datasetId, hour, type), 1L, Long::sum);
+    }
+
+    @Scheduled(fixedDelayString = "${ldx.analytics.flush-interval:PT10S}",
+            initialDelayString = "${ldx.analytics.flush-interval:PT10S}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Analytics flush failed, counters kept for next attempt: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        scheduledFlush();
+    }
+
+    /**
+     * Ghi toàn bộ bộ đệm xuống Mongo. Lô nào lỗi thì được trả lại bộ đệm để ghi ở lần sau
+     * (lỗi giữa chừng của một lô có thể làm một phần lượt bị đếm hai lần).
+     *
+     * @return số bucket giờ đã ghi
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            long oldest = oldestPendingNanos.getAndSet(0L);
+            Map<PendingKey, Long> drained = new HashMap<>();
+            for (PendingKey key : pending.keySet()) {
+                Long delta = pending.remove(key);
+                if (delta != null) {
+                    drained.put(key, delta);
+                }
+            }
+            if (drained.isEmpty()) {
+                return 0;
+            }
+
+            // (datasetId, giờ) -> [views, downloads] và datasetId -> [views, downloads]
+            Map<PendingKey, long[]> hourly = new HashMap<>();
+            Map<String, long[]> lifetime = new HashMap<>();
+            for (Map.Entry<PendingKey, Long> entry : drained.entrySet()) {
+                PendingKey key = entry.getKey();
+                int slot = key.type().ordinal();
+                lifetime.computeIfAbsent(key.datasetId(), k -> new long[CounterType.values().length])[slot]
+                        += entry.getValue();
+                if (key.hourEpochSecond() == LIFETIME_ONLY) {
+                    continue;
+                }
+                hourly.computeIfAbsent(new PendingKey(key.datasetId(), key.hourEpochSecond(), null),
+                        k -> new long[CounterType.values().length])[slot] += entry.getValue();
+            }
+
+            if (!hourly.isEmpty()) {
+                try {
+                    BulkOperations buckets = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DatasetStatsHourly.class);
+                    for (Map.Entry<PendingKey, long[]> entry : hourly.entrySet()) {
+                        Query query = new Query(Criteria.where("datasetId").is(entry.getKey().datasetId())
+                                .and("bucket").is(Instant.ofEpochSecond(entry.getKey().hourEpochSecond())));
+                        buckets.upsert(query, increments(entry.getValue(), true));
+                    }
+                    buckets.execute();
+                } catch (RuntimeException e) {
+                    requeue(drained, false, oldest);
+                    throw e;
+                }
+            }
+
+            try {
+                BulkOperations counters = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Dataset.class);
+                for (Map.Entry<String, long[]> entry : lifetime.entrySet()) {
+                    counters.updateOne(new Query(Criteria.where("_id").is(entry.getKey())), increments(entry.getValue(), false));
+                }
+                counters.execute();
+            } catch (RuntimeException e) {
+                // Bucket giờ đã ghi, chỉ trả lại phần bộ đếm trọn đời
+                requeue(drained, true, oldest);
+                throw e;
+            }
+
+            long lagNanos = oldest == 0L ? 0L : System.nanoTime() - oldest;
+            boolean[] seen = new boolean[CounterType.values().length];
+            drained.keySet().forEach(key -> seen[key.type().ordinal()] = true);
+            for (CounterType type : CounterType.values()) {
+                if (seen[type.ordinal()]) {
+                    flushLagTimer(type).record(lagNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            log.debug("Flushed {} hourly analytics buckets for {} datasets", hourly.size(), lifetime.size());
+            return hourly.size();
+        }
+    }
+
+    /**
+     * Tổng hợp lại bucket ngày của hôm qua và hôm nay từ bucket giờ, rồi bucket tháng của
+     * tháng trước và tháng này từ bucket ngày. Tính lại toàn phần nên chạy lặp lại vẫn đúng.
+     */
+    @Scheduled(cron = "${ldx.analytics.rollup-cron:0 */15 * * * *}")
+    public void scheduledRollup() {
+        try {
+            rollup();
+        } catch (Exception e) {
+            log.warn("Analytics rollup failed: {}", e.getMessage());
+        }
+    }
+
+    public void rollup() {
+        Instant now = Instant.now();
+        Instant yesterday = now.truncatedTo(ChronoUnit.DAYS).minus(1, ChronoUnit.DAYS);
+        Instant previousMonth = now.atZone(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS)
+                .withDayOfMonth(1).minusMonths(1).toInstant();
+        merge(DatasetStatsHourly.class, DatasetStatsDaily.class, yesterday, "day");
+        merge(DatasetStatsDaily.class, DatasetStatsMonthly.class, previousMonth, "month");
+    }
+
+    /** Tổng lượt xem/tải trong cửa sổ: [views, downloads] */
+    public long[] totals(StatsWindow window) {
+        return totals(window, null);
+    }
+
+    /** Như {@link #totals(StatsWindow)}, chỉ tính một dataset nếu {@code datasetId} khác null */
+    public long[] totals(StatsWindow window, String datasetId) {
+        Document match = matchWindow(window);
+        if (datasetId != null) {
+            match.get("$match", Document.class).append("datasetId", datasetId);
+        }
+        List<Document> pipeline = List.of(
+                match,
+                new Document("$group", new Document("_id", null)
+                        .append("views", new Document("$sum", "$views"))
+                        .append("downloads", new Document("$sum", "$downloads"))));
+        Document result = mongoTemplate.getCollection(collectionFor(window)).aggregate(pipeline).first();
+        if (result == null) {
+            return new long[]{0L, 0L};
+        }
+        return new long[]{number(result, "views"), number(result, "downloads")};
+    }
+
+    /** Id các dataset có nhiều lượt nhất trong cửa sổ, giảm dần */
+    public List<String> topDatasetIds(StatsWindow window, CounterType type, int limit) {
+        List<Document> pipeline = List.of(
+                matchWindow(window),
+                new Document("$group", new Document("_id", "$datasetId")
+                        .append("total", new Document("$sum", "$" + type.bucketField))),
+                new Document("$match", new Document("total", new Document("$gt", 0))),
+                new Document("$sort", new Document("total", -1).append("_id", 1)),
+                new Document("$limit", limit));
+        List<String> ids = new ArrayList<>();
+        for (Document document : mongoTemplate.getCollection(collectionFor(window)).aggregate(pipeline).allowDiskUse(true)) {
+            ids.add(document.getString("_id"));
+        }
+        return ids;
+    }
+
+    /* ====================== Helpers ====================== */
+
+    String collectionFor(StatsWindow window) {
+        Class<?> entity = switch (window.unit()) {
+            case HOURS -> DatasetStatsHourly.class;
+            case DAYS -> DatasetStatsDaily.class;
+            case MONTHS -> DatasetStatsMonthly.class;
+            default -> throw new IllegalArgumentException("Window '" + window + "' is not served from rollups");
+        };
+        return mongoTemplate.getCollectionName(entity);
+    }
+
+    private Document matchWindow(StatsWindow window) {
+        return new Document("$match", new Document("bucket",
+                new Document("$gte", Date.from(window.start(Instant.now())))));
+    }
+
+    private void merge(Class<?> from, Class<?> to, Instant since, String unit) {
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("bucket", new Document("$gte", Date.from(since)))),
+                new Document("$group", new Document("_id", new Document("datasetId", "$datasetId")
+                        .append("bucket", new Document("$dateTrunc", new Document("date", "$bucket").append("unit", unit))))
+                        .append("views", new Document("$sum", "$views"))
+                        .append("downloads", new Document("$sum", "$downloads"))),
+                new Document("$project", new Document("_id", 0)
+                        .append("datasetId", "$_id.datasetId")
+                        .append("bucket", "$_id.bucket")
+                        .append("views", 1)
+                        .append("downloads", 1)),
+                new Document("$merge", new Document("into", mongoTemplate.getCollectionName(to))
+                        .append("on", List.of("datasetId", "bucket"))
+                        .append("whenMatched", "replace")
+                        .append("whenNotMatched", "insert")));
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(from))
+                .aggregate(pipeline)
+                .allowDiskUse(true)
+                .toCollection();
+    }
+
+    private static Update increments(long[] deltas, boolean buckets) {
+        Update update = new Update();
+        for (CounterType type : CounterType.values()) {
+            long delta = deltas[type.ordinal()];
+            if (buckets) {
+                // Bucket mới tạo cần đủ mọi field để index bucket_covering phục vụ được truy vấn
+                update.inc(type.bucketField, delta);
+            } else if (delta != 0L) {
+                update.inc(type.datasetField, delta);
+            }
+        }
+        return update;
+    }
+
+    private void requeue(Map<PendingKey, Long> drained, boolean lifetimeOnly, long oldest) {
+        drained.forEach((key, delta) -> pending.merge(lifetimeOnly
+                ? new PendingKey(key.datasetId(), LIFETIME_ONLY, key.type()) : key, delta, Long::sum));
+        oldestPendingNanos.compareAndSet(0L, oldest == 0L ? System.nanoTime() : oldest);
+    }
+
+    /** Tuổi của lượt cũ nhất trong bộ đệm tại thời điểm ghi xuống Mongo */
+    private Timer flushLagTimer(CounterType type) {
+        return Timer.builder("ldx.counters.flush.lag")
+                .description("Độ trễ ghi bộ đếm view/download xuống Mongo")
+                .tag("counter", type.tag)
+                .register(meterRegistry);
+    }
+
+    private static long number(Document document, String key) {
+        Object value = document.get(key);
+        return value instanceof Number n ? n.longValue() : 0L;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.ldxinsight.dto.DatasetPreviewDto;
+import io.ldxinsight.dto.DatasetRowsDto;
+import io.ldxinsight.util.ColumnarFile;
+import io.ldxinsight.util.JsonRecordReader;
+import io.ldxinsight.util.RecordCursor;
+import io.ldxinsight.util.RecordPredicate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Các thao tác đọc nội dung dữ liệu của dataset theo dạng stream record, không tải toàn bộ nội dung vào bộ nhớ.
+ * Đọc từ cache dạng cột (ColumnarCache) khi đã có, ngược lại parse thẳng nội dung JSON (JsonRecordReader).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatasetContentService {
+
+    private final DatasetService datasetService;
+    private final UpstreamContentFetcher upstreamContentFetcher;
+    private final ObjectMapper objectMapper;
+    private final ColumnarCache columnarCache;
+
+    /** Số dòng tối đa của một lần xem trước */
+    @Value("${ldx.preview.max-rows:500}")
+    private int previewMaxRows;
+
+    /** Số record tối đa của một trang /rows */
+    @Value("${ldx.rows.max-limit:1000}")
+    private int rowsMaxLimit;
+
+    /** Số điều kiện where tối đa của một truy vấn /rows */
+    private static final int MAX_FILTERS = 16;
+
+    /**
+     * N record đầu tiên của dataset. Dừng đọc nguồn ngay khi đủ N record
+     * (cùng lúc đã biết tập cột của chúng), nên thời gian không phụ thuộc kích thước dataset.
+     */
+    public DatasetPreviewDto preview(String id, int rows) {
+        if (rows < 1 || rows > previewMaxRows) {
+            throw new IllegalArgumentException("rows must be between 1 and " + previewMaxRows);
+        }
+        return withRecords(id, null, List.of(), cursor -> {
+            List<ObjectNode> records = new ArrayList<>(rows);
+            Set<String> columns = new LinkedHashSet<>();
+            ObjectNode record;
+            while (records.size() < rows && (record = cursor.next()) != null) {
+                record.fieldNames().forEachRemaining(columns::add);
+                records.add(record);
+            }
+            boolean truncated = records.size() == rows && cursor.next() != null;
+            return new DatasetPreviewDto(id, new ArrayList<>(columns), toRows(records, columns), truncated);
+        });
+    }
+
+    /**
+     * Trang record thỏa mọi điều kiện {@code where} (AND), chỉ gồm các field {@code fields} (rỗng: mọi field).
+     * Chỉ các field được chọn hoặc dùng trong điều kiện được đọc, điều kiện được xét từng record
+     * và việc đọc dừng ngay khi đã đủ trang (cộng một record để biết còn trang sau hay không).
+     * Khi đọc từ cache dạng cột, các chunk mà min/max loại trừ được điều kiện bị bỏ qua.
+     */
+    public DatasetRowsDto rows(String id, List<String> fields, List<String> where, long offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        if (limit < 1 || limit > rowsMaxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + rowsMaxLimit);
+        }
+        List<RecordPredicate> predicates = new ArrayList<>();
+        if (where != null) {
+            if (where.size() > MAX_FILTERS) {
+                throw new IllegalArgumentException("At most " + MAX_FILTERS + " where conditions are allowed");
+            }
+            for (String expression : where) {
+                predicates.add(RecordPredicate.parse(expression));
+            }
+        }
+        Set<String> output = new LinkedHashSet<>();
+        if (fields != null) {
+            fields.stream().map(String::trim).filter(f -> !f.isEmpty()).forEach(output::add);
+        }
+        // Field cần đọc = field trả về + field dùng trong điều kiện; null nghĩa là đọc mọi field
+        Set<String> read = null;
+        if (!output.isEmpty()) {
+            read = new LinkedHashSet<>(output);
+            for (RecordPredicate predicate : predicates) {
+                read.add(predicate.getField());
+            }
+        }
+        Set<String> projection = read;
+
+        return withRecords(id, projection, predicates, cursor -> {
+            List<ObjectNode> page = new ArrayList<>(Math.min(limit, 64));
+            long matched = 0;
+            boolean hasMore = false;
+            ObjectNode record;
+            while ((record = cursor.next()) != null) {
+                if (!matches(record, predicates)) {
+                    continue;
+                }
+                if (matched++ < offset) {
+                    continue;
+                }
+                if (page.size() == limit) {
+                    hasMore = true;
+                    break;
+                }
+                if (projection != null && projection.size() != output.size()) {
+                    record.retain(output);
+                }
+                page.add(record);
+            }
+            return new DatasetRowsDto(id, offset, limit, page, hasMore, cursor.getCount());
+        });
+    }
+
+    /* ====================== Helpers ====================== */
+
+    @FunctionalInterface
+    private interface CursorReader<T> {
+        T read(RecordCursor cursor) throws IOException;
+    }
+
+    /**
+     * Đọc record của dataset từ cache dạng cột nếu đã có, ngược lại stream thẳng nội dung JSON.
+     *
+     * @param fields     chỉ đọc các field này (null: mọi field)
+     * @param predicates điều kiện dùng để bỏ qua chunk của file cột theo min/max
+     */
+    private <T> T withRecords(String id, Set<String> fields, List<RecordPredicate> predicates, CursorReader<T> reader) {
+        String sourceUrl = datasetService.getDataUrl(id);
+        ColumnarFile.Reader columnar = columnarCache.get(id);
+        if (columnar != null) {
+            IntPredicate chunkFilter = predicates.isEmpty() ? null
+                    : chunk -> predicates.stream().allMatch(p -> p.mayMatch(columnar.getChunk(chunk, p.getField())));
+            try (RecordCursor cursor = columnar.cursor(fields, chunkFilter)) {
+                return reader.read(cursor);
+            } catch (IOException e) {
+                throw new IllegalStateException("Columnar cache of dataset " + id + " is not readable: " + e.getMessage(), e);
+            }
+        }
+        return upstreamContentFetcher.stream(sourceUrl, in -> {
+            try (JsonRecordReader json = JsonRecordReader.open(in, objectMapper)) {
+                return reader.read(json.cursor(fields));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Dataset content is not readable as JSON records: " + e.getMessage());
+            }
+        });
+    }
+
+    private static boolean matches(ObjectNode record, List<RecordPredicate> predicates) {
+        for (RecordPredicate predicate : predicates) {
+            if (!predicate.test(record)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<List<JsonNode>> toRows(List<ObjectNode> records, Set<String> columns) {
+        List<List<JsonNode>> rows = new ArrayList<>(records.size());
+        for (ObjectNode record : records) {
+            List<JsonNode> row = new ArrayList<>(columns.size());
+            Iterator<String> it = columns.iterator();
+            while (it.hasNext()) {
+                row.add(record.get(it.next()));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
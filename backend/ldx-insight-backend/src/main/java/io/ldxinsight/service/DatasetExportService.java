@@ -0,0 +1,179 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.ldxinsight.util.ColumnarFile;
+import io.ldxinsight.util.JsonRecordReader;
+import io.ldxinsight.util.RecordCursor;
+import io.ldxinsight.util.RecordEncoder;
+import io.ldxinsight.util.SpooledContent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Xuất nội dung dataset theo định dạng (các bean {@link RecordEncoder}) qua một pipeline record dùng chung:
+ * record được đọc tuần tự (cache dạng cột nếu đã có, ngược lại parse nội dung JSON) và ghi thẳng ra response.
+ * <p>
+ * Định dạng bảng cần đủ danh sách cột trước dòng đầu tiên: lấy từ file cột khi có, ngược lại nội dung được tải
+ * về một lần (lớn thì nằm trong file tạm) và đọc hai lượt, lượt đầu chỉ thu thập tên cột của mọi record.
+ */
+@Service
+public class DatasetExportService {
+
+    private final DatasetService datasetService;
+    private final ColumnarCache columnarCache;
+    private final UpstreamContentFetcher upstreamContentFetcher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RecordEncoder> encoders = new TreeMap<>();
+
+    public DatasetExportService(DatasetService datasetService, ColumnarCache columnarCache,
+                                UpstreamContentFetcher upstreamContentFetcher, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry, List<RecordEncoder> encoders) {
+        this.datasetService = datasetService;
+        this.columnarCache = columnarCache;
+        this.upstreamContentFetcher = upstreamContentFetcher;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        for (RecordEncoder encoder : encoders) {
+            RecordEncoder duplicate = this.encoders.put(encoder.getFormat().toLowerCase(Locale.ROOT), encoder);
+            if (duplicate != null) {
+                throw new IllegalStateException("Duplicate record encoder for format " + encoder.getFormat());
+            }
+        }
+    }
+
+    /** Các định dạng hỗ trợ */
+    public Set<String> getFormats() {
+        return encoders.keySet();
+    }
+
+    /**
+     * @throws IllegalArgumentException khi định dạng không được hỗ trợ
+     */
+    public RecordEncoder getEncoder(String format) {
+        RecordEncoder encoder = format == null ? null : encoders.get(format.trim().toLowerCase(Locale.ROOT));
+        if (encoder == null) {
+            throw new IllegalArgumentException("Unsupported format '" + format + "', expected one of " + encoders.keySet());
+        }
+        return encoder;
+    }
+
+    /**
+     * Ghi mọi record của dataset ra {@code out} theo {@code encoder}.
+     *
+     * @return số record đã ghi
+     */
+    public long export(String id, RecordEncoder encoder, RecordEncoder.Options options, OutputStream out) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String sourceUrl = datasetService.getDataUrl(id);
+        ColumnarFile.Reader columnar = columnarCache.get(id);
+        long rows;
+        if (columnar != null) {
+            try (RecordCursor cursor = columnar.cursor(null, null)) {
+                rows = write(encoder, options, out, columnar.getColumns(), cursor);
+            }
+        } else if (encoder.isTabular()) {
+            try (SpooledContent content = upstreamContentFetcher.fetch(sourceUrl)) {
+                List<String> columns = collectColumns(content.openStream());
+                rows = write(encoder, options, out, columns, content.openStream());
+            }
+        } else {
+            rows = upstreamContentFetcher.stream(sourceUrl, in -> write(encoder, options, out, null, in));
+        }
+        recordConversion(encoder, sample, rows);
+        return rows;
+    }
+
+    /**
+     * Danh sách cột của nội dung JSON: hợp tên field của mọi record theo thứ tự gặp lần đầu.
+     * Đọc hết {@code in} (và đóng nó); nội dung không phải JSON record thì ném IOException.
+     */
+    public List<String> collectColumns(InputStream in) throws IOException {
+        Set<String> columns = new LinkedHashSet<>();
+        try (JsonRecordReader reader = JsonRecordReader.open(in, objectMapper)) {
+            ObjectNode record;
+            while ((record = reader.next()) != null) {
+                record.fieldNames().forEachRemaining(columns::add);
+            }
+        }
+        return new ArrayList<>(columns);
+    }
+
+    /**
+     * Ghi các record của nội dung JSON {@code in} ra {@code out} theo {@code encoder}.
+     *
+     * @param columns danh sách cột từ {@link #collectColumns} trên cùng nội dung (null với định dạng không phải bảng)
+     * @return số record đã ghi
+     */
+    public long export(InputStream in, List<String> columns, RecordEncoder encoder, RecordEncoder.Options options,
+                       OutputStream out) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long rows = write(encoder, options, out, columns, in);
+        recordConversion(encoder, sample, rows);
+        return rows;
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private long write(RecordEncoder encoder, RecordEncoder.Options options, OutputStream out,
+                       List<String> columns, InputStream in) throws IOException {
+        try (JsonRecordReader reader = JsonRecordReader.open(in, objectMapper)) {
+            return write(encoder, options, out, columns, reader.cursor(null));
+        }
+    }
+
+    private long write(RecordEncoder encoder, RecordEncoder.Options options, OutputStream out,
+                       List<String> columns, RecordCursor cursor) throws IOException {
+        RecordEncoder.Sink sink = encoder.open(out, encoder.isTabular() ? columns : null, options);
+        long rows = 0;
+        ObjectNode record;
+        while ((record = cursor.next()) != null) {
+            sink.write(record);
+            rows++;
+        }
+        sink.finish();
+        return rows;
+    }
+
+    private void recordConversion(RecordEncoder encoder, Timer.Sample sample, long rows) {
+        sample.stop(Timer.builder("ldx.conversion")
+                .description("Thời gian chuyển đổi dữ liệu tải về")
+                .tag("format", encoder.getFormat())
+                .register(meterRegistry));
+        DistributionSummary.builder("ldx.conversion.rows")
+                .description("Số dòng dữ liệu sau chuyển đổi")
+                .tag("format", encoder.getFormat())
+                .register(meterRegistry)
+                .record(rows);
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import io.ldxinsight.dto.BulkIngestResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface DatasetIngestService {
+
+    /**
+     * Đọc lần lượt các CreateDatasetRequest từ body (NDJSON hoặc JSON array),
+     * validate từng bản ghi và upsert theo lô, khóa là (source, dataUrl).
+     */
+    BulkIngestResultDto ingest(InputStream body, boolean errorsOnly) throws IOException;
+}
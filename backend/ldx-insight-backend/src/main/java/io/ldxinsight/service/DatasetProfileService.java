@@ -0,0 +1,304 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.ldxinsight.dto.DatasetProfileDto;
+import io.ldxinsight.mapper.DatasetProfileMapper;
+import io.ldxinsight.model.DatasetProfile;
+import io.ldxinsight.util.ContentChecksum;
+import io.ldxinsight.util.CountingInputStream;
+import io.ldxinsight.util.HyperLogLog;
+import io.ldxinsight.util.JsonRecordReader;
+import io.ldxinsight.util.TDigest;
+import io.ldxinsight.util.TopK;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hồ sơ cột của nội dung dataset (kiểu, tỉ lệ null, min/max, phân vị, số giá trị phân biệt, giá trị thường gặp).
+ * Nội dung được đọc stream một lượt; mỗi cột chỉ giữ các sketch có kích thước cố định
+ * (HyperLogLog, t-digest, Space-Saving) nên bộ nhớ không phụ thuộc số dòng.
+ * Hồ sơ lưu trong dataset_profiles; sau ldx.profile.recheck-interval, checksum nội dung được kiểm tra lại
+ * ở nền (chỉ băm, không parse) và hồ sơ chỉ được tính lại khi checksum đổi.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatasetProfileService {
+
+    private static final String[] TYPES = {"string", "integer", "number", "boolean", "object", "array"};
+    private static final double[] QUANTILES = {0.01, 0.25, 0.5, 0.75, 0.95, 0.99};
+    private static final int TOP_VALUES = 10;
+    /** Giá trị dài hơn không được đưa vào top-K (vẫn được đếm phân biệt) */
+    private static final int MAX_TOP_VALUE_LENGTH = 200;
+
+    private final MongoTemplate mongoTemplate;
+    private final DatasetService datasetService;
+    private final UpstreamContentFetcher upstreamContentFetcher;
+    private final ObjectMapper objectMapper;
+    private final DatasetProfileMapper datasetProfileMapper;
+
+    @Value("${ldx.profile.max-columns:200}")
+    private int maxColumns;
+
+    @Value("${ldx.profile.recheck-interval:PT6H}")
+    private Duration recheckInterval;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(64), r -> {
+                Thread thread = new Thread(r, "dataset-profile");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Hồ sơ đã lưu; tính ngay nếu chưa có. Hồ sơ quá hạn kiểm tra vẫn được trả về ngay
+     * và được kiểm tra checksum ở nền.
+     */
+    public DatasetProfileDto getProfile(String id) {
+        DatasetProfile stored = mongoTemplate.findById(id, DatasetProfile.class);
+        if (stored == null) {
+            return datasetProfileMapper.toDto(refresh(id));
+        }
+        if (stored.getCheckedAt() == null || stored.getCheckedAt().plus(recheckInterval).isBefore(Instant.now())) {
+            refreshInBackground(id);
+        }
+        return datasetProfileMapper.toDto(stored);
+    }
+
+    /**
+     * Kiểm tra checksum nội dung và tính lại hồ sơ nếu nội dung đã đổi (hoặc chưa có hồ sơ).
+     */
+    public DatasetProfile refresh(String id) {
+        String sourceUrl = datasetService.getDataUrl(id);
+        DatasetProfile stored = mongoTemplate.findById(id, DatasetProfile.class);
+        if (stored != null) {
+            String checksum = upstreamContentFetcher.stream(sourceUrl, ContentChecksum::of);
+            if (checksum.equals(stored.getChecksum())) {
+                Instant now = Instant.now();
+                mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)),
+                        new Update().set("checkedAt", now), DatasetProfile.class);
+                stored.setCheckedAt(now);
+                return stored;
+            }
+        }
+        long started = System.nanoTime();
+        DatasetProfile profile = upstreamContentFetcher.stream(sourceUrl, in -> compute(id, in));
+        profile.setDurationMs((System.nanoTime() - started) / 1_000_000L);
+        mongoTemplate.save(profile);
+        log.info("Profiled dataset {}: {} rows, {} columns in {} ms",
+                id, profile.getRowCount(), profile.getColumns().size(), profile.getDurationMs());
+        return profile;
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private void refreshInBackground(String id) {
+        if (!refreshing.add(id)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh(id);
+                } catch (Exception e) {
+                    log.warn("Background profile refresh of dataset {} failed: {}", id, e.getMessage());
+                } finally {
+                    refreshing.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Hàng đợi đầy: bỏ qua, lần đọc sau sẽ thử lại
+            refreshing.remove(id);
+        }
+    }
+
+    private DatasetProfile compute(String id, InputStream source) throws IOException {
+        MessageDigest digest = ContentChecksum.newDigest();
+        CountingInputStream counted = new CountingInputStream(new DigestInputStream(source, digest));
+        Map<String, ColumnAccumulator> columns = new LinkedHashMap<>();
+        boolean truncated = false;
+        long rows;
+        try (JsonRecordReader reader = JsonRecordReader.open(counted, objectMapper)) {
+            ObjectNode record;
+            while ((record = reader.next()) != null) {
+                var fields = record.fields();
+                while (fields.hasNext()) {
+                    var field = fields.next();
+                    ColumnAccumulator column = columns.get(field.getKey());
+                    if (column == null) {
+                        if (columns.size() >= maxColumns) {
+                            truncated = true;
+                            continue;
+                        }
+                        column = new ColumnAccumulator();
+                        columns.put(field.getKey(), column);
+                    }
+                    column.accept(field.getValue());
+                }
+            }
+            rows = reader.getCount();
+            // Đọc nốt phần sau mảng record để checksum bao phủ toàn bộ nội dung
+            counted.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Dataset content is not readable as JSON records: " + e.getMessage());
+        }
+
+        List<DatasetProfile.Column> result = new ArrayList<>(columns.size());
+        columns.forEach((name, column) -> result.add(column.finish(name, rows)));
+        Instant now = Instant.now();
+        return DatasetProfile.builder()
+                .id(id)
+                .checksum(ContentChecksum.hex(digest))
+                .contentBytes(counted.getCount())
+                .rowCount(rows)
+                .columnsTruncated(truncated)
+                .columns(result)
+                .profiledAt(now)
+                .checkedAt(now)
+                .build();
+    }
+
+    /** Thống kê của một cột, bộ nhớ cố định */
+    private static final class ColumnAccumulator {
+
+        private final long[] typeCounts = new long[TYPES.length];
+        private long nonNull;
+        private final HyperLogLog distinct = new HyperLogLog(UniqueViewerTracker.PRECISION);
+        private final TopK topValues = new TopK(TOP_VALUES * 4);
+        private TDigest digest;
+        private double sum;
+        private int minLength = Integer.MAX_VALUE;
+        private int maxLength = -1;
+
+        void accept(JsonNode value) {
+            if (value == null || value.isNull() || value.isMissingNode()) {
+                return;
+            }
+            nonNull++;
+            String text;
+            if (value.isTextual()) {
+                typeCounts[0]++;
+                text = value.asText();
+                minLength = Math.min(minLength, text.length());
+                maxLength = Math.max(maxLength, text.length());
+            } else if (value.isNumber()) {
+                typeCounts[value.isIntegralNumber() ? 1 : 2]++;
+                text = value.asText();
+                double number = value.asDouble();
+                if (digest == null) {
+                    digest = new TDigest(100);
+                }
+                digest.add(number);
+                sum += number;
+            } else if (value.isBoolean()) {
+                typeCounts[3]++;
+                text = value.asText();
+            } else {
+                typeCounts[value.isObject() ? 4 : 5]++;
+                text = value.toString();
+            }
+            distinct.offer(text);
+            if (text.length() <= MAX_TOP_VALUE_LENGTH && !value.isContainerNode()) {
+                topValues.add(text);
+            }
+        }
+
+        DatasetProfile.Column finish(String name, long rows) {
+            Map<String, Long> types = new LinkedHashMap<>();
+            int dominant = -1;
+            for (int i = 0; i < TYPES.length; i++) {
+                if (typeCounts[i] > 0) {
+                    types.put(TYPES[i], typeCounts[i]);
+                    if (dominant < 0 || typeCounts[i] > typeCounts[dominant]) {
+                        dominant = i;
+                    }
+                }
+            }
+            // Cột lẫn số nguyên và số thực được coi là number
+            if (dominant == 1 && typeCounts[2] > 0) {
+                dominant = 2;
+            }
+
+            DatasetProfile.Column.ColumnBuilder column = DatasetProfile.Column.builder()
+                    .name(name)
+                    .type(dominant < 0 ? "null" : TYPES[dominant])
+                    .typeCounts(types)
+                    .nonNull(nonNull)
+                    .nulls(rows - nonNull)
+                    .nullRatio(rows == 0 ? 0 : (double) (rows - nonNull) / rows)
+                    .distinct(nonNull == 0 ? 0 : distinct.estimate());
+
+            if (digest != null && digest.size() > 0) {
+                Map<String, Double> quantiles = new LinkedHashMap<>();
+                for (double q : QUANTILES) {
+                    quantiles.put(String.format("p%02d", Math.round(q * 100)), digest.quantile(q));
+                }
+                column.min(digest.getMin())
+                        .max(digest.getMax())
+                        .mean(sum / digest.size())
+                        .quantiles(quantiles);
+            }
+            if (maxLength >= 0) {
+                column.minLength(minLength).maxLength(maxLength);
+            }
+
+            List<DatasetProfile.ValueCount> top = new ArrayList<>();
+            for (TopK.Item item : topValues.top(TOP_VALUES)) {
+                // Bỏ các mục chỉ có mặt nhờ thay thế (chưa chắc xuất hiện nhiều hơn một lần)
+                if (item.count() - item.error() > 1) {
+                    top.add(new DatasetProfile.ValueCount(item.value(), item.count()));
+                }
+            }
+            return column.topValues(top).build();
+        }
+    }
+}
@@ -21,21 +21,33 @@ import io.ldxinsight.model.Dataset;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
 import java.util.List;
 
 public interface DatasetService {
     Page<DatasetDto> searchDatasets(String keyword, String category, Pageable pageable);
 
     DatasetDto getDatasetById(String id);
+    DatasetBatchDto getDatasetsByIds(List<String> ids);
     DatasetDto createDataset(CreateDatasetRequest request);
     DatasetDto updateDataset(String id, CreateDatasetRequest request);
     void deleteDataset(String id);
 
-    void incrementViewCount(String id);
+    /**
+     * Ghi nhận một lượt xem.
+     *
+     * @param viewerKey định danh người xem (user id, hoặc IP + User-Agent), chỉ dùng để đếm người xem phân biệt
+     */
+    void incrementViewCount(String id, String viewerKey);
     String getDownloadUrlAndIncrement(String id);
 
     StatSummaryDto getStatsSummary();
 
+    /** Tổng lượt xem/tải trong cửa sổ thời gian, đọc từ bản tổng hợp (window=all: bộ đếm trọn đời) */
+    StatSummaryDto getStatsSummary(StatsWindow window);
+
     List<String> getAllCategories();
 
     Page<DatasetDto> getDatasetsByCategory(String category, Pageable pageable);
@@ -43,5 +55,18 @@ public interface DatasetService {
     List<CategoryStatisDTO> getCategoryStats();
     List<DatasetDto> getTopViewedDatasets(int limit);
     List<DatasetDto> getTopDownloadedDatasets(int limit);
+    List<DatasetDto> getTopViewedDatasets(int limit, StatsWindow window);
+    List<DatasetDto> getTopDownloadedDatasets(int limit, StatsWindow window);
+
+    /** Lượt xem và số người xem phân biệt của một dataset trong cửa sổ thời gian */
+    DatasetViewStatsDto getViewStats(String id, StatsWindow window);
+
+    /** Dataset đang được quan tâm: điểm lượt xem/tải suy giảm theo half-life, giảm dần */
+    List<TrendingDatasetDto> getTrendingDatasets(int limit);
     String getDataUrl(String id);
+
+    /**
+     * Ghi toàn bộ catalog (có thể lọc) ra {@code out} dưới dạng NDJSON, đọc tuần tự từ Mongo cursor.
+     */
+    void exportDatasets(String category, String provider, Instant updatedSince, OutputStream out) throws IOException;
 }
\ No newline at end of file
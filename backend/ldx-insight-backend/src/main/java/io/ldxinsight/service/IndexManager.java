@@ -0,0 +1,374 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import io.ldxinsight.dto.IndexStatusDto;
+import io.ldxinsight.dto.QueryPlanDto;
+import io.ldxinsight.model.Dataset;
+import io.ldxinsight.model.DatasetStatsDaily;
+import io.ldxinsight.model.DatasetStatsHourly;
+import io.ldxinsight.model.DatasetStatsMonthly;
+import io.ldxinsight.model.DatasetViewerSketch;
+import io.ldxinsight.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Quản lý index của các collection.
+ * Index được khai báo bằng annotation trên entity (@Indexed, @CompoundIndex); lớp này
+ * tạo/đối soát chúng khi khởi động hoặc qua API admin, và chạy explain() cho từng dạng
+ * truy vấn mà repository/service sử dụng để phát hiện plan rơi về COLLSCAN.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IndexManager {
+
+    /** Các entity có index do ứng dụng quản lý */
+    private static final List<Class<?>> MANAGED_ENTITIES = List.of(Dataset.class, User.class,
+            DatasetStatsHourly.class, DatasetStatsDaily.class, DatasetStatsMonthly.class,
+            DatasetViewerSketch.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${ldx.indexes.reconcile-on-startup:true}")
+    private boolean reconcileOnStartup;
+
+    /** Xóa các index không được khai báo trên entity (mặc định chỉ báo cáo) */
+    @Value("${ldx.indexes.drop-unmanaged:false}")
+    private boolean dropUnmanaged;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!reconcileOnStartup) {
+            return;
+        }
+        // Chạy nền: tạo index trên collection lớn có thể mất thời gian, và Mongo có thể chưa sẵn sàng
+        Thread worker = new Thread(() -> {
+            try {
+                reconcile();
+                for (QueryPlanDto plan : verifyQueryPlans()) {
+                    if (plan.isCollscan() && !plan.isAccepted()) {
+                        log.warn("Query shape '{}' on {} falls back to COLLSCAN (stages: {})",
+                                plan.getName(), plan.getCollection(), plan.getStages());
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Index reconciliation on startup failed: {}", e.getMessage());
+            }
+        }, "index-manager");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** Tạo index còn thiếu, tạo lại index cùng tên nhưng khác định nghĩa, báo cáo index thừa */
+    public List<IndexStatusDto> reconcile() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        List<IndexStatusDto> report = new ArrayList<>();
+
+        for (Class<?> entity : MANAGED_ENTITIES) {
+            String collection = mongoTemplate.getCollectionName(entity);
+            IndexOperations indexOps = mongoTemplate.indexOps(collection);
+            List<Document> existing = listIndexes(collection);
+            Set<String> managedNames = new HashSet<>();
+            managedNames.add("_id_");
+
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity)) {
+                Document keys = definition.getIndexKeys();
+                Document options = definition.getIndexOptions();
+                String name = options.getString("name");
+                managedNames.add(name);
+                report.add(reconcileOne(collection, indexOps, existing, definition, keys, options, name));
+            }
+
+            for (Document index : existing) {
+                String name = index.getString("name");
+                if (managedNames.contains(name)) {
+                    continue;
+                }
+                Document keys = index.get("key", Document.class);
+                if (dropUnmanaged) {
+                    indexOps.dropIndex(name);
+                    report.add(new IndexStatusDto(collection, name, keys, IndexStatusDto.Status.DROPPED, null));
+                } else {
+                    report.add(new IndexStatusDto(collection, name, keys, IndexStatusDto.Status.UNMANAGED,
+                            "Index is not declared on " + entity.getSimpleName()));
+                }
+            }
+        }
+
+        long changed = report.stream()
+                .filter(r -> r.getStatus() != IndexStatusDto.Status.OK && r.getStatus() != IndexStatusDto.Status.UNMANAGED)
+                .count();
+        log.info("Index reconciliation finished: {} indexes checked, {} changed or failed", report.size(), changed);
+        return report;
+    }
+
+    /** explain(queryPlanner) cho từng dạng truy vấn đã đăng ký */
+    public List<QueryPlanDto> verifyQueryPlans() {
+        List<QueryPlanDto> report = new ArrayList<>();
+        for (QueryShape shape : queryShapes()) {
+            Document explain = explain(shape);
+            List<String> stages = new ArrayList<>();
+            Set<String> indexes = new LinkedHashSet<>();
+            collectWinningPlan(explain, false, stages, indexes);
+
+            boolean collscan = stages.contains("COLLSCAN");
+            boolean accepted = collscan && shape.collscanReason() != null;
+            report.add(new QueryPlanDto(shape.name(), shape.collection(), stages, new ArrayList<>(indexes),
+                    collscan, accepted, collscan ? shape.collscanReason() : null));
+        }
+        return report;
+    }
+
+    /* ====================== Query shapes ====================== */
+
+    /**
+     * Các dạng truy vấn mà DatasetRepository/DatasetServiceImpl/UserRepository sinh ra.
+     * Khi thêm truy vấn mới, thêm dạng tương ứng vào đây để nó được kiểm tra plan.
+     */
+    List<QueryShape> queryShapes() {
+        String datasets = mongoTemplate.getCollectionName(Dataset.class);
+        String users = mongoTemplate.getCollectionName(User.class);
+        String hourly = mongoTemplate.getCollectionName(DatasetStatsHourly.class);
+        String daily = mongoTemplate.getCollectionName(DatasetStatsDaily.class);
+        String viewers = mongoTemplate.getCollectionName(DatasetViewerSketch.class);
+        Pattern keyword = Pattern.compile("keyword", Pattern.CASE_INSENSITIVE);
+        Document byCreatedAt = new Document("createdAt", 1);
+
+        return List.of(
+                QueryShape.find("findById", datasets, new Document("_id", new ObjectId()), null, null, 1),
+                QueryShape.find("findAllById", datasets,
+                        new Document("_id", new Document("$in", List.of(new ObjectId(), new ObjectId()))), null, null, 0),
+                QueryShape.find("findAll(page by createdAt)", datasets, new Document(), byCreatedAt, null, 10),
+                QueryShape.find("searchByKeyword", datasets,
+                        new Document("$or", List.of(new Document("title", keyword), new Document("description", keyword))),
+                        byCreatedAt, null, 10)
+                        .acceptCollscan("Tìm kiếm chứa từ khóa (regex không neo đầu) không dùng được index"),
+                QueryShape.find("findByCategoryKey", datasets, new Document("categoryKey", "y te"), byCreatedAt, null, 10),
+                QueryShape.find("countByCategoryKey", datasets, new Document("categoryKey", "y te"), null,
+                        new Document("_id", 0).append("categoryKey", 1), 0),
+                QueryShape.find("topViewed", datasets, new Document(), new Document("viewCount", -1), null, 5),
+                QueryShape.find("topDownloaded", datasets, new Document(), new Document("downloadCount", -1), null, 5),
+                QueryShape.find("bulkIngestUpsertKey", datasets,
+                        new Document("source", "portal").append("dataUrl", "https://example.org/data.json"), null, null, 1),
+                QueryShape.find("exportAll", datasets, new Document(), null, null, 0)
+                        .acceptCollscan("Export toàn bộ catalog đọc mọi document theo thứ tự tự nhiên"),
+                QueryShape.find("exportUpdatedSince", datasets,
+                        new Document("updatedAt", new Document("$gte", Date.from(Instant.now()))), null, null, 0),
+                QueryShape.find("exportByCategoryKey", datasets, new Document("categoryKey", "y te"), null, null, 0),
+                QueryShape.find("exportByProviderKey", datasets, new Document("providerKey", "so y te"), null, null, 0),
+                QueryShape.find("categoryKeyBackfill", datasets,
+                        new Document("$or", List.of(
+                                new Document("categoryKey", new Document("$exists", false)),
+                                new Document("providerKey", new Document("$exists", false)))), null,
+                        new Document("category", 1).append("provider", 1), 0),
+                QueryShape.aggregate("categoryStats", datasets, List.of(
+                        new Document("$match", new Document("categoryKey", new Document("$ne", null))),
+                        new Document("$group", new Document("_id", "$categoryKey").append("count", new Document("$sum", 1))))),
+                QueryShape.aggregate("statsSummary", datasets, List.of(
+                        new Document("$group", new Document("_id", null)
+                                .append("totalViews", new Document("$sum", "$viewCount"))
+                                .append("totalDownloads", new Document("$sum", "$downloadCount")))))
+                        .acceptCollscan("Tổng view/download cộng dồn trên toàn bộ collection"),
+                QueryShape.find("analyticsFlushUpsert", hourly,
+                        new Document("datasetId", "x").append("bucket", Date.from(Instant.now())), null, null, 1),
+                QueryShape.aggregate("analyticsWindowTotals", daily, List.of(
+                        new Document("$match", new Document("bucket", new Document("$gte", Date.from(Instant.now())))),
+                        new Document("$group", new Document("_id", null)
+                                .append("views", new Document("$sum", "$views"))
+                                .append("downloads", new Document("$sum", "$downloads"))))),
+                QueryShape.aggregate("analyticsWindowTop", daily, List.of(
+                        new Document("$match", new Document("bucket", new Document("$gte", Date.from(Instant.now())))),
+                        new Document("$group", new Document("_id", "$datasetId")
+                                .append("total", new Document("$sum", "$views"))))),
+                QueryShape.aggregate("analyticsRollup", hourly, List.of(
+                        new Document("$match", new Document("bucket", new Document("$gte", Date.from(Instant.now())))))),
+                QueryShape.find("datasetWindowTotals", daily,
+                        new Document("datasetId", "x").append("bucket", new Document("$gte", Date.from(Instant.now()))),
+                        null, null, 0),
+                QueryShape.find("uniqueViewerSketches", viewers,
+                        new Document("datasetId", "x").append("bucket", new Document("$gte", Date.from(Instant.now()))),
+                        null, new Document("sketch", 1), 0),
+                QueryShape.find("findByUsername", users, new Document("username", "admin"), null, null, 1)
+        );
+    }
+
+    record QueryShape(String name, String collection, Document filter, Document sort, Document projection,
+                      int limit, List<Document> pipeline, String collscanReason) {
+
+        static QueryShape find(String name, String collection, Document filter, Document sort,
+                               Document projection, int limit) {
+            return new QueryShape(name, collection, filter, sort, projection, limit, null, null);
+        }
+
+        static QueryShape aggregate(String name, String collection, List<Document> pipeline) {
+            return new QueryShape(name, collection, null, null, null, 0, pipeline, null);
+        }
+
+        QueryShape acceptCollscan(String reason) {
+            return new QueryShape(name, collection, filter, sort, projection, limit, pipeline, reason);
+        }
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private IndexStatusDto reconcileOne(String collection, IndexOperations indexOps, List<Document> existing,
+                                        IndexDefinition definition, Document keys, Document options, String name) {
+        try {
+            Document sameName = null;
+            Document sameKeys = null;
+            for (Document index : existing) {
+                if (Objects.equals(index.getString("name"), name)) {
+                    sameName = index;
+                }
+                if (sameKeys(index.get("key", Document.class), keys)) {
+                    sameKeys = index;
+                }
+            }
+
+            if (sameName != null) {
+                if (sameKeys(sameName.get("key", Document.class), keys) && sameOptions(sameName, options)) {
+                    return new IndexStatusDto(collection, name, keys, IndexStatusDto.Status.OK, null);
+                }
+                indexOps.dropIndex(name);
+                indexOps.ensureIndex(definition);
+                return new IndexStatusDto(collection, name, keys, IndexStatusDto.Status.RECREATED,
+                        "Definition changed, previous keys: " + sameName.get("key"));
+            }
+            if (sameKeys != null) {
+                // Mongo không cho 2 index cùng key khác tên; giữ index cũ và báo lại
+                return new IndexStatusDto(collection, name, keys, IndexStatusDto.Status.EXISTS_WITH_OTHER_NAME,
+                        "Same keys already indexed as '" + sameKeys.getString("name") + "'");
+            }
+
+            indexOps.ensureIndex(definition);
+            return new IndexStatusDto(collection, name, keys, IndexStatusDto.Status.CREATED, null);
+        } catch (Exception e) {
+            log.warn("Failed to reconcile index {} on {}: {}", name, collection, e.getMessage());
+            return new IndexStatusDto(collection, name, keys, IndexStatusDto.Status.FAILED, e.getMessage());
+        }
+    }
+
+    private List<Document> listIndexes(String collection) {
+        List<Document> indexes = new ArrayList<>();
+        if (!mongoTemplate.collectionExists(collection)) {
+            return indexes;
+        }
+        mongoTemplate.getCollection(collection).listIndexes().into(indexes);
+        return indexes;
+    }
+
+    private static boolean sameKeys(Document actual, Document expected) {
+        if (actual == null || expected == null || actual.size() != expected.size()) {
+            return false;
+        }
+        List<String> actualFields = new ArrayList<>(actual.keySet());
+        List<String> expectedFields = new ArrayList<>(expected.keySet());
+        if (!actualFields.equals(expectedFields)) {
+            return false;
+        }
+        for (String field : expectedFields) {
+            Object a = actual.get(field);
+            Object b = expected.get(field);
+            if (a instanceof Number na && b instanceof Number nb) {
+                if (na.intValue() != nb.intValue()) {
+                    return false;
+                }
+            } else if (!Objects.equals(a, b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameOptions(Document actual, Document expected) {
+        return actual.getBoolean("unique", false) == expected.getBoolean("unique", false)
+                && actual.getBoolean("sparse", false) == expected.getBoolean("sparse", false)
+                && Objects.equals(actual.get("partialFilterExpression"), expected.get("partialFilterExpression"));
+    }
+
+    private Document explain(QueryShape shape) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(shape.collection());
+        if (shape.pipeline() != null) {
+            return collection.aggregate(shape.pipeline()).explain(ExplainVerbosity.QUERY_PLANNER);
+        }
+        FindIterable<Document> find = collection.find(shape.filter());
+        if (shape.sort() != null) {
+            find.sort(shape.sort());
+        }
+        if (shape.projection() != null) {
+            find.projection(shape.projection());
+        }
+        if (shape.limit() > 0) {
+            find.limit(shape.limit());
+        }
+        return find.explain(ExplainVerbosity.QUERY_PLANNER);
+    }
+
+    /**
+     * Duyệt output explain, chỉ lấy các stage nằm trong winningPlan (bỏ qua rejectedPlans).
+     * Áp dụng được cho cả find và aggregate, classic lẫn SBE (winningPlan.queryPlan).
+     */
+    static void collectWinningPlan(Object node, boolean inWinningPlan, List<String> stages, Set<String> indexes) {
+        if (node instanceof Document document) {
+            for (Map.Entry<String, Object> entry : document.entrySet()) {
+                String key = entry.getKey();
+                if ("rejectedPlans".equals(key)) {
+                    continue;
+                }
+                boolean winning = inWinningPlan || "winningPlan".equals(key);
+                if (inWinningPlan && "stage".equals(key) && entry.getValue() instanceof String stage) {
+                    stages.add(stage);
+                } else if (inWinningPlan && "indexName".equals(key) && entry.getValue() instanceof String index) {
+                    indexes.add(index);
+                } else {
+                    collectWinningPlan(entry.getValue(), winning, stages, indexes);
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object item : list) {
+                collectWinningPlan(item, inWinningPlan, stages, indexes);
+            }
+        }
+    }
+}
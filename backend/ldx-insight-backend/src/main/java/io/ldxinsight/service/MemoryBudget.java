@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import io.ldxinsight.exception.ServerBusyException;
+import io.ldxinsight.util.ByteBudget;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Ngân sách bộ nhớ chung của node cho các bước giữ bộ nhớ theo kích thước nội dung nguồn.
+ * Mỗi bước giữ trước số byte ước tính sẽ cấp phát; hết ngân sách thì xếp hàng tối đa
+ * ldx.memory.budget.queue-timeout rồi trả 503, để quá tải làm chậm/từ chối request thay vì OOM.
+ * <p>
+ * Bước tải nội dung (fetch) giữ phần đệm trong bộ nhớ trước khi ghi ra file tạm, tối đa ldx.upstream.spill-threshold.
+ * Các luồng đọc theo record (stream: preview, rows, profile, aggregate, build cột, export) giữ một phần cố định
+ * ldx.memory.budget.stream-reservation suốt lần đọc: bộ nhớ của chúng có giới hạn không phụ thuộc kích thước
+ * nội dung (parser, bộ đệm ghi 16 KiB, tối đa ldx.rows.max-limit record, ldx.aggregate.max-groups nhóm,
+ * ldx.profile.max-columns cột), nên phần giữ cố định đủ để giới hạn số luồng đọc đồng thời.
+ * Đọc file cột dùng mmap (page cache của OS, ngoài heap) nên không giữ ngân sách.
+ * Metric: ldx.memory.budget.used, ldx.memory.budget.waiting (byte), ldx.memory.budget.rejected.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemoryBudget {
+
+    private final MeterRegistry meterRegistry;
+
+    /** 0: một phần tư heap tối đa của JVM */
+    @Value("${ldx.memory.budget.capacity:0}")
+    private DataSize capacity;
+
+    @Value("${ldx.memory.budget.queue-timeout:PT5S}")
+    private Duration queueTimeout;
+
+    private ByteBudget budget;
+
+    @PostConstruct
+    void init() {
+        long bytes = capacity.toBytes() > 0 ? capacity.toBytes() : Runtime.getRuntime().maxMemory() / 4;
+        budget = new ByteBudget(bytes);
+        log.info("Memory budget for download processing: {} bytes", budget.getCapacity());
+
+        Gauge.builder("ldx.memory.budget.used", budget, ByteBudget::getUsed)
+                .description("Số byte đang được giữ trong ngân sách bộ nhớ tải/chuyển đổi dữ liệu")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("ldx.memory.budget.waiting", budget, ByteBudget::getWaiting)
+                .description("Số byte các request đang chờ ngân sách bộ nhớ")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("ldx.memory.budget.capacity", budget, ByteBudget::getCapacity)
+                .description("Tổng ngân sách bộ nhớ tải/chuyển đổi dữ liệu")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Giữ {@code bytes} byte cho bước {@code stage} (tag metric khi bị từ chối).
+     *
+     * @throws ServerBusyException khi không có đủ ngân sách trong thời gian chờ
+     * @throws IllegalStateException khi {@code bytes} lớn hơn cả ngân sách (cấu hình sai), không bao giờ được cấp
+     */
+    public ByteBudget.Permit acquire(long bytes, String stage) {
+        if (bytes > budget.getCapacity()) {
+            meterRegistry.counter("ldx.memory.budget.rejected", "stage", stage).increment();
+            throw new IllegalStateException("Stage " + stage + " needs " + bytes
+                    + " bytes, more than the memory budget of " + budget.getCapacity() + " bytes");
+        }
+        ByteBudget.Permit permit = budget.tryAcquire(bytes, queueTimeout);
+        if (permit == null) {
+            meterRegistry.counter("ldx.memory.budget.rejected", "stage", stage).increment();
+            throw new ServerBusyException("Server is busy, retry later");
+        }
+        return permit;
+    }
+}
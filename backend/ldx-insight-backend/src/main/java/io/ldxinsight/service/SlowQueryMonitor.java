@@ -0,0 +1,445 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.ldxinsight.dto.SlowQueryShapeDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CommandListener ghi lại thời gian của từng lệnh Mongo theo "dạng truy vấn"
+ * (lệnh + collection + filter/sort/pipeline đã bỏ literal). Lệnh vượt ngưỡng được log
+ * kèm tóm tắt winning plan (explain chạy nền, tối đa một lần mỗi dạng trong một cửa sổ),
+ * và top-K dạng chậm nhất của cửa sổ hiện tại + cửa sổ trước được trả qua API admin.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SlowQueryMonitor implements CommandListener {
+
+    /** Lệnh nội bộ của driver/handshake, không phải truy vấn của ứng dụng */
+    private static final Set<String> IGNORED_COMMANDS = Set.of(
+            "hello", "ismaster", "isMaster", "ping", "buildInfo", "saslStart", "saslContinue",
+            "endSessions", "explain", "killCursors");
+    private static final Set<String> EXPLAINABLE_COMMANDS = Set.of(
+            "find", "aggregate", "count", "distinct", "update", "delete", "findAndModify");
+    /** Giữ nguyên giá trị của các key này: không phải literal của người dùng */
+    private static final Set<String> RAW_KEYS = Set.of("sort", "$sort", "projection", "$project");
+    private static final BsonString LITERAL = new BsonString("?");
+
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ldx.mongo.slow-query.enabled:true}")
+    private boolean enabled;
+
+    /** Lệnh chạy lâu hơn ngưỡng này bị coi là chậm */
+    @Value("${ldx.mongo.slow-query.threshold:100ms}")
+    private Duration threshold;
+
+    /** Độ dài một cửa sổ thống kê; top-K gộp cửa sổ hiện tại và cửa sổ liền trước */
+    @Value("${ldx.mongo.slow-query.window:PT15M}")
+    private Duration window;
+
+    /** Số dạng truy vấn tối đa theo dõi trong một cửa sổ */
+    @Value("${ldx.mongo.slow-query.max-shapes:1000}")
+    private int maxShapes;
+
+    /** Khoảng cách tối thiểu giữa hai dòng log của cùng một dạng truy vấn */
+    @Value("${ldx.mongo.slow-query.log-interval:PT10S}")
+    private Duration logInterval;
+
+    @Value("${ldx.mongo.slow-query.explain:true}")
+    private boolean explainEnabled;
+
+    private final ConcurrentHashMap<Integer, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Object rotateLock = new Object();
+    private volatile StatsWindow current = new StatsWindow(System.currentTimeMillis());
+    private volatile StatsWindow previous;
+
+    /** Explain chạy trên một luồng nền, hàng đợi nhỏ: quá tải thì bỏ qua, không làm chậm truy vấn */
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), r -> {
+                Thread thread = new Thread(r, "slow-query-explain");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    /* ====================== CommandListener ====================== */
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!enabled || IGNORED_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        String commandName = event.getCommandName();
+        String collection = collectionOf(commandName, command);
+        String shape = shapeOf(commandName, command);
+        // Command chỉ hợp lệ trong callback nên bản sao để explain phải lấy ngay; chỉ sao chép khi dạng
+        // truy vấn chưa có plan trong cửa sổ hiện tại (dạng đã có plan thì không explain lại)
+        BsonDocument explainable = explainEnabled && EXPLAINABLE_COMMANDS.contains(commandName)
+                && !hasPlan(InFlight.key(commandName, collection, shape)) ? explainableCopy(commandName, command) : null;
+        inFlight.put(event.getRequestId(),
+                new InFlight(commandName, event.getDatabaseName(), collection, shape, explainable));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        InFlight started = inFlight.remove(event.getRequestId());
+        if (started != null) {
+            record(started, event.getElapsedTime(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        InFlight started = inFlight.remove(event.getRequestId());
+        if (started != null) {
+            record(started, event.getElapsedTime(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    /* ====================== Top-K ====================== */
+
+    /**
+     * Các dạng truy vấn chậm nhất trong cửa sổ hiện tại và cửa sổ trước.
+     *
+     * @param sortBy max | total | mean | count
+     */
+    public List<SlowQueryShapeDto> topShapes(int limit, String sortBy) {
+        rotateIfNeeded(System.currentTimeMillis());
+        Map<String, SlowQueryShapeDto> merged = new HashMap<>();
+        StatsWindow older = previous;
+        if (older != null) {
+            older.shapes.forEach((key, stats) -> merged.merge(key, stats.toDto(), SlowQueryMonitor::merge));
+        }
+        current.shapes.forEach((key, stats) -> merged.merge(key, stats.toDto(), SlowQueryMonitor::merge));
+
+        Comparator<SlowQueryShapeDto> order = switch (sortBy == null ? "max" : sortBy) {
+            case "total" -> Comparator.comparingDouble(SlowQueryShapeDto::getTotalMs);
+            case "mean" -> Comparator.comparingDouble(SlowQueryShapeDto::getMeanMs);
+            case "count" -> Comparator.comparingLong(SlowQueryShapeDto::getCount);
+            case "max" -> Comparator.comparingDouble(SlowQueryShapeDto::getMaxMs);
+            default -> throw new IllegalArgumentException("sort must be one of max, total, mean, count");
+        };
+        return merged.values().stream()
+                .sorted(order.reversed())
+                .limit(Math.max(1, limit))
+                .toList();
+    }
+
+    /** Xóa thống kê (vd: sau khi đã xử lý xong một sự cố) */
+    public void reset() {
+        synchronized (rotateLock) {
+            previous = null;
+            current = new StatsWindow(System.currentTimeMillis());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private void record(InFlight started, long elapsedNanos) {
+        long now = System.currentTimeMillis();
+        rotateIfNeeded(now);
+        ShapeStats stats = current.stats(started, maxShapes);
+        if (stats == null) {
+            return;
+        }
+        stats.count.increment();
+        stats.totalNanos.add(elapsedNanos);
+        stats.maxNanos.accumulate(elapsedNanos);
+        stats.lastSeenMillis = now;
+
+        if (elapsedNanos < threshold.toNanos()) {
+            return;
+        }
+        stats.slowCount.increment();
+        meterRegistry.counter("ldx.mongo.slow.commands",
+                "command", started.commandName(), "collection", started.collection()).increment();
+
+        long lastLogged = stats.lastLoggedMillis.get();
+        if (now - lastLogged < logInterval.toMillis() || !stats.lastLoggedMillis.compareAndSet(lastLogged, now)) {
+            stats.suppressedLogs.increment();
+            return;
+        }
+        long suppressed = stats.suppressedLogs.sumThenReset();
+        double elapsedMs = elapsedNanos / 1_000_000.0;
+
+        if (started.explainable() != null && stats.lastPlan == null) {
+            explainExecutor.execute(() -> {
+                stats.lastPlan = explain(started);
+                logSlow(started, elapsedMs, stats.lastPlan, suppressed);
+            });
+        } else {
+            logSlow(started, elapsedMs, stats.lastPlan, suppressed);
+        }
+    }
+
+    private boolean hasPlan(String key) {
+        ShapeStats stats = current.shapes.get(key);
+        return stats != null && stats.lastPlan != null;
+    }
+
+    private void logSlow(InFlight started, double elapsedMs, String plan, long suppressed) {
+        log.warn("Slow Mongo command {} on {}.{} took {} ms (threshold {} ms, {} similar suppressed): shape={} plan={}",
+                started.commandName(), started.database(), started.collection(), String.format("%.1f", elapsedMs),
+                threshold.toMillis(), suppressed, started.shape(), plan != null ? plan : "n/a");
+    }
+
+    /** explain(queryPlanner) của chính lệnh chậm, tóm tắt thành "LIMIT > FETCH > IXSCAN [index]" */
+    private String explain(InFlight started) {
+        MongoTemplate template = mongoTemplate.getIfAvailable();
+        if (template == null) {
+            return null;
+        }
+        try {
+            BsonDocument command = new BsonDocument("explain", started.explainable())
+                    .append("verbosity", new BsonString("queryPlanner"));
+            Document result = template.getMongoDatabaseFactory()
+                    .getMongoDatabase(started.database())
+                    .runCommand(command);
+            List<String> stages = new ArrayList<>();
+            Set<String> indexes = new LinkedHashSet<>();
+            IndexManager.collectWinningPlan(result, false, stages, indexes);
+            return String.join(" > ", stages) + (indexes.isEmpty() ? "" : " " + indexes);
+        } catch (Exception e) {
+            log.debug("Explain of slow {} on {} failed: {}", started.commandName(), started.collection(), e.getMessage());
+            return "explain failed: " + e.getMessage();
+        }
+    }
+
+    private void rotateIfNeeded(long now) {
+        if (now - current.startedMillis < window.toMillis()) {
+            return;
+        }
+        synchronized (rotateLock) {
+            if (now - current.startedMillis >= window.toMillis()) {
+                previous = current;
+                current = new StatsWindow(now);
+            }
+        }
+    }
+
+    private static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : "-";
+    }
+
+    /** Phần mô tả truy vấn của lệnh, đã bỏ literal; rỗng với lệnh không có filter (insert, getMore...) */
+    static String shapeOf(String commandName, BsonDocument command) {
+        BsonDocument shape = new BsonDocument();
+        switch (commandName) {
+            case "find" -> {
+                copyStripped(command, "filter", shape);
+                copyStripped(command, "sort", shape);
+                copyStripped(command, "projection", shape);
+            }
+            case "aggregate" -> copyStripped(command, "pipeline", shape);
+            case "count", "findAndModify" -> {
+                copyStripped(command, "query", shape);
+                copyStripped(command, "sort", shape);
+            }
+            case "distinct" -> {
+                copyStripped(command, "key", shape);
+                copyStripped(command, "query", shape);
+            }
+            case "update", "delete" -> {
+                BsonValue statements = command.get("update".equals(commandName) ? "updates" : "deletes");
+                if (statements != null && statements.isArray() && !statements.asArray().isEmpty()
+                        && statements.asArray().get(0).isDocument()) {
+                    copyStripped(statements.asArray().get(0).asDocument(), "q", shape);
+                }
+            }
+            default -> {
+                return "";
+            }
+        }
+        return shape.toJson();
+    }
+
+    private static void copyStripped(BsonDocument source, String key, BsonDocument target) {
+        BsonValue value = source.get(key);
+        if (value != null) {
+            target.append(key, RAW_KEYS.contains(key) || "key".equals(key) ? value : strip(value));
+        }
+    }
+
+    /**
+     * Thay literal bằng "?", giữ tên field, toán tử và tham chiếu "$field".
+     * Mảng giá trị ($in...) gộp thành ["?"] để các danh sách dài ngắn khác nhau cùng một dạng.
+     */
+    static BsonValue strip(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument stripped = new BsonDocument();
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                stripped.append(entry.getKey(),
+                        RAW_KEYS.contains(entry.getKey()) ? entry.getValue() : strip(entry.getValue()));
+            }
+            return stripped;
+        }
+        if (value.isArray()) {
+            BsonArray array = value.asArray();
+            boolean documents = !array.isEmpty() && array.stream().allMatch(BsonValue::isDocument);
+            if (!documents) {
+                return new BsonArray(List.of(LITERAL));
+            }
+            BsonArray stripped = new BsonArray();
+            for (BsonValue item : array) {
+                stripped.add(strip(item));
+            }
+            return stripped;
+        }
+        if (value.isString() && value.asString().getValue().startsWith("$")) {
+            return value;
+        }
+        return LITERAL;
+    }
+
+    /**
+     * Bản sao lệnh bỏ các field phiên/giao dịch mà explain không chấp nhận. Lệnh ghi hàng loạt
+     * (update/delete nhiều statement) chỉ giữ statement đầu, cùng statement mà shapeOf dùng.
+     */
+    private static BsonDocument explainableCopy(String commandName, BsonDocument command) {
+        String statements = "update".equals(commandName) ? "updates" : "delete".equals(commandName) ? "deletes" : null;
+        BsonDocument copy = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : command.entrySet()) {
+            String key = entry.getKey();
+            if (key.startsWith("$") || key.equals("lsid") || key.equals("txnNumber") || key.equals("autocommit")
+                    || key.equals("startTransaction") || key.equals("writeConcern") || key.equals("readConcern")) {
+                continue;
+            }
+            BsonValue value = entry.getValue();
+            if (key.equals(statements) && value.isArray() && value.asArray().size() > 1) {
+                value = new BsonArray(List.of(value.asArray().get(0)));
+            }
+            copy.append(key, value.isDocument() || value.isArray() ? clone(value) : value);
+        }
+        return copy;
+    }
+
+    private static BsonValue clone(BsonValue value) {
+        return value.isDocument() ? value.asDocument().clone() : value.asArray().clone();
+    }
+
+    private static SlowQueryShapeDto merge(SlowQueryShapeDto a, SlowQueryShapeDto b) {
+        long count = a.getCount() + b.getCount();
+        double total = a.getTotalMs() + b.getTotalMs();
+        boolean bNewer = b.getLastSeen() != null && (a.getLastSeen() == null || b.getLastSeen().isAfter(a.getLastSeen()));
+        return new SlowQueryShapeDto(a.getCommand(), a.getCollection(), a.getShape(), count,
+                a.getSlowCount() + b.getSlowCount(), count == 0 ? 0 : total / count,
+                Math.max(a.getMaxMs(), b.getMaxMs()), total,
+                bNewer && b.getLastPlan() != null ? b.getLastPlan() : (a.getLastPlan() != null ? a.getLastPlan() : b.getLastPlan()),
+                bNewer ? b.getLastSeen() : a.getLastSeen());
+    }
+
+    private record InFlight(String commandName, String database, String collection, String shape,
+                            BsonDocument explainable) {
+
+        String key() {
+            return key(commandName, collection, shape);
+        }
+
+        static String key(String commandName, String collection, String shape) {
+            return commandName + ' ' + collection + ' ' + shape;
+        }
+    }
+
+    private static final class StatsWindow {
+        final long startedMillis;
+        final ConcurrentHashMap<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+
+        StatsWindow(long startedMillis) {
+            this.startedMillis = startedMillis;
+        }
+
+        /** null nếu đã đủ maxShapes dạng khác nhau (tránh tràn bộ nhớ khi truy vấn sinh động) */
+        ShapeStats stats(InFlight started, int maxShapes) {
+            ShapeStats stats = shapes.get(started.key());
+            if (stats != null || shapes.size() >= maxShapes) {
+                return stats;
+            }
+            return shapes.computeIfAbsent(started.key(),
+                    k -> new ShapeStats(started.commandName(), started.collection(), started.shape()));
+        }
+    }
+
+    private static final class ShapeStats {
+        final String command;
+        final String collection;
+        final String shape;
+        final LongAdder count = new LongAdder();
+        final LongAdder slowCount = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final AtomicLong lastLoggedMillis = new AtomicLong();
+        final LongAdder suppressedLogs = new LongAdder();
+        volatile long lastSeenMillis;
+        volatile String lastPlan;
+
+        ShapeStats(String command, String collection, String shape) {
+            this.command = command;
+            this.collection = collection;
+            this.shape = shape;
+        }
+
+        SlowQueryShapeDto toDto() {
+            long n = count.sum();
+            double totalMs = totalNanos.sum() / 1_000_000.0;
+            return new SlowQueryShapeDto(command, collection, shape, n, slowCount.sum(),
+                    n == 0 ? 0 : totalMs / n, maxNanos.get() / 1_000_000.0, totalMs, lastPlan,
+                    lastSeenMillis == 0 ? null : Instant.ofEpochMilli(lastSeenMillis));
+        }
+    }
+}
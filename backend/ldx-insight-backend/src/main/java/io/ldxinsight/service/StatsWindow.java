@@ -0,0 +1,105 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cửa sổ thời gian cho các endpoint thống kê, dạng {@code <số><đơn vị>}:
+ * {@code 24h} (theo giờ), {@code 7d} (theo ngày), {@code 12m} (theo tháng) hoặc {@code all} (trọn đời).
+ * Cửa sổ được căn theo bucket UTC và tính cả bucket hiện tại, vd: 7d = hôm nay và 6 ngày trước.
+ */
+public record StatsWindow(int amount, ChronoUnit unit) {
+
+    public static final StatsWindow ALL = new StatsWindow(0, ChronoUnit.FOREVER);
+
+    private static final Pattern FORMAT = Pattern.compile("(\\d{1,4})([hdm])");
+
+    /** Giới hạn theo thời gian lưu của từng collection bucket */
+    private static final int MAX_HOURS = 24 * 35;
+    private static final int MAX_DAYS = 400;
+    private static final int MAX_MONTHS = 120;
+
+    /** null/rỗng/"all" là trọn đời */
+    public static StatsWindow parse(String value) {
+        if (!StringUtils.hasText(value) || "all".equalsIgnoreCase(value.trim())) {
+            return ALL;
+        }
+        Matcher matcher = FORMAT.matcher(value.trim().toLowerCase(Locale.ROOT));
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid window '" + value + "': expected e.g. 24h, 7d, 12m or all");
+        }
+        int amount = Integer.parseInt(matcher.group(1));
+        ChronoUnit unit;
+        int max;
+        switch (matcher.group(2)) {
+            case "h" -> {
+                unit = ChronoUnit.HOURS;
+                max = MAX_HOURS;
+            }
+            case "d" -> {
+                unit = ChronoUnit.DAYS;
+                max = MAX_DAYS;
+            }
+            default -> {
+                unit = ChronoUnit.MONTHS;
+                max = MAX_MONTHS;
+            }
+        }
+        if (amount < 1 || amount > max) {
+            throw new IllegalArgumentException("Invalid window '" + value + "': must be between 1 and " + max
+                    + matcher.group(2));
+        }
+        return new StatsWindow(amount, unit);
+    }
+
+    public boolean isAll() {
+        return unit == ChronoUnit.FOREVER;
+    }
+
+    /** Thời điểm bắt đầu của bucket đầu tiên trong cửa sổ */
+    public Instant start(Instant now) {
+        ZonedDateTime utc = now.atZone(ZoneOffset.UTC);
+        ZonedDateTime start = switch (unit) {
+            case HOURS -> utc.truncatedTo(ChronoUnit.HOURS).minusHours(amount - 1L);
+            case DAYS -> utc.truncatedTo(ChronoUnit.DAYS).minusDays(amount - 1L);
+            case MONTHS -> utc.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1).minusMonths(amount - 1L);
+            default -> throw new IllegalStateException("Window 'all' has no start");
+        };
+        return start.toInstant();
+    }
+
+    @Override
+    public String toString() {
+        if (isAll()) {
+            return "all";
+        }
+        return amount + switch (unit) {
+            case HOURS -> "h";
+            case DAYS -> "d";
+            default -> "m";
+        };
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import io.ldxinsight.model.DatasetStatsHourly;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Điểm "trending" của từng dataset: tổng lượt xem/tải có trọng số, suy giảm theo hàm mũ với half-life cấu hình được.
+ * <p>
+ * Điểm được giữ trong không gian log so với một mốc cố định (epoch):
+ * {@code log(Σ w·2^((t - epoch)/halfLife))}. Mỗi lượt chỉ cần một phép log-add-exp (O(1)),
+ * không phải ghi lại mọi document khi thời gian trôi; giá trị thực được chuẩn hóa lúc đọc
+ * bằng cách trừ đi {@code (now - epoch)/halfLife·ln2}. Vì mọi điểm cùng suy giảm một tỉ lệ
+ * nên thứ tự giữa các dataset chỉ thay đổi khi có lượt mới, nhờ đó top-K được giữ chính xác
+ * trong một heap có giới hạn, chỉ cập nhật tại dataset vừa có lượt.
+ * <p>
+ * Điểm được cộng trên ConcurrentHashMap, không khóa chung. Khóa của tracker chỉ được lấy khi dataset
+ * đã nằm trong top-K hoặc điểm mới vượt ngưỡng vào top-K (điểm nhỏ nhất trong heap), nên phần lớn lượt
+ * xem/tải của các dataset ít người xem không tranh chấp nhau.
+ * <p>
+ * Khi khởi động, điểm được dựng lại từ dataset_stats_hourly. Mỗi node chỉ cộng các lượt nó nhận được
+ * sau đó.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrendingTracker {
+
+    private static final double LN2 = Math.log(2);
+    /** Điểm (đã chuẩn hóa) dưới ngưỡng này bị xóa khỏi bộ nhớ khi dọn dẹp */
+    private static final double PRUNE_BELOW = 0.01;
+
+    private record Entry(String datasetId, double logScore) {
+    }
+
+    private static final Comparator<Entry> BY_SCORE = Comparator.comparingDouble(Entry::logScore)
+            .thenComparing(Entry::datasetId);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${ldx.trending.half-life:P1D}")
+    private Duration halfLife;
+
+    @Value("${ldx.trending.view-weight:1}")
+    private double viewWeight;
+
+    @Value("${ldx.trending.download-weight:3}")
+    private double downloadWeight;
+
+    /** Số dataset tối đa giữ trong heap top-K (cũng là limit tối đa của API) */
+    @Value("${ldx.trending.capacity:100}")
+    private int capacity;
+
+    /** datasetId -> điểm log-space */
+    private final Map<String, Double> scores = new ConcurrentHashMap<>();
+    /** Top-K theo điểm, phần tử nhỏ nhất ở đầu (chỉ truy cập khi giữ khóa của tracker) */
+    private final TreeSet<Entry> top = new TreeSet<>(BY_SCORE);
+    /** Dataset trong top-K; đọc không cần khóa, ghi khi giữ khóa */
+    private final Map<String, Entry> topEntries = new ConcurrentHashMap<>();
+    /** Điểm tối thiểu để vào top-K: điểm nhỏ nhất trong heap khi heap đầy, -∞ khi chưa đầy */
+    private volatile double admission = Double.NEGATIVE_INFINITY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        // Chạy nền: Mongo có thể chưa sẵn sàng
+        Thread worker = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.warn("Trending score rebuild on startup failed: {}", e.getMessage());
+            }
+        }, "trending-rebuild");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void record(String datasetId, DatasetAnalyticsService.CounterType type) {
+        double weight = type == DatasetAnalyticsService.CounterType.DOWNLOAD ? downloadWeight : viewWeight;
+        add(datasetId, Instant.now(), weight);
+    }
+
+    public synchronized void remove(String datasetId) {
+        scores.remove(datasetId);
+        Entry entry = topEntries.remove(datasetId);
+        if (entry != null) {
+            top.remove(entry);
+            updateAdmission();
+        }
+    }
+
+    /** Top dataset theo điểm hiện tại (đã suy giảm), giảm dần: datasetId -> điểm */
+    public synchronized Map<String, Double> top(int limit) {
+        double offset = logDecay(Instant.now());
+        Map<String, Double> result = new LinkedHashMap<>();
+        Iterator<Entry> it = top.descendingIterator();
+        while (it.hasNext() && result.size() < limit) {
+            Entry entry = it.next();
+            result.put(entry.datasetId(), Math.exp(entry.logScore() - offset));
+        }
+        return result;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Dựng lại toàn bộ điểm từ bucket giờ của khoảng 10 half-life gần nhất
+     * (lượt cũ hơn chỉ còn dưới 0.1% trọng số).
+     */
+    public void rebuild() {
+        Instant since = Instant.now().minus(halfLife.multipliedBy(10)).truncatedTo(ChronoUnit.HOURS);
+        List<Document> pipeline = List.of(new Document("$match",
+                new Document("bucket", new Document("$gte", Date.from(since)))));
+        Map<String, Double> fresh = new HashMap<>();
+        String collection = mongoTemplate.getCollectionName(DatasetStatsHourly.class);
+        for (Document bucket : mongoTemplate.getCollection(collection).aggregate(pipeline).allowDiskUse(true)) {
+            double weight = number(bucket, "views") * viewWeight + number(bucket, "downloads") * downloadWeight;
+            if (weight <= 0) {
+                continue;
+            }
+            // Lượt trong bucket được tính ở giữa giờ
+            Instant at = bucket.getDate("bucket").toInstant().plus(30, ChronoUnit.MINUTES);
+            fresh.merge(bucket.getString("datasetId"), Math.log(weight) + logDecay(at), TrendingTracker::logAddExp);
+        }
+        synchronized (this) {
+            // Lượt nhận trong lúc dựng lại đã có trong bucket hoặc sẽ được ghi vào bucket, giữ lại phần lớn hơn
+            fresh.forEach((id, score) -> scores.merge(id, score, Math::max));
+            top.clear();
+            topEntries.clear();
+            admission = Double.NEGATIVE_INFINITY;
+            scores.forEach((id, score) -> offerTop(new Entry(id, score)));
+        }
+        log.info("Trending scores rebuilt for {} datasets", fresh.size());
+    }
+
+    /** Xóa các dataset có điểm không đáng kể để bộ nhớ không tăng theo toàn bộ catalog */
+    @Scheduled(fixedDelayString = "${ldx.trending.prune-interval:PT1H}",
+            initialDelayString = "${ldx.trending.prune-interval:PT1H}")
+    public synchronized void prune() {
+        double threshold = Math.log(PRUNE_BELOW) + logDecay(Instant.now());
+        int before = scores.size();
+        scores.entrySet().removeIf(e -> e.getValue() < threshold && !topEntries.containsKey(e.getKey()));
+        log.debug("Pruned {} trending scores below {}", before - scores.size(), PRUNE_BELOW);
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private void add(String datasetId, Instant at, double weight) {
+        double logScore = scores.merge(datasetId, Math.log(weight) + logDecay(at), TrendingTracker::logAddExp);
+        // Điểm chỉ tăng nên phần tử ngoài heap chỉ có thể vào lại khi chính nó có lượt mới;
+        // dưới ngưỡng vào và không nằm trong heap thì không cần đụng tới heap
+        if (logScore <= admission && !topEntries.containsKey(datasetId)) {
+            return;
+        }
+        updateTop(datasetId);
+    }
+
+    private synchronized void updateTop(String datasetId) {
+        // Đọc lại điểm: luồng khác có thể đã cộng thêm sau lần merge của luồng này
+        Double logScore = scores.get(datasetId);
+        if (logScore == null) {
+            return;
+        }
+        Entry previous = topEntries.remove(datasetId);
+        if (previous != null) {
+            top.remove(previous);
+        }
+        offerTop(new Entry(datasetId, logScore));
+    }
+
+    private void offerTop(Entry entry) {
+        if (top.size() >= capacity) {
+            Entry smallest = top.first();
+            if (BY_SCORE.compare(entry, smallest) <= 0) {
+                return;
+            }
+            top.pollFirst();
+            topEntries.remove(smallest.datasetId());
+        }
+        top.add(entry);
+        topEntries.put(entry.datasetId(), entry);
+        updateAdmission();
+    }
+
+    private void updateAdmission() {
+        admission = top.size() >= capacity ? top.first().logScore() : Double.NEGATIVE_INFINITY;
+    }
+
+    /** log của hệ số tăng trưởng tại thời điểm {@code at} so với epoch: (at - epoch)/halfLife·ln2 */
+    private double logDecay(Instant at) {
+        return (double) at.toEpochMilli() / halfLife.toMillis() * LN2;
+    }
+
+    /** log(e^a + e^b) không bị tràn số */
+    private static double logAddExp(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    private static double number(Document document, String key) {
+        Object value = document.get(key);
+        return value instanceof Number n ? n.doubleValue() : 0d;
+    }
+}
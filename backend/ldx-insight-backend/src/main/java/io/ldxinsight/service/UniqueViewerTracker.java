@@ -0,0 +1,149 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import io.ldxinsight.model.DatasetViewerSketch;
+import io.ldxinsight.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Đếm người xem phân biệt của từng dataset bằng HyperLogLog (bộ nhớ cố định mỗi dataset mỗi ngày).
+ * Người xem được nhận diện bằng hash của user id, hoặc IP + User-Agent với người dùng ẩn danh;
+ * giá trị gốc không được lưu. Sketch của ngày hiện tại nằm trong bộ nhớ và được ghi đè định kỳ
+ * vào document của node này; khi đọc, sketch của mọi ngày trong cửa sổ và mọi node được gộp lại.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UniqueViewerTracker {
+
+    /** 2048 thanh ghi: 1.5KB mỗi sketch, sai số chuẩn ~2.3% */
+    public static final int PRECISION = 11;
+
+    private record SketchKey(String datasetId, Instant day) {
+    }
+
+    private static final class PendingSketch {
+        private final HyperLogLog sketch = new HyperLogLog(PRECISION);
+        private volatile boolean dirty;
+        /** Đã gộp document cũ của node này (vd: trước khi khởi động lại) */
+        private boolean loaded;
+    }
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${ldx.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    private final Map<SketchKey, PendingSketch> sketches = new ConcurrentHashMap<>();
+
+    /** Ghi nhận một lượt xem của {@code viewerKey} (chỉ cập nhật sketch trong bộ nhớ) */
+    public void record(String datasetId, String viewerKey) {
+        SketchKey key = new SketchKey(datasetId, Instant.now().truncatedTo(ChronoUnit.DAYS));
+        PendingSketch pending = sketches.computeIfAbsent(key, k -> new PendingSketch());
+        if (pending.sketch.offer(viewerKey)) {
+            pending.dirty = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ldx.analytics.flush-interval:PT10S}",
+            initialDelayString = "${ldx.analytics.flush-interval:PT10S}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Unique viewer sketch flush failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        scheduledFlush();
+    }
+
+    /** Ghi các sketch thay đổi xuống Mongo, bỏ sketch của các ngày đã qua khỏi bộ nhớ */
+    public synchronized void flush() {
+        Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+        for (Map.Entry<SketchKey, PendingSketch> entry : sketches.entrySet()) {
+            SketchKey key = entry.getKey();
+            PendingSketch pending = entry.getValue();
+            if (pending.dirty) {
+                try {
+                    if (!pending.loaded) {
+                        DatasetViewerSketch existing = mongoTemplate.findOne(ownSketch(key), DatasetViewerSketch.class);
+                        if (existing != null && existing.getSketch() != null) {
+                            pending.sketch.merge(HyperLogLog.fromBytes(existing.getSketch()));
+                        }
+                        pending.loaded = true;
+                    }
+                    // Xoá cờ trước khi chụp sketch: lượt xem mới trong lúc ghi sẽ đặt lại cờ cho lần flush sau
+                    pending.dirty = false;
+                    mongoTemplate.upsert(ownSketch(key), new Update().set("sketch", pending.sketch.toBytes()),
+                            DatasetViewerSketch.class);
+                } catch (RuntimeException e) {
+                    // Ghi lỗi: giữ sketch trong bộ nhớ để thử lại ở lần flush sau, không bỏ các sketch còn lại
+                    pending.dirty = true;
+                    log.warn("Unique viewer sketch flush failed for dataset {} ({}): {}",
+                            key.datasetId(), key.day(), e.getMessage());
+                }
+            }
+            if (key.day().isBefore(today) && !pending.dirty) {
+                sketches.remove(key, pending);
+            }
+        }
+    }
+
+    /** Số người xem phân biệt của dataset từ {@code since} tới nay (gộp mọi ngày và mọi node) */
+    public long estimate(String datasetId, Instant since) {
+        Instant from = since.truncatedTo(ChronoUnit.DAYS);
+        HyperLogLog union = new HyperLogLog(PRECISION);
+        Query query = new Query(Criteria.where("datasetId").is(datasetId).and("bucket").gte(from));
+        query.fields().include("sketch");
+        for (DatasetViewerSketch stored : mongoTemplate.find(query, DatasetViewerSketch.class)) {
+            if (stored.getSketch() != null) {
+                union.merge(HyperLogLog.fromBytes(stored.getSketch()));
+            }
+        }
+        // Cộng cả phần chưa ghi xuống Mongo của node này
+        sketches.forEach((key, pending) -> {
+            if (key.datasetId().equals(datasetId) && !key.day().isBefore(from)) {
+                union.merge(pending.sketch);
+            }
+        });
+        return union.estimate();
+    }
+
+    private Query ownSketch(SketchKey key) {
+        return new Query(Criteria.where("datasetId").is(key.datasetId())
+                .and("bucket").is(key.day())
+                .and("node").is(nodeId));
+    }
+}
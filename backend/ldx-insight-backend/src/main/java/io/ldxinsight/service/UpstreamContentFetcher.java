@@ -0,0 +1,329 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import io.ldxinsight.exception.ResourceNotFoundException;
+import io.ldxinsight.exception.ServerBusyException;
+import io.ldxinsight.exception.UpstreamContentTooLargeException;
+import io.ldxinsight.util.ByteBudget;
+import io.ldxinsight.util.CountingInputStream;
+import io.ldxinsight.util.SpooledContent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Đọc nội dung dữ liệu gốc của dataset từ dataUrl (HTTP(S) hoặc file cục bộ).
+ * Ghi metric theo host: ldx.upstream.fetch (thời gian), ldx.upstream.fetch.bytes (kích thước),
+ * ldx.upstream.fetch.errors (số lỗi theo loại). File cục bộ được gắn host="local".
+ * Nội dung lớn hơn ldx.upstream.spill-threshold được ghi ra file tạm thay vì giữ trên heap;
+ * nội dung HTTP lớn hơn ldx.upstream.max-content-size bị từ chối (UpstreamContentTooLargeException),
+ * file cục bộ không bị giới hạn.
+ * Phần nội dung giữ trong bộ nhớ được tính vào {@link MemoryBudget} tới khi nội dung được đóng.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UpstreamContentFetcher {
+
+    private static final String LOCAL_HOST = "local";
+
+    private final MeterRegistry meterRegistry;
+    private final MemoryBudget memoryBudget;
+    /**
+     * JDK HttpClient thay cho HttpURLConnection mặc định: đóng body giữa chừng sẽ huỷ exchange,
+     * trong khi HttpURLConnection (và close() của response Spring) đọc nốt phần còn lại của body.
+     */
+    private final RestTemplate restTemplate = new RestTemplate(new JdkClientHttpRequestFactory(
+            HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build()));
+
+    @Value("${ldx.upstream.spill-threshold:1MB}")
+    private DataSize spillThreshold;
+
+    @Value("${ldx.upstream.max-content-size:512MB}")
+    private DataSize maxContentSize;
+
+    /** Phần ngân sách bộ nhớ giữ suốt mỗi lần đọc stream (bộ đệm parser/ghi, record và nhóm đang giữ) */
+    @Value("${ldx.memory.budget.stream-reservation:1MB}")
+    private DataSize streamReservation;
+
+    @Value("${ldx.upstream.spill-dir:${java.io.tmpdir}/ldx-upstream}")
+    private String spillDir;
+
+    /** Đọc nội dung từ một stream; trả về sớm được (phần còn lại của nguồn không được tải) */
+    @FunctionalInterface
+    public interface ContentReader<T> {
+        T read(InputStream in) throws IOException;
+    }
+
+    /**
+     * Tải toàn bộ nội dung nguồn. Người gọi phải đóng kết quả (xoá file tạm nếu nội dung đã được ghi ra đĩa).
+     */
+    public SpooledContent fetch(String sourceUrl) {
+        String host = hostOf(sourceUrl);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            SpooledContent body = doFetch(sourceUrl);
+            DistributionSummary.builder("ldx.upstream.fetch.bytes")
+                    .description("Kích thước nội dung tải từ nguồn dữ liệu")
+                    .baseUnit("bytes")
+                    .tag("host", host)
+                    .register(meterRegistry)
+                    .record(body.size());
+            return body;
+        } catch (RuntimeException e) {
+            outcome = "error";
+            Counter.builder("ldx.upstream.fetch.errors")
+                    .description("Số lần tải nguồn dữ liệu thất bại")
+                    .tag("host", host)
+                    .tag("reason", e.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("ldx.upstream.fetch")
+                    .description("Thời gian tải nội dung từ nguồn dữ liệu")
+                    .tag("host", host)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Mở nội dung nguồn dưới dạng stream và giao cho {@code reader}. Kết nối/file được đóng ngay khi
+     * reader trả về, nên reader chỉ cần đọc phần đầu (vd: preview) sẽ không tải hết nguồn.
+     * Metric như {@link #fetch(String)}, kích thước là số byte thực sự đã đọc.
+     * Trong lúc đọc giữ ldx.memory.budget.stream-reservation byte ngân sách bộ nhớ (bước "stream").
+     */
+    public <T> T stream(String sourceUrl, ContentReader<T> reader) {
+        String host = hostOf(sourceUrl);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        // Giới hạn kích thước chỉ áp dụng cho nguồn HTTP, file cục bộ được đọc trọn
+        long limit = isHttp(sourceUrl) ? maxContentSize.toBytes() : Long.MAX_VALUE;
+        CountingInputStream[] counted = new CountingInputStream[1];
+        ContentReader<T> counting = in -> {
+            counted[0] = new CountingInputStream(in, limit);
+            return reader.read(counted[0]);
+        };
+        try (ByteBudget.Permit ignored = memoryBudget.acquire(streamReservation.toBytes(), "stream")) {
+            return doStream(sourceUrl, counting);
+        } catch (RuntimeException e) {
+            outcome = "error";
+            Counter.builder("ldx.upstream.fetch.errors")
+                    .description("Số lần tải nguồn dữ liệu thất bại")
+                    .tag("host", host)
+                    .tag("reason", e.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            if (counted[0] != null) {
+                DistributionSummary.builder("ldx.upstream.fetch.bytes")
+                        .description("Kích thước nội dung tải từ nguồn dữ liệu")
+                        .baseUnit("bytes")
+                        .tag("host", host)
+                        .register(meterRegistry)
+                        .record(counted[0].getCount());
+            }
+            sample.stop(Timer.builder("ldx.upstream.fetch")
+                    .description("Thời gian tải nội dung từ nguồn dữ liệu")
+                    .tag("host", host)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private <T> T doStream(String sourceUrl, ContentReader<T> reader) {
+        try {
+            if (isHttp(sourceUrl)) {
+                return restTemplate.execute(URI.create(sourceUrl), HttpMethod.GET,
+                        request -> {
+                            request.getHeaders().set(HttpHeaders.USER_AGENT, "Ldx-Insight/1.0 (+spring)");
+                            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON, MediaType.ALL));
+                        },
+                        response -> {
+                            if (!response.getStatusCode().is2xxSuccessful()) {
+                                throw new ResourceNotFoundException("Upstream error: " + response.getStatusCode());
+                            }
+                            // Đóng body trước khi Spring đóng response: huỷ kết nối thay vì tải nốt phần reader không đọc
+                            try (InputStream body = response.getBody()) {
+                                return reader.read(body);
+                            }
+                        });
+            }
+            try (InputStream in = Files.newInputStream(resolveLocal(sourceUrl))) {
+                return reader.read(in);
+            }
+        } catch (ResourceNotFoundException | IllegalArgumentException | UpstreamContentTooLargeException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error streaming data content from dataUrl: {}", sourceUrl, e);
+            throw new ResourceNotFoundException(String.format("Cannot stream data content from dataUrl: %s. Source URL: %s. Error: %s",
+                    e.getClass().getSimpleName(), sourceUrl, e.getMessage()));
+        }
+    }
+
+    private SpooledContent doFetch(String sourceUrl) {
+        try {
+            if (isHttp(sourceUrl)) {
+                // Giữ trước ngân sách cho bộ đệm trong bộ nhớ (tối đa spill-threshold), thu lại khi biết kích thước thật
+                ByteBudget.Permit permit = memoryBudget.acquire(spillThreshold.toBytes(), "fetch");
+                try {
+                    SpooledContent body = restTemplate.execute(URI.create(sourceUrl), HttpMethod.GET,
+                            request -> {
+                                request.getHeaders().set(HttpHeaders.USER_AGENT, "Ldx-Insight/1.0 (+spring)");
+                                request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN, MediaType.TEXT_HTML, MediaType.ALL));
+                            },
+                            response -> {
+                                // Đóng body trước khi Spring đóng response: khi vượt giới hạn (kể cả body chunked
+                                // không có Content-Length) kết nối bị huỷ thay vì tải nốt phần còn lại
+                                try (InputStream in = response.getBody()) {
+                                    if (!response.getStatusCode().is2xxSuccessful()) {
+                                        throw new ResourceNotFoundException("Upstream error: " + response.getStatusCode());
+                                    }
+                                    // Từ chối sớm khi server báo trước kích thước vượt giới hạn
+                                    if (response.getHeaders().getContentLength() > maxContentSize.toBytes()) {
+                                        throw new UpstreamContentTooLargeException(maxContentSize.toBytes());
+                                    }
+                                    return SpooledContent.spool(in, (int) Math.min(spillThreshold.toBytes(), Integer.MAX_VALUE - 8),
+                                            maxContentSize.toBytes(), Path.of(spillDir));
+                                }
+                            });
+                    if (body != null) {
+                        body.whenReleased(permit::close);
+                        permit.shrinkTo(body.isSpilled() ? 0 : body.size());
+                    }
+                    if (body == null || body.size() == 0) {
+                        throw new ResourceNotFoundException("Upstream content is empty");
+                    }
+
+                    // Log warning nếu là HTML nhưng vẫn trả về
+                    String head;
+                    try {
+                        head = new String(body.head(400), StandardCharsets.UTF_8).toLowerCase();
+                    } catch (IOException e) {
+                        body.close();
+                        throw e;
+                    }
+                    if (head.contains("<html") || head.contains("<!doctype html")) {
+                        log.warn("Upstream returned HTML content (may be blocked by WAF/Proxy), but returning as-is. URL: {}", sourceUrl);
+                    }
+
+                    return body;
+                } catch (Exception e) {
+                    permit.close();
+                    throw e;
+                }
+            } else {
+                // Local file / file://: đọc trực tiếp từ file, không sao chép
+                SpooledContent body = SpooledContent.ofFile(resolveLocal(sourceUrl));
+                if (body.size() == 0) {
+                    throw new ResourceNotFoundException("Local file is empty");
+                }
+                return body;
+            }
+        } catch (ResourceNotFoundException | UpstreamContentTooLargeException | ServerBusyException e) {
+            // Re-throw để giữ nguyên message
+            throw e;
+        } catch (Exception e) {
+            // Log chi tiết lỗi để debug
+            log.error("Error fetching data content from dataUrl: {}", sourceUrl, e);
+            String errorMsg = String.format("Cannot fetch data content from dataUrl: %s. Source URL: %s. Error: %s",
+                    e.getClass().getSimpleName(), sourceUrl, e.getMessage());
+            throw new ResourceNotFoundException(errorMsg);
+        }
+    }
+
+    private boolean isHttp(String url) {
+        String u = url.trim().toLowerCase();
+        return u.startsWith("http://") || u.startsWith("https://");
+    }
+
+    /** Host của URL (chữ thường) làm tag metric; file cục bộ và URL lỗi gom về một giá trị cố định */
+    private String hostOf(String url) {
+        if (!isHttp(url)) {
+            return LOCAL_HOST;
+        }
+        try {
+            String host = URI.create(url.trim()).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : "unknown";
+        } catch (IllegalArgumentException e) {
+            return "unknown";
+        }
+    }
+
+    /** Đường dẫn file cục bộ từ URI "file:..." hoặc đường dẫn hệ điều hành; lỗi nếu không đọc được */
+    private Path resolveLocal(String url) {
+        try {
+            if (url.startsWith("file:")) {
+                URI uri = new URI(url);
+                Path path;
+                try {
+                    // Thử parse URI trực tiếp
+                    path = Path.of(uri);
+                } catch (Exception e) {
+                    // Nếu không được, thử lấy path từ URI
+                    String pathStr = uri.getPath();
+                    // Xử lý Windows path (file:///C:/path -> C:/path)
+                    if (pathStr != null && pathStr.startsWith("/") && pathStr.length() > 2 && pathStr.charAt(2) == ':') {
+                        pathStr = pathStr.substring(1); // Bỏ dấu / đầu tiên
+                    }
+                    path = Paths.get(pathStr);
+                }
+                if (!Files.exists(path) || !Files.isReadable(path)) {
+                    throw new ResourceNotFoundException("Local file not found or not readable: " + url + " (resolved to: " + path + ")");
+                }
+                return path;
+            }
+        } catch (URISyntaxException e) {
+            // fallthrough: thử coi như đường dẫn hệ điều hành
+        }
+        // Xử lý như đường dẫn hệ điều hành thông thường
+        Path p = Paths.get(url);
+        if (!Files.exists(p) || !Files.isReadable(p)) {
+            throw new ResourceNotFoundException("Local file not found or not readable: " + url + " (absolute path: " + p.toAbsolutePath() + ")");
+        }
+        return p;
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import io.ldxinsight.dto.BulkIngestItemResult;
+import io.ldxinsight.dto.BulkIngestItemResult.Status;
+import io.ldxinsight.dto.BulkIngestResultDto;
+import io.ldxinsight.dto.CreateDatasetRequest;
+import io.ldxinsight.model.Dataset;
+import io.ldxinsight.service.CategoryRegistry;
+import io.ldxinsight.service.DatasetIngestService;
+import io.ldxinsight.util.TextNormalizer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatasetIngestServiceImpl implements DatasetIngestService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final CategoryRegistry categoryRegistry;
+
+    /** Số bản ghi hợp lệ gom lại trước khi gửi một lệnh bulk xuống Mongo */
+    @Value("${ldx.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public BulkIngestResultDto ingest(InputStream body, boolean errorsOnly) throws IOException {
+        long started = System.nanoTime();
+
+        BulkIngestResultDto result = new BulkIngestResultDto();
+        List<PendingItem> batch = new ArrayList<>(batchSize);
+        Set<String> batchKeys = new HashSet<>();
+
+        ObjectReader reader = objectMapper.readerFor(CreateDatasetRequest.class);
+        // readValues(InputStream) tự bóc mảng gốc nếu body là JSON array,
+        // còn NDJSON được đọc như chuỗi các giá trị gốc liên tiếp
+        try (MappingIterator<CreateDatasetRequest> it = reader.readValues(body)) {
+            int index = 0;
+            while (true) {
+                CreateDatasetRequest request;
+                try {
+                    if (!it.hasNextValue()) {
+                        break;
+                    }
+                    request = it.nextValue();
+                } catch (JsonMappingException e) {
+                    // Sai kiểu dữ liệu trong một bản ghi: iterator tự nhảy sang bản ghi kế tiếp
+                    result.setReceived(result.getReceived() + 1);
+                    addItem(result, new BulkIngestItemResult(index++, Status.INVALID, null,
+                            List.of(e.getOriginalMessage())), errorsOnly);
+                    continue;
+                } catch (JsonProcessingException e) {
+                    // Lỗi cú pháp: không thể đồng bộ lại luồng, dừng đọc nhưng vẫn ghi phần đã nhận
+                    result.setError("Malformed input after item " + index + ": " + e.getOriginalMessage());
+                    break;
+                }
+
+                result.setReceived(result.getReceived() + 1);
+                int itemIndex = index++;
+
+                List<String> errors = validate(request);
+                if (!errors.isEmpty()) {
+                    addItem(result, new BulkIngestItemResult(itemIndex, Status.INVALID, null, errors), errorsOnly);
+                    continue;
+                }
+
+                // Cùng khóa xuất hiện 2 lần trong một lô: flush trước để giữ thứ tự "bản ghi sau thắng"
+                String key = keyOf(request);
+                if (batchKeys.contains(key)) {
+                    flush(batch, result, errorsOnly);
+                    batchKeys.clear();
+                }
+                batch.add(new PendingItem(itemIndex, request));
+                batchKeys.add(key);
+
+                if (batch.size() >= batchSize) {
+                    flush(batch, result, errorsOnly);
+                    batchKeys.clear();
+                }
+            }
+        }
+        flush(batch, result, errorsOnly);
+
+        // Upsert không biết category cũ của bản ghi bị ghi đè: để registry đối soát lại khi đọc
+        if (result.getCreated() + result.getUpdated() > 0) {
+            categoryRegistry.invalidate();
+        }
+
+        result.setDurationMs((System.nanoTime() - started) / 1_000_000);
+        log.info("Bulk ingest finished: received={}, created={}, updated={}, invalid={}, failed={} in {} ms",
+                result.getReceived(), result.getCreated(), result.getUpdated(),
+                result.getInvalid(), result.getFailed(), result.getDurationMs());
+        return result;
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private void flush(List<PendingItem> batch, BulkIngestResultDto result, boolean errorsOnly) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Dataset.class);
+        for (PendingItem item : batch) {
+            ops.upsert(keyQuery(item.request()), toUpsert(item.request(), now));
+        }
+
+        BulkWriteResult writeResult;
+        Map<Integer, String> failures = new HashMap<>();
+        try {
+            writeResult = ops.execute();
+        } catch (BulkOperationException e) {
+            writeResult = e.getResult();
+            for (BulkWriteError error : e.getErrors()) {
+                failures.put(error.getIndex(), error.getMessage());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Bulk ingest batch of {} items failed: {}", batch.size(), e.getMessage());
+            for (PendingItem item : batch) {
+                addItem(result, new BulkIngestItemResult(item.index(), Status.FAILED, null,
+                        List.of(e.getMessage())), errorsOnly);
+            }
+            batch.clear();
+            return;
+        }
+
+        Map<Integer, String> upsertedIds = new HashMap<>();
+        for (BulkWriteUpsert upsert : writeResult.getUpserts()) {
+            upsertedIds.put(upsert.getIndex(), idToString(upsert.getId()));
+        }
+        Map<String, String> existingIds = errorsOnly ? Map.of() : lookupExistingIds(batch, upsertedIds, failures);
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingItem item = batch.get(i);
+            if (failures.containsKey(i)) {
+                addItem(result, new BulkIngestItemResult(item.index(), Status.FAILED, null,
+                        List.of(failures.get(i))), errorsOnly);
+            } else if (upsertedIds.containsKey(i)) {
+                addItem(result, new BulkIngestItemResult(item.index(), Status.CREATED, upsertedIds.get(i), null), errorsOnly);
+            } else {
+                addItem(result, new BulkIngestItemResult(item.index(), Status.UPDATED,
+                        existingIds.get(keyOf(item.request())), null), errorsOnly);
+            }
+        }
+        batch.clear();
+    }
+
+    /** Một truy vấn duy nhất cho cả lô để lấy id của các bản ghi đã tồn tại (được update) */
+    private Map<String, String> lookupExistingIds(List<PendingItem> batch,
+                                                  Map<Integer, String> upsertedIds,
+                                                  Map<Integer, String> failures) {
+        List<Criteria> keys = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (!upsertedIds.containsKey(i) && !failures.containsKey(i)) {
+                CreateDatasetRequest request = batch.get(i).request();
+                keys.add(Criteria.where("source").is(request.getSource().trim())
+                        .and("dataUrl").is(request.getDataUrl().trim()));
+            }
+        }
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+
+        Query query = new Query(new Criteria().orOperator(keys));
+        query.fields().include("_id", "source", "dataUrl");
+        Map<String, String> ids = new HashMap<>();
+        for (Dataset dataset : mongoTemplate.find(query, Dataset.class)) {
+            ids.put(dataset.getSource() + '\u0000' + dataset.getDataUrl(), dataset.getId());
+        }
+        return ids;
+    }
+
+    private Query keyQuery(CreateDatasetRequest request) {
+        return new Query(Criteria.where("source").is(request.getSource().trim())
+                .and("dataUrl").is(request.getDataUrl().trim()));
+    }
+
+    /** Upsert giữ nguyên viewCount/downloadCount/createdAt của bản ghi đã có */
+    private Update toUpsert(CreateDatasetRequest request, Instant now) {
+        return new Update()
+                .set("title", request.getTitle())
+                .set("description", request.getDescription())
+                .set("source", request.getSource().trim())
+                .set("tags", request.getTags())
+                .set("category", request.getCategory())
+                .set("categoryKey", TextNormalizer.categoryKey(request.getCategory()))
+                .set("dataUrl", request.getDataUrl().trim())
+                .set("provider", request.getProvider())
+                .set("providerKey", TextNormalizer.providerKey(request.getProvider()))
+                .set("updatedAt", now)
+                .setOnInsert("createdAt", now)
+                .setOnInsert("viewCount", 0L)
+                .setOnInsert("downloadCount", 0L);
+    }
+
+    private List<String> validate(CreateDatasetRequest request) {
+        if (request == null) {
+            return List.of("Bản ghi rỗng");
+        }
+        Set<ConstraintViolation<CreateDatasetRequest>> violations = validator.validate(request);
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<CreateDatasetRequest> violation : violations) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    private void addItem(BulkIngestResultDto result, BulkIngestItemResult item, boolean errorsOnly) {
+        switch (item.getStatus()) {
+            case CREATED -> result.setCreated(result.getCreated() + 1);
+            case UPDATED -> result.setUpdated(result.getUpdated() + 1);
+            case INVALID -> result.setInvalid(result.getInvalid() + 1);
+            case FAILED -> result.setFailed(result.getFailed() + 1);
+        }
+        if (!errorsOnly || item.getStatus() == Status.INVALID || item.getStatus() == Status.FAILED) {
+            result.getItems().add(item);
+        }
+    }
+
+    private static String keyOf(CreateDatasetRequest request) {
+        return request.getSource().trim() + '\u0000' + request.getDataUrl().trim();
+    }
+
+    private static String idToString(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        if (id.isString()) {
+            return id.asString().getValue();
+        }
+        return id.toString();
+    }
+
+    private record PendingItem(int index, CreateDatasetRequest request) {
+    }
+}
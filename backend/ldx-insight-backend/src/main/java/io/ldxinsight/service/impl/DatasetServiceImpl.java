@@ -16,33 +16,53 @@
 
 package io.ldxinsight.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.ldxinsight.dto.*;
 import io.ldxinsight.exception.ResourceNotFoundException;
 import io.ldxinsight.mapper.DatasetMapper;
 import io.ldxinsight.model.Dataset;
 import io.ldxinsight.repository.DatasetRepository;
+import io.ldxinsight.service.CategoryRegistry;
+import io.ldxinsight.service.ColumnarCache;
+import io.ldxinsight.service.DatasetAnalyticsService;
 import io.ldxinsight.service.DatasetService;
+import io.ldxinsight.service.StatsWindow;
+import io.ldxinsight.service.TrendingTracker;
+import io.ldxinsight.service.UniqueViewerTracker;
+import io.ldxinsight.util.TextNormalizer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.text.Normalizer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -52,6 +72,13 @@ public class DatasetServiceImpl implements DatasetService {
     private final DatasetRepository datasetRepository;
     private final DatasetMapper datasetMapper;
     private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final CategoryRegistry categoryRegistry;
+    private final DatasetAnalyticsService datasetAnalyticsService;
+    private final TrendingTracker trendingTracker;
+    private final UniqueViewerTracker uniqueViewerTracker;
+    /** Lấy khi cần: ColumnarCache phụ thuộc DatasetService (nguồn dữ liệu) */
+    private final ObjectProvider<ColumnarCache> columnarCache;
 
     /**
      * Thư mục chứa dữ liệu cục bộ.
@@ -63,6 +90,24 @@ public class DatasetServiceImpl implements DatasetService {
     @Value("${ldx.data.dir:${LDX_DATA_DIR:/mnt/data}}")
     private String localDataDir;
 
+    /** Số document mỗi lần cursor lấy về khi export */
+    @Value("${ldx.export.cursor-batch-size:1000}")
+    private int exportCursorBatchSize;
+
+    /** Số id tối đa cho một lần batch-get */
+    @Value("${ldx.datasets.batch-get.max-ids:100}")
+    private int batchGetMaxIds;
+
+    /** Số id tối đa trong bộ nhớ đệm các dataset đã xác nhận tồn tại (đầy thì xoá hết) */
+    @Value("${ldx.datasets.known-ids.max-size:50000}")
+    private int knownIdsMaxSize;
+
+    /**
+     * Id dataset đã xác nhận tồn tại, để ghi nhận lượt xem/tải không phải hỏi Mongo mỗi lần.
+     * Chỉ nhớ id có thật: id ngẫu nhiên không làm tăng bộ nhớ này.
+     */
+    private final Set<String> knownIds = ConcurrentHashMap.newKeySet();
+
     @Override
     public Page<DatasetDto> searchDatasets(String keyword, String category, Pageable pageable) {
         Page<Dataset> page;
@@ -70,7 +115,7 @@ public class DatasetServiceImpl implements DatasetService {
             page = datasetRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
                     keyword, keyword, pageable);
         } else if (StringUtils.hasText(category)) {
-            page = datasetRepository.findByCategoryIgnoreCase(category, pageable);
+            page = datasetRepository.findByCategoryKey(TextNormalizer.categoryKey(category), pageable);
         } else {
             page = datasetRepository.findAll(pageable);
         }
@@ -83,50 +128,102 @@ public class DatasetServiceImpl implements DatasetService {
         return datasetMapper.toDto(dataset);
     }
 
+    @Override
+    public DatasetBatchDto getDatasetsByIds(List<String> ids) {
+        Set<String> requested = new LinkedHashSet<>();
+        if (ids != null) {
+            for (String id : ids) {
+                if (StringUtils.hasText(id)) {
+                    requested.add(id.trim());
+                }
+            }
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("At least one dataset id is required");
+        }
+        if (requested.size() > batchGetMaxIds) {
+            throw new IllegalArgumentException(
+                    "Too many ids: " + requested.size() + " (max " + batchGetMaxIds + ")");
+        }
+
+        // Một truy vấn $in duy nhất cho cả lô
+        Map<String, Dataset> found = new HashMap<>();
+        for (Dataset dataset : datasetRepository.findAllById(requested)) {
+            found.put(dataset.getId(), dataset);
+        }
+
+        List<DatasetDto> datasets = new ArrayList<>(found.size());
+        List<String> missingIds = new ArrayList<>();
+        for (String id : requested) {
+            Dataset dataset = found.get(id);
+            if (dataset != null) {
+                datasets.add(datasetMapper.toDto(dataset));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new DatasetBatchDto(datasets, missingIds);
+    }
+
     @Override
     public DatasetDto createDataset(CreateDatasetRequest request) {
         Dataset dataset = datasetMapper.toEntity(request);
         dataset = datasetRepository.save(dataset);
+        categoryRegistry.onCreated(dataset.getCategory());
         return datasetMapper.toDto(dataset);
     }
 
     @Override
     public DatasetDto updateDataset(String id, CreateDatasetRequest request) {
         Dataset dataset = findDatasetById(id);
+        String oldCategory = dataset.getCategory();
         datasetMapper.updateFromRequest(request, dataset);
         dataset = datasetRepository.save(dataset);
+        categoryRegistry.onUpdated(oldCategory, dataset.getCategory());
         return datasetMapper.toDto(dataset);
     }
 
     @Override
     public void deleteDataset(String id) {
-        if (!datasetRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Dataset not found with id: " + id);
-        }
+        Dataset dataset = findDatasetById(id);
         datasetRepository.deleteById(id);
+        categoryRegistry.onDeleted(dataset.getCategory());
+        trendingTracker.remove(id);
+        columnarCache.ifAvailable(cache -> cache.remove(id));
+        knownIds.remove(id);
     }
 
     @Override
-    public void incrementViewCount(String id) {
-        Query query = new Query(Criteria.where("_id").is(id));
-        Update update = new Update().inc("viewCount", 1);
-        mongoTemplate.updateFirst(query, update, Dataset.class);
+    public void incrementViewCount(String id, String viewerKey) {
+        // Id không tồn tại không được tạo bucket thống kê, điểm trending hay sketch người xem
+        requireExists(id);
+        // Ghi vào bộ đệm, DatasetAnalyticsService ghi xuống Mongo theo lô (cả viewCount lẫn bucket giờ)
+        datasetAnalyticsService.record(id, DatasetAnalyticsService.CounterType.VIEW);
+        trendingTracker.record(id, DatasetAnalyticsService.CounterType.VIEW);
+        if (StringUtils.hasText(viewerKey)) {
+            uniqueViewerTracker.record(id, viewerKey);
+        }
     }
 
     @Override
     public String getDownloadUrlAndIncrement(String id) {
-        Query query = new Query(Criteria.where("_id").is(id));
-        Update update = new Update().inc("downloadCount", 1);
-
-        Dataset dataset = mongoTemplate.findAndModify(query, update, Dataset.class);
-        if (dataset == null) {
-            throw new ResourceNotFoundException("Dataset not found with id: " + id);
-        }
+        requireExists(id);
+        datasetAnalyticsService.record(id, DatasetAnalyticsService.CounterType.DOWNLOAD);
+        trendingTracker.record(id, DatasetAnalyticsService.CounterType.DOWNLOAD);
 
         // Nếu không có dataUrl, controller sẽ fallback đọc file local qua getDataUrl(id)
         return "/api/v1/datasets/" + id + "/download.json";
     }
 
+    @Override
+    public StatSummaryDto getStatsSummary(StatsWindow window) {
+        if (window.isAll()) {
+            return getStatsSummary();
+        }
+        long[] totals = datasetAnalyticsService.totals(window);
+        return new StatSummaryDto(datasetRepository.count(), totals[0], totals[1]);
+    }
+
     @Override
     public StatSummaryDto getStatsSummary() {
         long totalDatasets = datasetRepository.count();
@@ -156,37 +253,19 @@ public class DatasetServiceImpl implements DatasetService {
 
     @Override
     public List<String> getAllCategories() {
-        return mongoTemplate.query(Dataset.class)
-                .distinct("category")
-                .as(String.class)
-                .all();
+        return categoryRegistry.getCategories();
     }
 
     @Override
     public Page<DatasetDto> getDatasetsByCategory(String category, Pageable pageable) {
-        Page<Dataset> page = datasetRepository.findByCategoryIgnoreCase(category, pageable);
+        Page<Dataset> page = datasetRepository.findByCategoryKey(TextNormalizer.categoryKey(category), pageable);
         return page.map(datasetMapper::toDto);
     }
 
     @Override
     public List<CategoryStatisDTO> getCategoryStats() {
-        // Sử dụng MongoDB aggregation để group by category và count
-        // Lọc bỏ các document có category null hoặc empty
-        Aggregation aggregation = Aggregation.newAggregation(
-                Aggregation.match(Criteria.where("category").ne(null).ne("")),
-                Aggregation.group("category")
-                        .count().as("count"),
-                Aggregation.project("count")
-                        .and("_id").as("category"),
-                Aggregation.sort(Sort.Direction.DESC, "count")
-        );
-
-        List<CategoryStatisDTO> results = mongoTemplate
-                .aggregate(aggregation, "datasets", CategoryStatisDTO.class)
-                .getMappedResults();
-
-        log.info("Category stats: {} categories found", results.size());
-        return results;
+        // Đọc từ CategoryRegistry (bộ nhớ), registry tự đối soát với Mongo định kỳ
+        return categoryRegistry.getCategoryStats();
     }
 
     @Override
@@ -203,6 +282,49 @@ public class DatasetServiceImpl implements DatasetService {
         return topDownloadedPage.map(datasetMapper::toDto).getContent();
     }
 
+    @Override
+    public List<DatasetDto> getTopViewedDatasets(int limit, StatsWindow window) {
+        if (window.isAll()) {
+            return getTopViewedDatasets(limit);
+        }
+        return findInOrder(datasetAnalyticsService.topDatasetIds(window, DatasetAnalyticsService.CounterType.VIEW, limit));
+    }
+
+    @Override
+    public List<DatasetDto> getTopDownloadedDatasets(int limit, StatsWindow window) {
+        if (window.isAll()) {
+            return getTopDownloadedDatasets(limit);
+        }
+        return findInOrder(datasetAnalyticsService.topDatasetIds(window, DatasetAnalyticsService.CounterType.DOWNLOAD, limit));
+    }
+
+    @Override
+    public DatasetViewStatsDto getViewStats(String id, StatsWindow window) {
+        Dataset dataset = findDatasetById(id);
+        if (window.isAll()) {
+            // Sketch chỉ giữ 400 ngày như bucket ngày, nên "all" là người xem phân biệt trong thời gian lưu
+            long uniqueViews = uniqueViewerTracker.estimate(id, Instant.now().minus(400, ChronoUnit.DAYS));
+            return new DatasetViewStatsDto(id, window.toString(), dataset.getViewCount(), uniqueViews);
+        }
+        if (window.unit() == ChronoUnit.HOURS) {
+            throw new IllegalArgumentException("Unique views are tracked per day: use a day or month window");
+        }
+        long views = datasetAnalyticsService.totals(window, id)[0];
+        long uniqueViews = uniqueViewerTracker.estimate(id, window.start(Instant.now()));
+        return new DatasetViewStatsDto(id, window.toString(), views, uniqueViews);
+    }
+
+    @Override
+    public List<TrendingDatasetDto> getTrendingDatasets(int limit) {
+        // Đọc từ heap top-K trong bộ nhớ, chỉ truy vấn Mongo để lấy thông tin dataset
+        Map<String, Double> top = trendingTracker.top(Math.min(limit, trendingTracker.getCapacity()));
+        List<TrendingDatasetDto> result = new ArrayList<>(top.size());
+        for (DatasetDto dataset : findInOrder(new ArrayList<>(top.keySet()))) {
+            result.add(new TrendingDatasetDto(dataset, top.get(dataset.getId())));
+        }
+        return result;
+    }
+
     /**
      * Lấy dataUrl, nếu thiếu thì fallback tìm file JSON cục bộ theo quy ước:
      *  - {localDataDir}/{id}.json
@@ -238,7 +360,7 @@ public class DatasetServiceImpl implements DatasetService {
         // Sau đó theo slug(title)
         String title = dataset.getTitle();
         if (StringUtils.hasText(title)) {
-            String slug = slugify(title);
+            String slug = TextNormalizer.slugify(title);
             Path byTitle = Paths.get(baseDir, slug + ".json");
             Path absoluteByTitle = byTitle.toAbsolutePath();
             log.debug("Checking file by title slug for dataset {}: {} (absolute: {})", id, byTitle, absoluteByTitle);
@@ -256,21 +378,77 @@ public class DatasetServiceImpl implements DatasetService {
                         "Dataset ID: %s, Searched directory: %s (absolute: %s), " +
                         "Tried files: %s.json, %s.json",
                         id, baseDir, Paths.get(baseDir).toAbsolutePath(), 
-                        id, StringUtils.hasText(title) ? slugify(title) : "N/A"));
+                        id, StringUtils.hasText(title) ? TextNormalizer.slugify(title) : "N/A"));
+    }
+
+    @Override
+    public void exportDatasets(String category, String provider, Instant updatedSince, OutputStream out) throws IOException {
+        Query query = new Query();
+        if (StringUtils.hasText(category)) {
+            query.addCriteria(Criteria.where("categoryKey").is(TextNormalizer.categoryKey(category)));
+        }
+        if (StringUtils.hasText(provider)) {
+            query.addCriteria(Criteria.where("providerKey").is(TextNormalizer.providerKey(provider)));
+        }
+        if (updatedSince != null) {
+            query.addCriteria(Criteria.where("updatedAt").gte(updatedSince));
+        }
+        // Không sort: export toàn bộ thì quét tự nhiên là nhanh nhất, còn khi có bộ lọc
+        // thì planner tự chọn index của bộ lọc (sort theo _id sẽ ép quét cả index _id)
+        query.cursorBatchSize(exportCursorBatchSize);
+
+        // Không flush sau mỗi record: để buffer của generator/response quyết định kích thước gói ghi
+        ObjectWriter writer = objectMapper.writerFor(DatasetDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        long count = 0;
+        try (Stream<Dataset> stream = mongoTemplate.stream(query, Dataset.class);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<Dataset> it = stream.iterator();
+            while (it.hasNext()) {
+                writer.writeValue(generator, datasetMapper.toDto(it.next()));
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        log.debug("Exported {} datasets as NDJSON", count);
     }
 
     /* ====================== Helpers ====================== */
 
+    /** Lấy dataset theo danh sách id, giữ thứ tự của danh sách (bỏ qua id đã bị xóa) */
+    private List<DatasetDto> findInOrder(List<String> ids) {
+        Map<String, Dataset> byId = new HashMap<>();
+        for (Dataset dataset : datasetRepository.findAllById(ids)) {
+            byId.put(dataset.getId(), dataset);
+        }
+        List<DatasetDto> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Dataset dataset = byId.get(id);
+            if (dataset != null) {
+                result.add(datasetMapper.toDto(dataset));
+            }
+        }
+        return result;
+    }
+
+    /** Ném ResourceNotFoundException nếu dataset không tồn tại; id đã gặp được nhớ để khỏi hỏi lại Mongo */
+    private void requireExists(String id) {
+        if (knownIds.contains(id)) {
+            return;
+        }
+        if (!mongoTemplate.exists(new Query(Criteria.where("_id").is(id)), Dataset.class)) {
+            throw new ResourceNotFoundException("Dataset not found with id: " + id);
+        }
+        if (knownIds.size() >= knownIdsMaxSize) {
+            knownIds.clear();
+        }
+        knownIds.add(id);
+    }
+
     private Dataset findDatasetById(String id) {
         return datasetRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Dataset not found with id: " + id));
     }
-
-    /** Tạo slug từ tiêu đề: bỏ dấu, bỏ ký tự lạ, thay khoảng trắng bằng '-' */
-    private String slugify(String input) {
-        String noAccent = Normalizer.normalize(input, Normalizer.Form.NFD)
-                .replaceAll("\\p{M}", "");
-        String safe = noAccent.replaceAll("[^\\w\\d\\-\\s]", "");
-        return safe.trim().replaceAll("\\s+", "-").toLowerCase();
-    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Semaphore có trọng số theo byte: tổng số byte đang được giữ không vượt quá capacity.
+ * Dùng Semaphore công bằng (FIFO) với đơn vị KiB và chỉ gọi bản tryAcquire có timeout (kể cả lần thử không chờ),
+ * nên một yêu cầu không vượt được các yêu cầu đến trước đang chờ: yêu cầu lớn ở đầu hàng được cấp khi đủ byte
+ * trả về, đổi lại các yêu cầu sau nó phải chờ (tối đa tới timeout của chúng) dù phần còn trống đủ cho chúng.
+ * Yêu cầu lớn hơn capacity không bao giờ được cấp nên bị từ chối ngay.
+ */
+public final class ByteBudget {
+
+    private static final int UNIT = 1024;
+
+    private final Semaphore permits;
+    private final int capacityUnits;
+    private final AtomicLong waitingBytes = new AtomicLong();
+
+    public ByteBudget(long capacityBytes) {
+        if (capacityBytes < UNIT) {
+            throw new IllegalArgumentException("Byte budget needs a capacity of at least " + UNIT + " bytes");
+        }
+        this.capacityUnits = (int) Math.min(Integer.MAX_VALUE, capacityBytes / UNIT);
+        this.permits = new Semaphore(capacityUnits, true);
+    }
+
+    /**
+     * Giữ {@code bytes} byte, chờ tối đa {@code timeout} theo thứ tự đến.
+     *
+     * @return permit (đóng để trả lại), hoặc null nếu hết thời gian chờ / thread bị ngắt
+     * @throws IllegalArgumentException khi {@code bytes} lớn hơn capacity
+     */
+    public Permit tryAcquire(long bytes, Duration timeout) {
+        int units = toUnits(bytes);
+        if (units > capacityUnits) {
+            throw new IllegalArgumentException("Requested " + bytes + " bytes exceeds the budget capacity of "
+                    + getCapacity() + " bytes");
+        }
+        try {
+            // tryAcquire(int) không chờ nhưng chen lên trước hàng đợi kể cả với Semaphore công bằng; bản có timeout thì không
+            if (permits.tryAcquire(units, 0, TimeUnit.NANOSECONDS)) {
+                return new Permit(units);
+            }
+            waitingBytes.addAndGet((long) units * UNIT);
+            try {
+                return permits.tryAcquire(units, timeout.toNanos(), TimeUnit.NANOSECONDS) ? new Permit(units) : null;
+            } finally {
+                waitingBytes.addAndGet(-(long) units * UNIT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    public long getCapacity() {
+        return (long) capacityUnits * UNIT;
+    }
+
+    /** Số byte đang được giữ */
+    public long getUsed() {
+        return (long) (capacityUnits - permits.availablePermits()) * UNIT;
+    }
+
+    /** Tổng số byte các yêu cầu đang xếp hàng chờ */
+    public long getWaiting() {
+        return waitingBytes.get();
+    }
+
+    private static int toUnits(long bytes) {
+        long units = (Math.max(1, bytes) + UNIT - 1) / UNIT;
+        return (int) Math.min(units, Integer.MAX_VALUE);
+    }
+
+    /** Phần ngân sách đã giữ; trả lại khi đóng (đóng nhiều lần không sao) */
+    public final class Permit implements AutoCloseable {
+
+        private int units;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Permit(int units) {
+            this.units = units;
+        }
+
+        /** Trả lại phần vượt quá {@code bytes} khi đã biết lượng bộ nhớ thực sự dùng ít hơn ước tính */
+        public synchronized void shrinkTo(long bytes) {
+            int keep = bytes <= 0 ? 0 : toUnits(bytes);
+            if (keep < units && !closed.get()) {
+                permits.release(units - keep);
+                units = keep;
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed.compareAndSet(false, true) && units > 0) {
+                permits.release(units);
+            }
+        }
+    }
+}
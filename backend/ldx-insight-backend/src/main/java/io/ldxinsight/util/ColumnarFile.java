@@ -0,0 +1,749 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Định dạng cache dạng cột trên đĩa cho record của dataset.
+ * <p>
+ * Record được chia thành chunk (mặc định 8192 dòng); trong mỗi chunk, mỗi cột được lưu liền nhau và nén deflate,
+ * với kiểu được chọn theo dữ liệu của chính chunk đó: LONG, DOUBLE, NUMBER (số nguyên lẫn số thực, mỗi giá trị
+ * kèm một byte loại để {@code 1} vẫn đọc lại là {@code 1}, không thành {@code 1.0}), BOOLEAN, STRING, DICTIONARY
+ * (chuỗi lặp lại nhiều: từ điển + chỉ số), JSON (giá trị lồng nhau/lẫn kiểu, lưu dạng text).
+ * Dòng không có giá trị được đánh dấu bằng bitmap; dòng có giá trị {@code null} tường minh được đánh dấu
+ * thêm bằng bitmap thứ hai. Cột không có mặt ở mọi dòng của một chunk không được lưu.
+ * Footer giữ vị trí và thống kê (số null, min/max) của từng cột trong từng chunk để bỏ qua chunk khi lọc.
+ * <pre>
+ * [magic][version] [column chunk]* [footer] [footer offset][magic]
+ * </pre>
+ * Reader map file vào bộ nhớ và chỉ giải nén các cột/chunk được yêu cầu. Record đọc lại có cùng giá trị
+ * (kể cả kiểu số và field null) với record đã ghi; thứ tự field theo thứ tự cột của file.
+ */
+public final class ColumnarFile {
+
+    public static final String EXTENSION = ".ldxc";
+
+    private static final int MAGIC = 0x4C445843; // "LDXC"
+    private static final int VERSION = 2;
+    /** Chuỗi dài hơn không được ghi làm min/max (footer dùng writeUTF) */
+    private static final int MAX_STAT_LENGTH = 64;
+    private static final int MAX_COLUMNS = 1024;
+
+    private ColumnarFile() {
+    }
+
+    /** Kiểu mã hoá của một cột trong một chunk */
+    public enum Encoding { LONG, DOUBLE, BOOLEAN, STRING, DICTIONARY, JSON, NUMBER }
+
+    /**
+     * Metadata của một cột trong một chunk.
+     * nullCount đếm cả dòng không có field lẫn dòng có giá trị null; explicitNulls cho biết chunk có
+     * giá trị null tường minh (bitmap thứ hai).
+     * minNumber/maxNumber có với cột số, minString/maxString với cột chuỗi (nếu giá trị đủ ngắn).
+     */
+    public record ColumnChunk(Encoding encoding, int nullCount, boolean explicitNulls, long offset, int length, int rawLength,
+                              BigDecimal minNumber, BigDecimal maxNumber, String minString, String maxString) {
+
+        public boolean isNumeric() {
+            return encoding == Encoding.LONG || encoding == Encoding.DOUBLE || encoding == Encoding.NUMBER;
+        }
+
+        public boolean isText() {
+            return encoding == Encoding.STRING || encoding == Encoding.DICTIONARY;
+        }
+    }
+
+    /* ====================== Writer ====================== */
+
+    /** Ghi record theo thứ tự vào file cột. Không thread-safe. */
+    public static final class Writer implements Closeable {
+
+        private final DataOutputStream out;
+        private final int chunkRows;
+        private final long maxBytes;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+        private final List<String> columns = new ArrayList<>();
+        private final Map<String, Integer> columnIndex = new HashMap<>();
+        /** Giá trị của chunk đang gom, theo cột */
+        private final List<JsonNode[]> buffer = new ArrayList<>();
+        private int buffered;
+
+        private final List<Integer> chunkRowCounts = new ArrayList<>();
+        private final List<Map<Integer, ColumnChunk>> chunks = new ArrayList<>();
+        private long position;
+        private long rowCount;
+
+        /**
+         * @param chunkRows số dòng mỗi chunk
+         * @param maxBytes  kích thước file tối đa; vượt quá thì ném IllegalStateException
+         */
+        public Writer(Path path, int chunkRows, long maxBytes) throws IOException {
+            if (maxBytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Columnar files are memory mapped and limited to 2 GB");
+            }
+            this.chunkRows = chunkRows;
+            this.maxBytes = maxBytes;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            position = 8;
+        }
+
+        public void add(ObjectNode record) throws IOException {
+            var fields = record.fields();
+            while (fields.hasNext()) {
+                var field = fields.next();
+                Integer index = columnIndex.get(field.getKey());
+                if (index == null) {
+                    if (columns.size() >= MAX_COLUMNS) {
+                        throw new IllegalStateException("Too many columns for columnar cache (max " + MAX_COLUMNS + ")");
+                    }
+                    if (field.getKey().length() > 8192) {
+                        throw new IllegalStateException("Column name too long for columnar cache");
+                    }
+                    index = columns.size();
+                    columns.add(field.getKey());
+                    columnIndex.put(field.getKey(), index);
+                    buffer.add(new JsonNode[chunkRows]);
+                }
+                buffer.get(index)[buffered] = field.getValue();
+            }
+            rowCount++;
+            if (++buffered == chunkRows) {
+                flushChunk();
+            }
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        /** Ghi chunk còn lại và footer */
+        public void finish() throws IOException {
+            if (buffered > 0) {
+                flushChunk();
+            }
+            long footerOffset = position;
+            out.writeInt(columns.size());
+            for (String column : columns) {
+                out.writeUTF(column);
+            }
+            out.writeInt(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                out.writeInt(chunkRowCounts.get(i));
+                Map<Integer, ColumnChunk> stored = chunks.get(i);
+                out.writeInt(stored.size());
+                for (Map.Entry<Integer, ColumnChunk> entry : stored.entrySet()) {
+                    ColumnChunk chunk = entry.getValue();
+                    out.writeInt(entry.getKey());
+                    out.writeByte(chunk.encoding().ordinal());
+                    out.writeInt(chunk.nullCount());
+                    out.writeLong(chunk.offset());
+                    out.writeInt(chunk.length());
+                    out.writeInt(chunk.rawLength());
+                    int flags = (chunk.minNumber() != null ? 1 : 0) | (chunk.minString() != null ? 2 : 0)
+                            | (chunk.explicitNulls() ? 4 : 0);
+                    out.writeByte(flags);
+                    if (chunk.minNumber() != null) {
+                        out.writeUTF(chunk.minNumber().toString());
+                        out.writeUTF(chunk.maxNumber().toString());
+                    }
+                    if (chunk.minString() != null) {
+                        out.writeUTF(chunk.minString());
+                        out.writeUTF(chunk.maxString());
+                    }
+                }
+            }
+            out.writeLong(footerOffset);
+            out.writeInt(MAGIC);
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            out.close();
+        }
+
+        private void flushChunk() throws IOException {
+            Map<Integer, ColumnChunk> stored = new LinkedHashMap<>();
+            for (int column = 0; column < buffer.size(); column++) {
+                JsonNode[] values = buffer.get(column);
+                ColumnChunk chunk = writeColumn(values, buffered);
+                if (chunk != null) {
+                    stored.put(column, chunk);
+                }
+                Arrays.fill(values, 0, buffered, null);
+            }
+            chunks.add(stored);
+            chunkRowCounts.add(buffered);
+            buffered = 0;
+        }
+
+        private ColumnChunk writeColumn(JsonNode[] values, int rows) throws IOException {
+            int nulls = 0;
+            // Dòng có giá trị null tường minh (khác với dòng không có field), null khi không có
+            byte[] nullBitmap = null;
+            boolean longs = true;
+            boolean doubles = true;
+            boolean booleans = true;
+            boolean texts = true;
+            for (int i = 0; i < rows; i++) {
+                JsonNode value = values[i];
+                if (value == null || value.isNull() || value.isMissingNode()) {
+                    if (value != null && value.isNull()) {
+                        if (nullBitmap == null) {
+                            nullBitmap = new byte[(rows + 7) >>> 3];
+                        }
+                        nullBitmap[i >>> 3] |= (byte) (1 << (i & 7));
+                    }
+                    values[i] = null;
+                    nulls++;
+                    continue;
+                }
+                boolean isLong = value.isIntegralNumber() && value.canConvertToLong();
+                longs &= isLong;
+                doubles &= isDouble(value);
+                booleans &= value.isBoolean();
+                texts &= value.isTextual();
+            }
+            if (nulls == rows && nullBitmap == null) {
+                return null;
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream raw = new DataOutputStream(bytes);
+            if (nulls > 0) {
+                byte[] bitmap = new byte[(rows + 7) >>> 3];
+                for (int i = 0; i < rows; i++) {
+                    if (values[i] != null) {
+                        bitmap[i >>> 3] |= (byte) (1 << (i & 7));
+                    }
+                }
+                raw.write(bitmap);
+            }
+            if (nullBitmap != null) {
+                raw.write(nullBitmap);
+            }
+
+            Encoding encoding;
+            BigDecimal minNumber = null;
+            BigDecimal maxNumber = null;
+            String minString = null;
+            String maxString = null;
+            if (nulls == rows) {
+                // Chỉ có null tường minh: không có giá trị nào để ghi
+                encoding = Encoding.JSON;
+            } else if (longs) {
+                encoding = Encoding.LONG;
+                long min = Long.MAX_VALUE;
+                long max = Long.MIN_VALUE;
+                for (int i = 0; i < rows; i++) {
+                    if (values[i] != null) {
+                        long v = values[i].longValue();
+                        raw.writeLong(v);
+                        min = Math.min(min, v);
+                        max = Math.max(max, v);
+                    }
+                }
+                minNumber = BigDecimal.valueOf(min);
+                maxNumber = BigDecimal.valueOf(max);
+            } else if (doubles) {
+                encoding = Encoding.DOUBLE;
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int i = 0; i < rows; i++) {
+                    if (values[i] != null) {
+                        double v = values[i].doubleValue();
+                        raw.writeDouble(v);
+                        min = Math.min(min, v);
+                        max = Math.max(max, v);
+                    }
+                }
+                if (Double.isFinite(min) && Double.isFinite(max)) {
+                    minNumber = BigDecimal.valueOf(min);
+                    maxNumber = BigDecimal.valueOf(max);
+                }
+            } else if (isNumbers(values, rows)) {
+                // Số nguyên lẫn số thực: giữ nguyên loại của từng giá trị
+                encoding = Encoding.NUMBER;
+                boolean finite = true;
+                for (int i = 0; i < rows; i++) {
+                    if (values[i] == null) {
+                        continue;
+                    }
+                    BigDecimal v;
+                    if (values[i].isIntegralNumber()) {
+                        raw.writeByte(0);
+                        raw.writeLong(values[i].longValue());
+                        v = BigDecimal.valueOf(values[i].longValue());
+                    } else {
+                        double d = values[i].doubleValue();
+                        raw.writeByte(1);
+                        raw.writeDouble(d);
+                        if (!Double.isFinite(d)) {
+                            finite = false;
+                            continue;
+                        }
+                        v = BigDecimal.valueOf(d);
+                    }
+                    if (minNumber == null || v.compareTo(minNumber) < 0) {
+                        minNumber = v;
+                    }
+                    if (maxNumber == null || v.compareTo(maxNumber) > 0) {
+                        maxNumber = v;
+                    }
+                }
+                if (!finite) {
+                    minNumber = null;
+                    maxNumber = null;
+                }
+            } else if (booleans) {
+                encoding = Encoding.BOOLEAN;
+                for (int i = 0; i < rows; i++) {
+                    if (values[i] != null) {
+                        raw.writeByte(values[i].booleanValue() ? 1 : 0);
+                    }
+                }
+            } else if (texts) {
+                Map<String, Integer> dictionary = new LinkedHashMap<>();
+                String min = null;
+                String max = null;
+                for (int i = 0; i < rows; i++) {
+                    if (values[i] != null) {
+                        String text = values[i].textValue();
+                        dictionary.putIfAbsent(text, dictionary.size());
+                        if (min == null || text.compareTo(min) < 0) {
+                            min = text;
+                        }
+                        if (max == null || text.compareTo(max) > 0) {
+                            max = text;
+                        }
+                    }
+                }
+                int nonNull = rows - nulls;
+                if (dictionary.size() <= nonNull / 2 && dictionary.size() <= 0xFFFF) {
+                    encoding = Encoding.DICTIONARY;
+                    raw.writeInt(dictionary.size());
+                    for (String text : dictionary.keySet()) {
+                        writeString(raw, text);
+                    }
+                    boolean wide = dictionary.size() > 0xFF;
+                    for (int i = 0; i < rows; i++) {
+                        if (values[i] != null) {
+                            int code = dictionary.get(values[i].textValue());
+                            if (wide) {
+                                raw.writeShort(code);
+                            } else {
+                                raw.writeByte(code);
+                            }
+                        }
+                    }
+                } else {
+                    encoding = Encoding.STRING;
+                    for (int i = 0; i < rows; i++) {
+                        if (values[i] != null) {
+                            writeString(raw, values[i].textValue());
+                        }
+                    }
+                }
+                if (min.length() <= MAX_STAT_LENGTH && max.length() <= MAX_STAT_LENGTH) {
+                    minString = min;
+                    maxString = max;
+                }
+            } else {
+                encoding = Encoding.JSON;
+                for (int i = 0; i < rows; i++) {
+                    if (values[i] != null) {
+                        writeString(raw, values[i].toString());
+                    }
+                }
+            }
+            raw.flush();
+
+            byte[] compressed = compress(bytes.toByteArray());
+            long offset = position;
+            if (position + compressed.length > maxBytes) {
+                throw new IllegalStateException("Columnar file exceeds " + maxBytes + " bytes");
+            }
+            out.write(compressed);
+            position += compressed.length;
+            return new ColumnChunk(encoding, nulls, nullBitmap != null, offset, compressed.length, bytes.size(),
+                    minNumber, maxNumber, minString, maxString);
+        }
+
+        private byte[] compress(byte[] input) {
+            deflater.reset();
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, input.length / 4));
+            byte[] block = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(block);
+                compressed.write(block, 0, n);
+            }
+            return compressed.toByteArray();
+        }
+
+        private static void writeString(DataOutputStream raw, String text) throws IOException {
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            raw.writeInt(utf8.length);
+            raw.write(utf8);
+        }
+
+        private static boolean isDouble(JsonNode value) {
+            return value.isDouble() || value.isFloat() || (value.isBigDecimal() && exactDouble(value.decimalValue()));
+        }
+
+        /** Mọi giá trị khác null là số nguyên vừa long hoặc số thực biểu diễn đúng bằng double */
+        private static boolean isNumbers(JsonNode[] values, int rows) {
+            for (int i = 0; i < rows; i++) {
+                JsonNode value = values[i];
+                if (value != null && !(value.isIntegralNumber() && value.canConvertToLong()) && !isDouble(value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean exactDouble(BigDecimal value) {
+            double d = value.doubleValue();
+            return Double.isFinite(d) && BigDecimal.valueOf(d).compareTo(value) == 0;
+        }
+    }
+
+    /* ====================== Reader ====================== */
+
+    /** File cột đã map vào bộ nhớ. Thread-safe: mỗi lần đọc dùng bản duplicate của buffer. */
+    public static final class Reader {
+
+        private final MappedByteBuffer buffer;
+        private final ObjectMapper mapper;
+        private final List<String> columns;
+        private final Map<String, Integer> columnIndex;
+        private final int[] chunkRows;
+        /** [chunk][column], null khi cột toàn null trong chunk */
+        private final ColumnChunk[][] chunks;
+        private final long rowCount;
+        private final long fileSize;
+
+        private Reader(MappedByteBuffer buffer, ObjectMapper mapper, List<String> columns,
+                       int[] chunkRows, ColumnChunk[][] chunks, long fileSize) {
+            this.buffer = buffer;
+            this.mapper = mapper;
+            this.columns = Collections.unmodifiableList(columns);
+            this.columnIndex = new HashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                columnIndex.put(columns.get(i), i);
+            }
+            this.chunkRows = chunkRows;
+            this.chunks = chunks;
+            this.rowCount = Arrays.stream(chunkRows).asLongStream().sum();
+            this.fileSize = fileSize;
+        }
+
+        public static Reader open(Path path, ObjectMapper mapper) throws IOException {
+            MappedByteBuffer buffer;
+            long size;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                size = channel.size();
+                if (size < 20 || size > Integer.MAX_VALUE) {
+                    throw new IOException("Not a columnar file: " + path);
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            if (buffer.getInt(0) != MAGIC || buffer.getInt((int) size - 4) != MAGIC) {
+                throw new IOException("Not a columnar file: " + path);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported columnar file version " + buffer.getInt(4) + ": " + path);
+            }
+            long footerOffset = buffer.getLong((int) size - 12);
+            if (footerOffset < 8 || footerOffset > size - 12) {
+                throw new IOException("Corrupt columnar footer: " + path);
+            }
+            byte[] footer = new byte[(int) (size - 12 - footerOffset)];
+            buffer.get((int) footerOffset, footer);
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(footer));
+            int columnCount = in.readInt();
+            List<String> columns = new ArrayList<>(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                columns.add(in.readUTF());
+            }
+            int chunkCount = in.readInt();
+            int[] chunkRows = new int[chunkCount];
+            ColumnChunk[][] chunks = new ColumnChunk[chunkCount][columnCount];
+            Encoding[] encodings = Encoding.values();
+            for (int c = 0; c < chunkCount; c++) {
+                chunkRows[c] = in.readInt();
+                int stored = in.readInt();
+                for (int s = 0; s < stored; s++) {
+                    int column = in.readInt();
+                    Encoding encoding = encodings[in.readUnsignedByte()];
+                    int nullCount = in.readInt();
+                    long offset = in.readLong();
+                    int length = in.readInt();
+                    int rawLength = in.readInt();
+                    int flags = in.readUnsignedByte();
+                    boolean explicitNulls = (flags & 4) != 0;
+                    BigDecimal minNumber = null;
+                    BigDecimal maxNumber = null;
+                    String minString = null;
+                    String maxString = null;
+                    if ((flags & 1) != 0) {
+                        minNumber = new BigDecimal(in.readUTF());
+                        maxNumber = new BigDecimal(in.readUTF());
+                    }
+                    if ((flags & 2) != 0) {
+                        minString = in.readUTF();
+                        maxString = in.readUTF();
+                    }
+                    chunks[c][column] = new ColumnChunk(encoding, nullCount, explicitNulls, offset, length, rawLength,
+                            minNumber, maxNumber, minString, maxString);
+                }
+            }
+            return new Reader(buffer, mapper, columns, chunkRows, chunks, size);
+        }
+
+        /** Các cột theo thứ tự xuất hiện đầu tiên trong dữ liệu */
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public int getChunkCount() {
+            return chunkRows.length;
+        }
+
+        public long getFileSize() {
+            return fileSize;
+        }
+
+        public int getChunkRows(int chunk) {
+            return chunkRows[chunk];
+        }
+
+        /** Metadata của cột trong chunk; null khi không dòng nào của chunk có field này */
+        public ColumnChunk getChunk(int chunk, String column) {
+            Integer index = columnIndex.get(column);
+            return index == null ? null : chunks[chunk][index];
+        }
+
+        /**
+         * Cursor đọc record theo thứ tự.
+         *
+         * @param fields      chỉ giải nén các cột này (null: mọi cột)
+         * @param chunkFilter chunk bị loại (false) được bỏ qua mà không giải nén; null: đọc mọi chunk
+         */
+        public RecordCursor cursor(Collection<String> fields, IntPredicate chunkFilter) {
+            int[] selected;
+            if (fields == null) {
+                selected = new int[columns.size()];
+                Arrays.setAll(selected, i -> i);
+            } else {
+                selected = fields.stream().map(columnIndex::get).filter(i -> i != null)
+                        .distinct().sorted().mapToInt(Integer::intValue).toArray();
+            }
+            return new RecordCursor() {
+                private int chunk = -1;
+                private JsonNode[][] values;
+                private int row;
+                private long count;
+
+                @Override
+                public ObjectNode next() throws IOException {
+                    while (values == null || row == chunkRows[chunk]) {
+                        if (++chunk >= chunkRows.length) {
+                            chunk = chunkRows.length;
+                            return null;
+                        }
+                        if (chunkFilter != null && !chunkFilter.test(chunk)) {
+                            values = null;
+                            continue;
+                        }
+                        values = new JsonNode[selected.length][];
+                        for (int i = 0; i < selected.length; i++) {
+                            values[i] = readColumn(chunk, selected[i]);
+                        }
+                        row = 0;
+                    }
+                    ObjectNode record = JsonNodeFactory.instance.objectNode();
+                    for (int i = 0; i < selected.length; i++) {
+                        JsonNode value = values[i][row];
+                        if (value != null) {
+                            record.set(columns.get(selected[i]), value);
+                        }
+                    }
+                    row++;
+                    count++;
+                    return record;
+                }
+
+                @Override
+                public long getCount() {
+                    return count;
+                }
+
+                @Override
+                public void close() {
+                    values = null;
+                }
+            };
+        }
+
+        /**
+         * Giá trị của một cột trong một chunk theo dòng: null tại dòng không có field,
+         * NullNode tại dòng có giá trị null tường minh
+         */
+        public JsonNode[] readColumn(int chunk, String column) throws IOException {
+            Integer index = columnIndex.get(column);
+            return index == null ? new JsonNode[chunkRows[chunk]] : readColumn(chunk, index);
+        }
+
+        /** Giải nén một cột của một chunk; phần tử null tại dòng không có field, NullNode tại dòng có giá trị null */
+        private JsonNode[] readColumn(int chunk, int column) throws IOException {
+            int rows = chunkRows[chunk];
+            JsonNode[] values = new JsonNode[rows];
+            ColumnChunk meta = chunks[chunk][column];
+            if (meta == null) {
+                return values;
+            }
+            ByteBuffer in = ByteBuffer.wrap(inflate(meta));
+            byte[] bitmap = null;
+            if (meta.nullCount() > 0) {
+                bitmap = new byte[(rows + 7) >>> 3];
+                in.get(bitmap);
+            }
+            byte[] nullBitmap = null;
+            if (meta.explicitNulls()) {
+                nullBitmap = new byte[(rows + 7) >>> 3];
+                in.get(nullBitmap);
+            }
+            TextNode[] dictionary = null;
+            boolean wide = false;
+            if (meta.encoding() == Encoding.DICTIONARY) {
+                dictionary = new TextNode[in.getInt()];
+                for (int i = 0; i < dictionary.length; i++) {
+                    dictionary[i] = TextNode.valueOf(readString(in));
+                }
+                wide = dictionary.length > 0xFF;
+            }
+            for (int i = 0; i < rows; i++) {
+                if (bitmap != null && (bitmap[i >>> 3] & (1 << (i & 7))) == 0) {
+                    if (nullBitmap != null && (nullBitmap[i >>> 3] & (1 << (i & 7))) != 0) {
+                        values[i] = NullNode.getInstance();
+                    }
+                    continue;
+                }
+                values[i] = switch (meta.encoding()) {
+                    case LONG -> {
+                        long v = in.getLong();
+                        yield v == (int) v ? IntNode.valueOf((int) v) : LongNode.valueOf(v);
+                    }
+                    case DOUBLE -> DoubleNode.valueOf(in.getDouble());
+                    case BOOLEAN -> BooleanNode.valueOf(in.get() != 0);
+                    case STRING -> TextNode.valueOf(readString(in));
+                    case DICTIONARY -> dictionary[wide ? Short.toUnsignedInt(in.getShort()) : Byte.toUnsignedInt(in.get())];
+                    case JSON -> mapper.readTree(readString(in));
+                    case NUMBER -> {
+                        if (in.get() == 0) {
+                            long v = in.getLong();
+                            yield v == (int) v ? IntNode.valueOf((int) v) : LongNode.valueOf(v);
+                        }
+                        yield DoubleNode.valueOf(in.getDouble());
+                    }
+                };
+            }
+            return values;
+        }
+
+        private byte[] inflate(ColumnChunk meta) throws IOException {
+            ByteBuffer source = buffer.slice((int) meta.offset(), meta.length());
+            byte[] raw = new byte[meta.rawLength()];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(source);
+                int read = 0;
+                while (read < raw.length && !inflater.finished()) {
+                    int n = inflater.inflate(raw, read, raw.length - read);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    read += n;
+                }
+                if (read != raw.length) {
+                    throw new IOException("Corrupt columnar chunk at offset " + meta.offset());
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt columnar chunk at offset " + meta.offset(), e);
+            } finally {
+                inflater.end();
+            }
+            return raw;
+        }
+
+        private static String readString(ByteBuffer in) {
+            int length = in.getInt();
+            String text = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return text;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import io.ldxinsight.exception.UpstreamContentTooLargeException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/** Đếm số byte đã đọc qua stream, có thể kèm giới hạn số byte tối đa */
+public final class CountingInputStream extends FilterInputStream {
+
+    private final long limit;
+    private long count;
+
+    public CountingInputStream(InputStream in) {
+        this(in, Long.MAX_VALUE);
+    }
+
+    /** Đọc quá {@code limit} byte thì ném UpstreamContentTooLargeException */
+    public CountingInputStream(InputStream in, long limit) {
+        super(in);
+        this.limit = limit;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            advance(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            advance(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        advance(skipped);
+        return skipped;
+    }
+
+    private void advance(long n) {
+        count += n;
+        if (count > limit) {
+            throw new UpstreamContentTooLargeException(limit);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * CSV (RFC 4180): ô chứa ký tự phân tách, xuống dòng hoặc dấu nháy kép được bọc trong nháy kép.
+ * Tuỳ chọn delimiter (vd: ';' cho Excel theo locale Việt Nam/châu Âu) và bom=true để Excel nhận đúng UTF-8.
+ */
+@Component
+public class CsvRecordEncoder extends DelimitedRecordEncoder {
+
+    @Override
+    public String getFormat() {
+        return "csv";
+    }
+
+    @Override
+    public String getContentType() {
+        return "text/csv; charset=utf-8";
+    }
+
+    @Override
+    public String getExtension() {
+        return ".csv";
+    }
+
+    @Override
+    protected char defaultDelimiter() {
+        return ',';
+    }
+
+    @Override
+    protected void writeCell(Writer writer, String value, char delimiter) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == delimiter || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Cơ sở cho các định dạng bảng phân tách bằng ký tự (CSV, TSV): dòng header là danh sách cột,
+ * mỗi record một dòng theo thứ tự cột, ô trống khi record không có cột đó.
+ * Giá trị lồng nhau (object/array) được ghi dạng JSON.
+ */
+public abstract class DelimitedRecordEncoder implements RecordEncoder {
+
+    private static final char BOM = '\uFEFF';
+
+    /** Ký tự phân tách mặc định của định dạng */
+    protected abstract char defaultDelimiter();
+
+    /** Có ghi BOM UTF-8 mặc định hay không */
+    protected boolean defaultBom() {
+        return false;
+    }
+
+    /** Ghi một ô đã chuyển thành chuỗi, xử lý ký tự đặc biệt theo định dạng */
+    protected abstract void writeCell(Writer writer, String value, char delimiter) throws IOException;
+
+    @Override
+    public boolean isTabular() {
+        return true;
+    }
+
+    @Override
+    public Sink open(OutputStream out, List<String> columns, Options options) throws IOException {
+        char delimiter = options.delimiter() != null ? options.delimiter() : defaultDelimiter();
+        if (delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Invalid delimiter: " + delimiter);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 14);
+        if (options.bom() != null ? options.bom() : defaultBom()) {
+            writer.write(BOM);
+        }
+        String[] header = columns.toArray(new String[0]);
+        writeRow(writer, header, delimiter);
+        return new Sink() {
+            private final String[] row = new String[header.length];
+
+            @Override
+            public void write(ObjectNode record) throws IOException {
+                for (int i = 0; i < header.length; i++) {
+                    row[i] = text(record.get(header[i]));
+                }
+                writeRow(writer, row, delimiter);
+            }
+
+            @Override
+            public void finish() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    private void writeRow(Writer writer, String[] values, char delimiter) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(delimiter);
+            }
+            writeCell(writer, values[i], delimiter);
+        }
+        writer.write('\n');
+    }
+
+    private static String text(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return "";
+        }
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Tổng hợp theo nhóm (group by) trên record của dataset: count, sum, avg, min, max.
+ * <p>
+ * Trên file cột, mỗi chunk là một phần việc trên ForkJoinPool: chỉ các cột nhóm/metric được giải nén,
+ * kết quả từng chunk được gộp lại theo cây fork/join. Bảng nhóm ({@link Groups}) là hash map
+ * địa chỉ mở trên mảng nguyên thủy (long/double), không tạo object cho từng dòng.
+ * Giá trị metric là số JSON hoặc chuỗi biểu diễn số; giá trị khác bị bỏ qua (trừ count:col).
+ */
+public final class GroupAggregator {
+
+    public enum Function { COUNT, SUM, AVG, MIN, MAX }
+
+    /** count (số dòng của nhóm), count:col (số giá trị khác null), sum|avg|min|max:col */
+    public record Metric(Function function, String column) {
+
+        public static Metric parse(String expression) {
+            String[] parts = expression.trim().split(":", 2);
+            Function function;
+            try {
+                function = Function.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown aggregate function '" + parts[0]
+                        + "', expected count, sum, avg, min or max");
+            }
+            String column = parts.length > 1 && !parts[1].isBlank() ? parts[1].trim() : null;
+            if (column == null && function != Function.COUNT) {
+                throw new IllegalArgumentException("Aggregate '" + expression + "' needs a column, e.g. sum:gia_tri");
+            }
+            return new Metric(function, column);
+        }
+
+        @Override
+        public String toString() {
+            String name = function.name().toLowerCase(Locale.ROOT);
+            return column == null ? name : name + ":" + column;
+        }
+    }
+
+    private final String groupBy;
+    private final List<Metric> metrics;
+    private final int maxGroups;
+    /** Các cột metric khác nhau; metricColumn[m] là chỉ số trong columns, -1 với count */
+    private final String[] columns;
+    private final int[] metricColumn;
+
+    /**
+     * @param groupBy   cột nhóm, null: cả dataset là một nhóm
+     * @param maxGroups số nhóm tối đa, vượt quá thì ném IllegalArgumentException
+     */
+    public GroupAggregator(String groupBy, List<Metric> metrics, int maxGroups) {
+        this.groupBy = groupBy;
+        this.metrics = List.copyOf(metrics);
+        this.maxGroups = maxGroups;
+        Map<String, Integer> index = new LinkedHashMap<>();
+        metricColumn = new int[metrics.size()];
+        for (int m = 0; m < metrics.size(); m++) {
+            String column = metrics.get(m).column();
+            metricColumn[m] = column == null ? -1 : index.computeIfAbsent(column, c -> index.size());
+        }
+        columns = index.keySet().toArray(new String[0]);
+    }
+
+    public List<Metric> getMetrics() {
+        return metrics;
+    }
+
+    /** Tổng hợp song song trên các chunk của file cột */
+    public Groups aggregate(ColumnarFile.Reader reader, ForkJoinPool pool) throws IOException {
+        if (reader.getChunkCount() == 0) {
+            return new Groups();
+        }
+        try {
+            return pool.invoke(new ChunkTask(reader, 0, reader.getChunkCount()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Tổng hợp tuần tự trên các record của cursor (nội dung JSON chưa có cache dạng cột) */
+    public Groups aggregate(RecordCursor cursor) throws IOException {
+        Groups groups = new Groups();
+        double[] values = new double[columns.length];
+        boolean[] present = new boolean[columns.length];
+        ObjectNode record;
+        while ((record = cursor.next()) != null) {
+            for (int c = 0; c < columns.length; c++) {
+                JsonNode node = record.get(columns[c]);
+                present[c] = node != null && !node.isNull();
+                values[c] = present[c] ? number(node) : Double.NaN;
+            }
+            groups.accept(groupBy == null ? null : record.get(groupBy), values, present);
+        }
+        return groups;
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private Groups aggregateChunk(ColumnarFile.Reader reader, int chunk) throws IOException {
+        Groups groups = new Groups();
+        int rows = reader.getChunkRows(chunk);
+        JsonNode[] keys = groupBy == null ? null : reader.readColumn(chunk, groupBy);
+        JsonNode[][] data = new JsonNode[columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            data[c] = reader.readColumn(chunk, columns[c]);
+        }
+        double[] values = new double[columns.length];
+        boolean[] present = new boolean[columns.length];
+        for (int row = 0; row < rows; row++) {
+            for (int c = 0; c < columns.length; c++) {
+                JsonNode node = data[c][row];
+                present[c] = node != null && !node.isNull();
+                values[c] = present[c] ? number(node) : Double.NaN;
+            }
+            groups.accept(keys == null ? null : keys[row], values, present);
+        }
+        return groups;
+    }
+
+    private static double number(JsonNode node) {
+        if (node.isNumber()) {
+            return node.doubleValue();
+        }
+        if (node.isTextual()) {
+            String text = node.textValue().trim();
+            if (!text.isEmpty() && (Character.isDigit(text.charAt(0)) || text.charAt(0) == '-')) {
+                try {
+                    return Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    return Double.NaN;
+                }
+            }
+        }
+        return Double.NaN;
+    }
+
+    private final class ChunkTask extends RecursiveTask<Groups> {
+
+        private final ColumnarFile.Reader reader;
+        private final int from;
+        private final int to;
+
+        ChunkTask(ColumnarFile.Reader reader, int from, int to) {
+            this.reader = reader;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Groups compute() {
+            if (to - from == 1) {
+                try {
+                    return aggregateChunk(reader, from);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(reader, from, mid);
+            left.fork();
+            Groups right = new ChunkTask(reader, mid, to).compute();
+            Groups merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+    }
+
+    /**
+     * Bảng nhóm: khoá nhóm -> số thứ tự nhóm (địa chỉ mở, dò tuyến tính), bộ tích luỹ của nhóm g, metric m
+     * nằm ở vị trí g * metrics + m trong các mảng nguyên thủy.
+     */
+    public final class Groups {
+
+        private final int width = metrics.size();
+        private int size;
+        /** số thứ tự nhóm + 1, 0 là ô trống */
+        private int[] slots = new int[64];
+        private String[] keys = new String[16];
+        private JsonNode[] keyNodes = new JsonNode[16];
+        private long[] rows = new long[16];
+        private long[] counts = new long[16 * width];
+        private double[] sums = new double[16 * width];
+        private double[] mins = new double[16 * width];
+        private double[] maxs = new double[16 * width];
+        /** Nhóm của các dòng có giá trị nhóm null, -1 khi chưa có */
+        private int nullGroup = -1;
+        private long scanned;
+
+        public int size() {
+            return size;
+        }
+
+        /** Số dòng đã tổng hợp */
+        public long getScanned() {
+            return scanned;
+        }
+
+        /** Giá trị nhóm (giá trị đầu tiên gặp của nhóm), null với nhóm các dòng không có giá trị */
+        public JsonNode key(int group) {
+            return keyNodes[group];
+        }
+
+        public long rows(int group) {
+            return rows[group];
+        }
+
+        /** Giá trị metric m của nhóm, null khi nhóm không có giá trị số nào cho metric đó */
+        public Double value(int group, int metric) {
+            int i = group * width + metric;
+            Metric spec = metrics.get(metric);
+            if (spec.function() == Function.COUNT) {
+                return (double) (spec.column() == null ? rows[group] : counts[i]);
+            }
+            if (counts[i] == 0) {
+                return null;
+            }
+            return switch (spec.function()) {
+                case SUM -> sums[i];
+                case AVG -> sums[i] / counts[i];
+                case MIN -> mins[i];
+                case MAX -> maxs[i];
+                default -> null;
+            };
+        }
+
+        void accept(JsonNode keyNode, double[] values, boolean[] present) {
+            int group = ordinal(keyNode);
+            scanned++;
+            rows[group]++;
+            int base = group * width;
+            for (int m = 0; m < width; m++) {
+                int c = metricColumn[m];
+                if (c < 0) {
+                    continue;
+                }
+                Function function = metrics.get(m).function();
+                if (function == Function.COUNT) {
+                    if (present[c]) {
+                        counts[base + m]++;
+                    }
+                    continue;
+                }
+                double v = values[c];
+                if (Double.isNaN(v)) {
+                    continue;
+                }
+                int i = base + m;
+                if (counts[i]++ == 0) {
+                    mins[i] = v;
+                    maxs[i] = v;
+                } else {
+                    if (v < mins[i]) {
+                        mins[i] = v;
+                    }
+                    if (v > maxs[i]) {
+                        maxs[i] = v;
+                    }
+                }
+                sums[i] += v;
+            }
+        }
+
+        void merge(Groups other) {
+            scanned += other.scanned;
+            for (int g = 0; g < other.size; g++) {
+                int group = ordinal(other.keyNodes[g], other.keys[g]);
+                rows[group] += other.rows[g];
+                for (int m = 0; m < width; m++) {
+                    int i = group * width + m;
+                    int j = g * width + m;
+                    if (other.counts[j] == 0) {
+                        continue;
+                    }
+                    if (counts[i] == 0) {
+                        mins[i] = other.mins[j];
+                        maxs[i] = other.maxs[j];
+                    } else {
+                        mins[i] = Math.min(mins[i], other.mins[j]);
+                        maxs[i] = Math.max(maxs[i], other.maxs[j]);
+                    }
+                    counts[i] += other.counts[j];
+                    sums[i] += other.sums[j];
+                }
+            }
+        }
+
+        private int ordinal(JsonNode node) {
+            if (node == null || node.isNull()) {
+                return ordinal(null, null);
+            }
+            return ordinal(node, keyOf(node));
+        }
+
+        /** Khoá nhóm kèm loại JSON: số 1 và chuỗi "1" (hay true và "true") là hai nhóm khác nhau */
+        private static String keyOf(JsonNode node) {
+            if (node.isTextual()) {
+                return "s" + node.textValue();
+            }
+            if (node.isNumber()) {
+                return "n" + node.asText();
+            }
+            if (node.isBoolean()) {
+                return "b" + node.asText();
+            }
+            return "j" + node;
+        }
+
+        private int ordinal(JsonNode node, String key) {
+            if (key == null) {
+                if (nullGroup < 0) {
+                    nullGroup = add(null, null);
+                }
+                return nullGroup;
+            }
+            int mask = slots.length - 1;
+            int slot = spread(key.hashCode()) & mask;
+            while (true) {
+                int entry = slots[slot];
+                if (entry == 0) {
+                    int group = add(node, key);
+                    slots[slot] = group + 1;
+                    if (size * 2 > slots.length) {
+                        rehash();
+                    }
+                    return group;
+                }
+                if (key.equals(keys[entry - 1])) {
+                    return entry - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private int add(JsonNode node, String key) {
+            if (size == maxGroups) {
+                throw new IllegalArgumentException("Too many groups for '" + groupBy + "' (more than " + maxGroups + ")");
+            }
+            if (size == keys.length) {
+                int capacity = keys.length * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                keyNodes = Arrays.copyOf(keyNodes, capacity);
+                rows = Arrays.copyOf(rows, capacity);
+                counts = Arrays.copyOf(counts, capacity * width);
+                sums = Arrays.copyOf(sums, capacity * width);
+                mins = Arrays.copyOf(mins, capacity * width);
+                maxs = Arrays.copyOf(maxs, capacity * width);
+            }
+            keys[size] = key;
+            keyNodes[size] = node;
+            return size++;
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int g = 0; g < size; g++) {
+                if (keys[g] == null) {
+                    continue;
+                }
+                int slot = spread(keys[g].hashCode()) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = g + 1;
+            }
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
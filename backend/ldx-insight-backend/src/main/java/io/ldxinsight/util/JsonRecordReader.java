@@ -0,0 +1,228 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * Đọc tuần tự các record (object) trong nội dung JSON của dataset, không dựng cả cây JSON trong bộ nhớ.
+ * Vị trí mảng record được dò theo thứ tự:
+ * <ul>
+ *     <li>Mảng ở gốc: mỗi phần tử là một record (giá trị đơn được bọc thành {"value": ...}).</li>
+ *     <li>Object ở gốc: mảng object đầu tiên gặp được, tìm cả trong object lồng nhau
+ *     (vd: {"result": {"records": [...]}} của CKAN, {"data": [...]}); bỏ qua các mảng mô tả
+ *     schema/liên kết như "fields", "columns".</li>
+ *     <li>Không có mảng object nào: cả object gốc là một record duy nhất; object/mảng lồng nhau được giữ nguyên
+ *     thành giá trị của field (định dạng bảng ghi chúng dạng JSON).</li>
+ * </ul>
+ * Khi đọc record có thể chỉ định tập field cần lấy; các field khác bị bỏ qua ở mức parser (skipChildren).
+ */
+public final class JsonRecordReader implements Closeable {
+
+    /** Độ sâu object tối đa khi dò mảng record */
+    private static final int MAX_SEARCH_DEPTH = 4;
+    /** Mảng mô tả schema/liên kết thường đứng trước mảng record (vd: CKAN result.fields), không phải dữ liệu */
+    private static final Set<String> NON_RECORD_ARRAYS = Set.of("fields", "columns", "schema", "links", "_links");
+
+    private final JsonParser parser;
+    private final ObjectMapper mapper;
+    /** Record duy nhất khi nội dung không có mảng record */
+    private ObjectNode single;
+    /** Token đầu của phần tử kế tiếp đã được đọc trước (hasNext) */
+    private JsonToken lookahead;
+    private boolean finished;
+    private long count;
+
+    private JsonRecordReader(JsonParser parser, ObjectMapper mapper) {
+        this.parser = parser;
+        this.mapper = mapper;
+    }
+
+    /** Mở reader trên {@code in}; reader đóng luôn stream khi đóng */
+    public static JsonRecordReader open(InputStream in, ObjectMapper mapper) throws IOException {
+        JsonFactory factory = mapper.getFactory();
+        JsonRecordReader reader = new JsonRecordReader(factory.createParser(in), mapper);
+        reader.locateRecords();
+        return reader;
+    }
+
+    /** Còn record để đọc hay không (đọc trước một token) */
+    public boolean hasNext() throws IOException {
+        if (finished) {
+            return false;
+        }
+        if (single != null) {
+            return true;
+        }
+        if (lookahead == null) {
+            lookahead = parser.nextToken();
+            if (lookahead == null || lookahead == JsonToken.END_ARRAY) {
+                finished = true;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Record kế tiếp với mọi field, null khi hết */
+    public ObjectNode next() throws IOException {
+        return next(null);
+    }
+
+    /**
+     * Record kế tiếp, null khi hết.
+     *
+     * @param fields chỉ đọc các field này (null: mọi field); field khác không được dựng thành node
+     */
+    public ObjectNode next(Set<String> fields) throws IOException {
+        if (!hasNext()) {
+            return null;
+        }
+        count++;
+        if (single != null) {
+            ObjectNode record = single;
+            single = null;
+            finished = true;
+            return project(record, fields);
+        }
+        JsonToken token = lookahead;
+        lookahead = null;
+        ObjectNode record = JsonNodeFactory.instance.objectNode();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                if (fields != null && !fields.contains(name)) {
+                    parser.skipChildren();
+                } else {
+                    record.set(name, mapper.readTree(parser));
+                }
+            }
+        } else {
+            JsonNode value = mapper.readTree(parser);
+            if (fields == null || fields.contains("value")) {
+                record.set("value", value);
+            }
+        }
+        return record;
+    }
+
+    /** Cursor trên các record còn lại, chỉ đọc các field {@code fields} (null: mọi field) */
+    public RecordCursor cursor(Set<String> fields) {
+        return new RecordCursor() {
+            @Override
+            public ObjectNode next() throws IOException {
+                return JsonRecordReader.this.next(fields);
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+
+            @Override
+            public void close() throws IOException {
+                JsonRecordReader.this.close();
+            }
+        };
+    }
+
+    /** Số record đã đọc */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private void locateRecords() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            return;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Content is not a JSON object or array");
+        }
+        ObjectNode rootFields = JsonNodeFactory.instance.objectNode();
+        if (findArrayInObject(1, rootFields)) {
+            return;
+        }
+        // Không có mảng record: cả object gốc là một record
+        single = rootFields;
+    }
+
+    /**
+     * Duyệt object hiện tại tìm mảng object đầu tiên. Khi tìm thấy, parser dừng ngay trước phần tử đầu tiên
+     * (phần tử đó được giữ trong lookahead). Các giá trị đã duyệt qua được dựng vào {@code target}
+     * để dùng làm record duy nhất khi không tìm thấy mảng nào.
+     */
+    private boolean findArrayInObject(int depth, ObjectNode target) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_ARRAY && !NON_RECORD_ARRAYS.contains(name)) {
+                JsonToken first = parser.nextToken();
+                if (first == JsonToken.START_OBJECT) {
+                    lookahead = first;
+                    return true;
+                }
+                readRestOfArray(first, target.putArray(name));
+            } else if (value == JsonToken.START_OBJECT && depth < MAX_SEARCH_DEPTH) {
+                if (findArrayInObject(depth + 1, target.putObject(name))) {
+                    return true;
+                }
+            } else {
+                target.set(name, mapper.readTree(parser));
+            }
+        }
+        return false;
+    }
+
+    /** Đọc phần còn lại của mảng vào {@code array}, {@code current} là token phần tử đầu tiên đã đọc */
+    private void readRestOfArray(JsonToken current, ArrayNode array) throws IOException {
+        JsonToken token = current;
+        while (token != null && token != JsonToken.END_ARRAY) {
+            JsonNode item = mapper.readTree(parser);
+            array.add(item);
+            token = parser.nextToken();
+        }
+    }
+
+    private static ObjectNode project(ObjectNode record, Set<String> fields) {
+        if (fields == null) {
+            return record;
+        }
+        record.retain(fields);
+        return record;
+    }
+}
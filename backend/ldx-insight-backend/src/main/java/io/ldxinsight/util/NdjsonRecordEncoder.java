@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * NDJSON: mỗi record một dòng JSON.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonRecordEncoder implements RecordEncoder {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String getFormat() {
+        return "ndjson";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/x-ndjson";
+    }
+
+    @Override
+    public String getExtension() {
+        return ".ndjson";
+    }
+
+    @Override
+    public Sink open(OutputStream out, List<String> columns, Options options) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Mặc định generator chèn một khoảng trắng giữa các giá trị gốc; dòng NDJSON chỉ phân tách bằng '\n'
+        generator.setRootValueSeparator(null);
+        return new Sink() {
+            @Override
+            public void write(ObjectNode record) throws IOException {
+                objectMapper.writeTree(generator, record);
+                generator.writeRaw('\n');
+            }
+
+            @Override
+            public void finish() throws IOException {
+                generator.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Nguồn record đọc tuần tự, dùng chung cho nội dung JSON gốc (JsonRecordReader)
+ * và bản cache dạng cột (ColumnarFile).
+ */
+public interface RecordCursor extends Closeable {
+
+    /** Record kế tiếp, null khi hết */
+    ObjectNode next() throws IOException;
+
+    /** Số record đã đọc */
+    long getCount();
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Định dạng đầu ra cho xuất nội dung dataset theo record (stream, bộ nhớ không phụ thuộc số record).
+ * Mỗi định dạng là một bean; định dạng mới chỉ cần thêm một bean cài đặt interface này.
+ */
+public interface RecordEncoder {
+
+    /** Tên định dạng trong tham số format, vd: csv */
+    String getFormat();
+
+    /** Content-Type của response, vd: text/csv; charset=utf-8 */
+    String getContentType();
+
+    /** Phần mở rộng tên file tải về, vd: .csv */
+    String getExtension();
+
+    /** true: định dạng bảng, cần danh sách cột trước record đầu tiên */
+    default boolean isTabular() {
+        return false;
+    }
+
+    /**
+     * Bắt đầu ghi ra {@code out}.
+     *
+     * @param columns danh sách cột (chỉ có với định dạng bảng, null với định dạng khác)
+     */
+    Sink open(OutputStream out, List<String> columns, Options options) throws IOException;
+
+    /** Tuỳ chọn theo request; null nghĩa là dùng mặc định của định dạng */
+    record Options(Character delimiter, Boolean bom) {
+
+        public static final Options DEFAULT = new Options(null, null);
+    }
+
+    /** Nơi nhận record đã mở; finish ghi phần kết thúc và flush (không đóng {@code out}) */
+    interface Sink {
+
+        void write(ObjectNode record) throws IOException;
+
+        void finish() throws IOException;
+    }
+}
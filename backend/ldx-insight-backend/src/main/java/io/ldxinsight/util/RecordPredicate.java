@@ -0,0 +1,174 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Điều kiện lọc một record theo một field, cú pháp {@code field:op[:value]}.
+ * Toán tử: eq, ne, gt, gte, lt, lte, contains (không phân biệt hoa thường), in (giá trị cách nhau bởi '|'),
+ * null, notnull. Field là số được so sánh theo giá trị số, còn lại so sánh theo chuỗi.
+ * Field không có trong record được coi là null.
+ */
+public final class RecordPredicate {
+
+    public enum Op { EQ, NE, GT, GTE, LT, LTE, CONTAINS, IN, NULL, NOTNULL }
+
+    private final String field;
+    private final Op op;
+    private final String value;
+    /** value dạng số, null nếu không phải số */
+    private final BigDecimal number;
+    private final Set<String> values;
+
+    private RecordPredicate(String field, Op op, String value) {
+        this.field = field;
+        this.op = op;
+        this.value = op == Op.CONTAINS ? value.toLowerCase(Locale.ROOT) : value;
+        this.number = value != null ? parseNumber(value) : null;
+        this.values = op == Op.IN ? new HashSet<>(Arrays.asList(value.split("\\|", -1))) : null;
+    }
+
+    /**
+     * Phân tích {@code field:op:value}; phần value có thể chứa ':'.
+     *
+     * @throws IllegalArgumentException khi cú pháp hoặc toán tử không hợp lệ
+     */
+    public static RecordPredicate parse(String expression) {
+        String[] parts = expression.split(":", 3);
+        if (parts.length < 2 || parts[0].isBlank()) {
+            throw new IllegalArgumentException("Invalid filter '" + expression + "', expected field:op:value");
+        }
+        Op op;
+        try {
+            op = Op.valueOf(parts[1].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown filter operator '" + parts[1] + "' in '" + expression + "'");
+        }
+        boolean unary = op == Op.NULL || op == Op.NOTNULL;
+        if (unary != (parts.length == 2)) {
+            throw new IllegalArgumentException(unary
+                    ? "Operator " + parts[1] + " takes no value: '" + expression + "'"
+                    : "Missing value in filter '" + expression + "'");
+        }
+        return new RecordPredicate(parts[0].trim(), op, unary ? null : parts[2]);
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public boolean test(ObjectNode record) {
+        JsonNode node = record.get(field);
+        boolean isNull = node == null || node.isNull();
+        switch (op) {
+            case NULL:
+                return isNull;
+            case NOTNULL:
+                return !isNull;
+            case NE:
+                return isNull || compare(node) != 0;
+            default:
+                break;
+        }
+        if (isNull) {
+            return false;
+        }
+        return switch (op) {
+            case EQ -> compare(node) == 0;
+            case GT -> compare(node) > 0;
+            case GTE -> compare(node) >= 0;
+            case LT -> compare(node) < 0;
+            case LTE -> compare(node) <= 0;
+            case CONTAINS -> text(node).toLowerCase(Locale.ROOT).contains(value);
+            case IN -> values.contains(text(node));
+            default -> false;
+        };
+    }
+
+    /**
+     * Một chunk của file cột có thể chứa record thỏa điều kiện hay không, chỉ dựa trên thống kê của chunk.
+     * Trả về true khi không loại trừ được.
+     *
+     * @param chunk metadata của cột {@link #getField()} trong chunk, null khi không dòng nào của chunk có cột này
+     */
+    public boolean mayMatch(ColumnarFile.ColumnChunk chunk) {
+        if (chunk == null) {
+            return op == Op.NULL || op == Op.NE;
+        }
+        if (op == Op.NULL) {
+            return chunk.nullCount() > 0;
+        }
+        // Cùng quy tắc so sánh với compare(): số với số khi value là số, còn lại theo chuỗi
+        int low;
+        int high;
+        if (number != null && chunk.isNumeric() && chunk.minNumber() != null) {
+            low = chunk.minNumber().compareTo(number);
+            high = chunk.maxNumber().compareTo(number);
+        } else if (number == null && chunk.isText() && chunk.minString() != null) {
+            low = chunk.minString().compareTo(value);
+            high = chunk.maxString().compareTo(value);
+        } else {
+            return true;
+        }
+        return switch (op) {
+            case EQ -> low <= 0 && high >= 0;
+            case GT -> high > 0;
+            case GTE -> high >= 0;
+            case LT -> low < 0;
+            case LTE -> low <= 0;
+            default -> true;
+        };
+    }
+
+    /* ====================== Helpers ====================== */
+
+    /** So sánh giá trị record với value; số với số, còn lại theo chuỗi */
+    private int compare(JsonNode node) {
+        if (number != null) {
+            BigDecimal actual = node.isNumber() ? node.decimalValue()
+                    : node.isTextual() ? parseNumber(node.asText()) : null;
+            if (actual != null) {
+                return actual.compareTo(number);
+            }
+        }
+        return text(node).compareTo(value);
+    }
+
+    private static String text(JsonNode node) {
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+
+    private static BigDecimal parseNumber(String text) {
+        String trimmed = text.trim();
+        if (trimmed.isEmpty() || !(Character.isDigit(trimmed.charAt(trimmed.length() - 1)))) {
+            return null;
+        }
+        try {
+            return new BigDecimal(trimmed);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import io.ldxinsight.exception.UpstreamContentTooLargeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Nội dung đã tải về, giữ trong bộ nhớ khi nhỏ hơn ngưỡng và chuyển sang file tạm khi vượt ngưỡng,
+ * nên một body lớn không chiếm một mảng byte liền trên heap. Đọc lại được nhiều lần qua
+ * {@link #openStream()} / {@link #openChannel()}. Đóng thì xoá file tạm.
+ */
+public final class SpooledContent implements Closeable {
+
+    private final byte[] memory;
+    private final Path file;
+    /** File tạm do SpooledContent tạo (xoá khi đóng), false với file cục bộ có sẵn */
+    private final boolean owned;
+    private final long size;
+    private volatile boolean released;
+    /** Chạy khi nội dung không còn được dùng (đóng, hoặc stream từ {@link #release()} đóng) */
+    private volatile Runnable onRelease = () -> { };
+
+    private SpooledContent(byte[] memory, Path file, boolean owned, long size) {
+        this.memory = memory;
+        this.file = file;
+        this.owned = owned;
+        this.size = size;
+    }
+
+    /**
+     * Đọc hết {@code in}: tối đa {@code threshold} byte trong bộ nhớ, phần còn lại ghi vào file tạm trong {@code directory}.
+     *
+     * @throws UpstreamContentTooLargeException khi nội dung dài hơn {@code maxBytes}
+     */
+    public static SpooledContent spool(InputStream source, int threshold, long maxBytes, Path directory) throws IOException {
+        InputStream in = new CountingInputStream(source, maxBytes);
+        byte[] buffer = new byte[Math.min(threshold, 8192)];
+        int length = 0;
+        while (true) {
+            if (length == buffer.length) {
+                if (length >= threshold) {
+                    break;
+                }
+                buffer = Arrays.copyOf(buffer, Math.min(threshold, buffer.length * 2));
+            }
+            int n = in.read(buffer, length, buffer.length - length);
+            if (n < 0) {
+                return new SpooledContent(Arrays.copyOf(buffer, length), null, false, length);
+            }
+            length += n;
+        }
+
+        // Vượt ngưỡng: chuyển phần đã đọc và phần còn lại sang file tạm
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, "upstream-", ".spool");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(buffer, 0, length);
+            long size = length + in.transferTo(out);
+            return new SpooledContent(null, file, true, size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /** File cục bộ có sẵn, đọc trực tiếp (không sao chép, không xoá khi đóng) */
+    public static SpooledContent ofFile(Path file) throws IOException {
+        return new SpooledContent(null, file, false, Files.size(file));
+    }
+
+    /** Đăng ký việc cần làm khi nội dung không còn được dùng, vd: trả lại ngân sách bộ nhớ */
+    public SpooledContent whenReleased(Runnable action) {
+        this.onRelease = action;
+        return this;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /** Nội dung có nằm trong file tạm (không phải bộ nhớ) hay không */
+    public boolean isSpilled() {
+        return owned;
+    }
+
+    /** Tối đa {@code n} byte đầu */
+    public byte[] head(int n) throws IOException {
+        if (memory != null) {
+            return Arrays.copyOf(memory, (int) Math.min(n, size));
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return in.readNBytes(n);
+        }
+    }
+
+    /** Stream mới đọc từ đầu nội dung; người gọi đóng stream */
+    public InputStream openStream() throws IOException {
+        return memory != null ? new ByteArrayInputStream(memory) : Files.newInputStream(file);
+    }
+
+    /** Channel mới đọc từ đầu nội dung; người gọi đóng channel */
+    public ReadableByteChannel openChannel() throws IOException {
+        return memory != null
+                ? Channels.newChannel(new ByteArrayInputStream(memory))
+                : FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    /**
+     * Stream đọc nội dung và nhận quyền sở hữu file tạm: file được xoá khi stream đóng (thay vì khi
+     * SpooledContent đóng). Dùng khi nội dung được trả về làm body của response, ghi sau khi controller đã return.
+     */
+    public InputStream release() throws IOException {
+        InputStream in = openStream();
+        released = true;
+        return new FilterInputStream(in) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    discard();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!released) {
+            discard();
+        }
+    }
+
+    private void discard() throws IOException {
+        try {
+            if (owned) {
+                Files.deleteIfExists(file);
+            }
+        } finally {
+            onRelease.run();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket theo khóa (vd: IP + route), không khóa: mỗi bucket là một AtomicLong chứa
+ * "thời điểm đến lý thuyết" (GCRA, tương đương token bucket với rate/burst) và được cập nhật bằng CAS.
+ * Các bucket chia theo stripe (mỗi stripe một ConcurrentHashMap có giới hạn số khóa); bucket đã đầy lại
+ * (không còn khác gì bucket mới) được coi là rảnh và bị xóa khi stripe đầy hoặc khi {@link #evictIdle()}.
+ * Khi stripe vẫn đầy, khóa mới dùng chung bucket tràn của stripe (giới hạn chặt hơn thay vì tốn thêm bộ nhớ).
+ */
+public final class StripedRateLimiter {
+
+    private static final long MIN_SWEEP_INTERVAL_NANOS = 10_000_000L;
+
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final AtomicLong[] overflow;
+    /** Lần quét bucket rảnh gần nhất của từng stripe, để stripe đầy không bị quét lại với mỗi khóa mới */
+    private final AtomicLong[] lastSweep;
+    private final int mask;
+    private final int maxKeysPerStripe;
+    /** Khoảng cách giữa hai token (nano giây) */
+    private final long emissionIntervalNanos;
+    /** Độ lệch tối đa cho phép so với hiện tại = (burst - 1) * emissionInterval */
+    private final long toleranceNanos;
+
+    /**
+     * @param permitsPerSecond tốc độ nạp token
+     * @param burst            số request tối đa liên tiếp khi bucket đầy
+     * @param stripes          số stripe (làm tròn lên lũy thừa của 2)
+     * @param maxKeys          tổng số khóa tối đa được theo dõi
+     */
+    @SuppressWarnings("unchecked")
+    public StripedRateLimiter(double permitsPerSecond, int burst, int stripes, int maxKeys) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit needs a positive rate and a burst of at least 1");
+        }
+        int count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ConcurrentHashMap[count];
+        this.overflow = new AtomicLong[count];
+        this.lastSweep = new AtomicLong[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+            this.overflow[i] = new AtomicLong(Long.MIN_VALUE);
+            this.lastSweep[i] = new AtomicLong(System.nanoTime());
+        }
+        this.mask = count - 1;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / count);
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.toleranceNanos = emissionIntervalNanos * (burst - 1L);
+    }
+
+    /**
+     * Lấy một token cho {@code key}.
+     *
+     * @return 0 nếu được phép, ngược lại số nano giây cần chờ tới khi có token
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(bucket(key), System.nanoTime());
+    }
+
+    /** Xóa các bucket đã nạp đầy lại (không còn giữ trạng thái nào) */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            evicted += evictIdle(stripe, now);
+        }
+        return evicted;
+    }
+
+    /** Số khóa đang được theo dõi */
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private AtomicLong bucket(String key) {
+        int h = key.hashCode();
+        int index = (h ^ (h >>> 16)) & mask;
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[index];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.size() >= maxKeysPerStripe && !sweep(index)) {
+            return overflow[index];
+        }
+        return stripe.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+    }
+
+    /** Quét stripe đầy tối đa một lần mỗi emissionInterval (ít nhất 10ms); true nếu giải phóng được chỗ */
+    private boolean sweep(int index) {
+        long now = System.nanoTime();
+        long last = lastSweep[index].get();
+        if (now - last < Math.max(emissionIntervalNanos, MIN_SWEEP_INTERVAL_NANOS)
+                || !lastSweep[index].compareAndSet(last, now)) {
+            return false;
+        }
+        return evictIdle(stripes[index], now) > 0;
+    }
+
+    private long tryAcquire(AtomicLong bucket, long now) {
+        while (true) {
+            long tat = bucket.get();
+            // Long.MIN_VALUE: bucket mới, coi như đầy
+            long base = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat;
+            long wait = base - toleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, base + emissionIntervalNanos)) {
+                return 0L;
+            }
+        }
+    }
+
+    private static int evictIdle(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+        int before = stripe.size();
+        stripe.values().removeIf(bucket -> {
+            long tat = bucket.get();
+            return tat == Long.MIN_VALUE || tat - now <= 0;
+        });
+        return before - stripe.size();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import java.util.Arrays;
+
+/**
+ * t-digest (biến thể merging) ước lượng phân vị với bộ nhớ cố định: số centroid tối đa ~ compression,
+ * sai số nhỏ nhất ở hai đuôi phân phối. Giá trị mới được gom vào buffer rồi trộn với các centroid
+ * theo hàm tỉ lệ k1 (arcsin) khi buffer đầy.
+ */
+public final class TDigest {
+
+    private final double compression;
+    private double[] means;
+    private double[] weights;
+    private int centroids;
+
+    private final double[] buffer;
+    private int buffered;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("t-digest compression must be at least 10: " + compression);
+        }
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression) * 2 + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.buffer = new double[(int) Math.ceil(compression) * 5];
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        buffer[buffered++] = value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (buffered == buffer.length) {
+            compress();
+        }
+    }
+
+    /** Số giá trị đã thêm */
+    public long size() {
+        return (long) (totalWeight + buffered);
+    }
+
+    /** Phân vị q (0..1), NaN nếu chưa có giá trị */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        compress();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (centroids == 1 || q == 0) {
+            return q == 1 ? max : (centroids == 1 ? means[0] : min);
+        }
+        if (q == 1) {
+            return max;
+        }
+        double index = q * totalWeight;
+        // Nửa đầu centroid đầu tiên và nửa cuối centroid cuối cùng nội suy với min/max
+        if (index < weights[0] / 2) {
+            return min + (means[0] - min) * (index / (weights[0] / 2));
+        }
+        double cumulative = weights[0] / 2;
+        for (int i = 0; i < centroids - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (cumulative + step > index) {
+                double fraction = (index - cumulative) / step;
+                return means[i] + (means[i + 1] - means[i]) * fraction;
+            }
+            cumulative += step;
+        }
+        double last = weights[centroids - 1] / 2;
+        double fraction = Math.min(1, (index - cumulative) / last);
+        return means[centroids - 1] + (max - means[centroids - 1]) * fraction;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, buffered);
+        int total = centroids + buffered;
+        double[] inMeans = new double[total];
+        double[] inWeights = new double[total];
+        // Trộn hai dãy đã sắp xếp: centroid hiện có và buffer
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < centroids || j < buffered) {
+            if (j >= buffered || (i < centroids && means[i] <= buffer[j])) {
+                inMeans[k] = means[i];
+                inWeights[k++] = weights[i++];
+            } else {
+                inMeans[k] = buffer[j++];
+                inWeights[k++] = 1;
+            }
+        }
+        totalWeight += buffered;
+        buffered = 0;
+
+        int out = 0;
+        means[0] = inMeans[0];
+        weights[0] = inWeights[0];
+        double soFar = 0;
+        double limit = totalWeight * integratedQ(1);
+        for (int n = 1; n < total; n++) {
+            double proposed = weights[out] + inWeights[n];
+            if (soFar + proposed <= limit) {
+                // Gộp vào centroid hiện tại (trung bình có trọng số)
+                weights[out] = proposed;
+                means[out] += (inMeans[n] - means[out]) * inWeights[n] / proposed;
+            } else {
+                soFar += weights[out];
+                limit = totalWeight * integratedQ(integratedK(soFar / totalWeight) + 1);
+                out++;
+                if (out == means.length) {
+                    means = Arrays.copyOf(means, means.length * 2);
+                    weights = Arrays.copyOf(weights, weights.length * 2);
+                }
+                means[out] = inMeans[n];
+                weights[out] = inWeights[n];
+            }
+        }
+        centroids = out + 1;
+    }
+
+    /** Hàm tỉ lệ k1: k(q) = compression / (2π) · asin(2q - 1) */
+    private double integratedK(double q) {
+        return compression * (Math.asin(2 * Math.min(1, q) - 1) + Math.PI / 2) / Math.PI;
+    }
+
+    private double integratedQ(double k) {
+        return (Math.sin(Math.min(k, compression) * Math.PI / compression - Math.PI / 2) + 1) / 2;
+    }
+}
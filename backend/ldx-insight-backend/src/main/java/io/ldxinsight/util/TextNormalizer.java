@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class TextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern SLUG_UNSAFE = Pattern.compile("[^\\w\\d\\-\\s]");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Khóa chuẩn hóa của category: chữ thường, bỏ dấu (kể cả "đ"), gộp khoảng trắng.
+     * Ví dụ: "  Y  Tế " và "y te" cùng cho ra "y te". Trả về null nếu category rỗng.
+     */
+    public static String categoryKey(String category) {
+        if (category == null || category.isBlank()) {
+            return null;
+        }
+        String lower = category.toLowerCase(Locale.ROOT).replace('đ', 'd');
+        String noAccent = COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(noAccent.trim()).replaceAll(" ");
+    }
+
+    /**
+     * Khóa chuẩn hóa của provider: chữ thường, bỏ khoảng trắng đầu/cuối (lọc không phân biệt hoa/thường bằng index).
+     * Trả về null nếu provider rỗng.
+     */
+    public static String providerKey(String provider) {
+        if (provider == null || provider.isBlank()) {
+            return null;
+        }
+        return provider.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Tạo slug từ tiêu đề: bỏ dấu, bỏ ký tự lạ, thay khoảng trắng bằng '-' */
+    public static String slugify(String input) {
+        String noAccent = COMBINING_MARKS.matcher(Normalizer.normalize(input, Normalizer.Form.NFD)).replaceAll("");
+        String safe = SLUG_UNSAFE.matcher(noAccent).replaceAll("");
+        return WHITESPACE.matcher(safe.trim()).replaceAll("-").toLowerCase();
+    }
+}
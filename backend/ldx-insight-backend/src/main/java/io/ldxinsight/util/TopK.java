@@ -0,0 +1,75 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Các giá trị xuất hiện nhiều nhất theo thuật toán Space-Saving với tối đa {@code capacity} bộ đếm:
+ * mọi giá trị có tần suất lớn hơn n/capacity chắc chắn nằm trong kết quả; số đếm có thể lớn hơn thực tế
+ * tối đa {@code error} của từng mục.
+ */
+public final class TopK {
+
+    public record Item(String value, long count, long error) {
+    }
+
+    private final int capacity;
+    private final Map<String, long[]> counters;
+
+    public TopK(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("TopK capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String value) {
+        long[] counter = counters.get(value);
+        if (counter != null) {
+            counter[0]++;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(value, new long[]{1, 0});
+            return;
+        }
+        // Thay bộ đếm nhỏ nhất: giá trị mới thừa hưởng số đếm đó làm sai số
+        String minKey = null;
+        long minCount = Long.MAX_VALUE;
+        for (Map.Entry<String, long[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] < minCount) {
+                minCount = entry.getValue()[0];
+                minKey = entry.getKey();
+            }
+        }
+        counters.remove(minKey);
+        counters.put(value, new long[]{minCount + 1, minCount});
+    }
+
+    /** {@code limit} mục có số đếm lớn nhất, giảm dần */
+    public List<Item> top(int limit) {
+        List<Item> items = new ArrayList<>(counters.size());
+        counters.forEach((value, counter) -> items.add(new Item(value, counter[0], counter[1])));
+        items.sort((a, b) -> a.count() != b.count() ? Long.compare(b.count(), a.count()) : a.value().compareTo(b.value()));
+        return items.size() > limit ? new ArrayList<>(items.subList(0, limit)) : items;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * TSV (text/tab-separated-values): không có quoting, ký tự tab/xuống dòng trong giá trị được thay bằng khoảng trắng.
+ */
+@Component
+public class TsvRecordEncoder extends DelimitedRecordEncoder {
+
+    @Override
+    public String getFormat() {
+        return "tsv";
+    }
+
+    @Override
+    public String getContentType() {
+        return "text/tab-separated-values; charset=utf-8";
+    }
+
+    @Override
+    public String getExtension() {
+        return ".tsv";
+    }
+
+    @Override
+    protected char defaultDelimiter() {
+        return '\t';
+    }
+
+    @Override
+    protected void writeCell(Writer writer, String value, char delimiter) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            writer.write(c == delimiter || c == '\n' || c == '\r' ? ' ' : c);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.service;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import io.ldxinsight.dto.IndexStatusDto;
+import io.ldxinsight.dto.QueryPlanDto;
+import io.ldxinsight.model.Dataset;
+import io.ldxinsight.support.EmbeddedMongo;
+import io.ldxinsight.util.TextNormalizer;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Chạy mọi dạng truy vấn của repository/service trên một catalog tổng hợp và kiểm tra:
+ * không có COLLSCAN ngoài ý muốn, số document bị đọc tương xứng với số trả về,
+ * và độ trễ nằm trong ngân sách. Chạy bằng: mvn test -Pquery-plan
+ */
+@Tag("query-plan")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.data.mongodb.database=" + QueryPlanRegressionTest.DATABASE,
+        "ldx.indexes.reconcile-on-startup=false",
+        "ldx.categories.backfill.enabled=false"
+})
+class QueryPlanRegressionTest {
+
+    static final String DATABASE = "ldx-query-plan-test";
+
+    private static final int CATALOG_SIZE = Integer.getInteger("ldx.test.catalog-size", 20_000);
+    /** Nhân ngân sách độ trễ khi chạy trên máy CI chậm */
+    private static final double LATENCY_FACTOR = Double.parseDouble(System.getProperty("ldx.test.latency-factor", "1.0"));
+    /** Số document được đọc tối đa cho mỗi document trả về (dạng truy vấn có index) */
+    private static final double MAX_EXAMINED_PER_RETURNED = 1.5;
+
+    private static final List<String> CATEGORIES = List.of(
+            "Y tế", "Giáo dục", "Giao thông", "Môi trường", "Tài chính", "Nông nghiệp", "Du lịch", "Dân số");
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> EmbeddedMongo.uri() + "/" + DATABASE);
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private IndexManager indexManager;
+    @Autowired
+    private DatasetService datasetService;
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+
+    private final List<String> datasetIds = new ArrayList<>();
+
+    @BeforeAll
+    void seedCatalog() {
+        mongoTemplate.getDb().drop();
+        indexManager.reconcile();
+
+        Random random = new Random(42);
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Dataset.class);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            // Phân bố lệch: category đầu danh sách chiếm phần lớn catalog
+            String category = CATEGORIES.get((int) Math.min(CATEGORIES.size() - 1, -Math.log(1 - random.nextDouble()) * 1.5));
+            Instant created = base.plus(random.nextInt(600 * 24), ChronoUnit.HOURS);
+            Dataset dataset = Dataset.builder()
+                    .title("Dữ liệu " + category + " số " + i)
+                    .description("Bộ dữ liệu tổng hợp phục vụ kiểm thử, mục " + i)
+                    .source(i == 0 ? "portal" : "portal-" + (i % 7))
+                    .dataUrl(i == 0 ? "https://example.org/data.json" : "https://example.org/data/" + i + ".json")
+                    .provider("Sở " + (i % 12))
+                    .providerKey(TextNormalizer.providerKey("Sở " + (i % 12)))
+                    .category(category)
+                    .categoryKey(TextNormalizer.categoryKey(category))
+                    .tags(List.of("test"))
+                    .viewCount((long) (1000 / (1 + random.nextInt(1000))))
+                    .downloadCount((long) (100 / (1 + random.nextInt(100))))
+                    .createdAt(created)
+                    .updatedAt(created)
+                    .build();
+            ops.insert(dataset);
+            if ((i + 1) % 1000 == 0) {
+                ops.execute();
+                ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Dataset.class);
+            }
+        }
+        ops.execute();
+
+        for (Dataset dataset : mongoTemplate.find(
+                new Query().limit(200), Dataset.class)) {
+            datasetIds.add(dataset.getId());
+        }
+    }
+
+    @Test
+    void declaredIndexesAreInPlaceAfterReconcile() {
+        List<IndexStatusDto> report = indexManager.reconcile();
+
+        assertThat(report)
+                .filteredOn(r -> r.getStatus() != IndexStatusDto.Status.UNMANAGED)
+                .allSatisfy(r -> assertThat(r.getStatus())
+                        .as("index %s on %s", r.getName(), r.getCollection())
+                        .isEqualTo(IndexStatusDto.Status.OK));
+    }
+
+    @Test
+    void noQueryShapeFallsBackToCollectionScan() {
+        List<QueryPlanDto> plans = indexManager.verifyQueryPlans();
+
+        assertThat(plans).isNotEmpty();
+        assertThat(plans)
+                .allSatisfy(plan -> assertThat(plan.isCollscan() && !plan.isAccepted())
+                        .as("query shape '%s' uses stages %s", plan.getName(), plan.getStages())
+                        .isFalse());
+    }
+
+    @Test
+    void indexedQueryShapesExamineOnlyWhatTheyReturn() {
+        for (IndexManager.QueryShape shape : indexManager.queryShapes()) {
+            if (shape.collscanReason() != null) {
+                continue;
+            }
+            Document stats = executionStats(shape);
+            long examined = number(stats, "totalDocsExamined");
+            long returned = number(stats, "nReturned");
+
+            assertThat((double) examined)
+                    .as("query shape '%s' examined %d documents for %d returned", shape.name(), examined, returned)
+                    .isLessThanOrEqualTo(Math.max(returned, 1) * MAX_EXAMINED_PER_RETURNED);
+        }
+    }
+
+    @Test
+    void repositoryAndAggregationCallsStayWithinLatencyBudget() {
+        PageRequest byCreatedAt = PageRequest.of(0, 10, Sort.by("createdAt"));
+        Random random = new Random(7);
+
+        assertLatency("getDatasetById", 10, () ->
+                datasetService.getDatasetById(datasetIds.get(random.nextInt(datasetIds.size()))));
+        assertLatency("getDatasetsByIds(50)", 20, () ->
+                datasetService.getDatasetsByIds(datasetIds.subList(0, 50)));
+        assertLatency("searchDatasets(category)", 20, () ->
+                datasetService.searchDatasets(null, "y tế", byCreatedAt));
+        assertLatency("searchDatasets(all)", 20, () ->
+                datasetService.searchDatasets(null, null, byCreatedAt));
+        assertLatency("searchDatasets(keyword)", 250, () ->
+                datasetService.searchDatasets("kiểm thử", null, byCreatedAt));
+        assertLatency("getTopViewedDatasets", 10, () -> datasetService.getTopViewedDatasets(5));
+        assertLatency("getTopDownloadedDatasets", 10, () -> datasetService.getTopDownloadedDatasets(5));
+        assertLatency("categoryRegistry.reconcile", 100, () -> categoryRegistry.reconcile());
+        assertLatency("getStatsSummary", 250, () -> datasetService.getStatsSummary());
+        assertLatency("exportDatasets(category)", 500, () -> {
+            try {
+                datasetService.exportDatasets("Du lịch", null, null, OutputStream.nullOutputStream());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /* ====================== Helpers ====================== */
+
+    private void assertLatency(String name, long budgetMs, Runnable operation) {
+        for (int i = 0; i < 5; i++) {
+            operation.run();
+        }
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            long started = System.nanoTime();
+            operation.run();
+            samples.add(System.nanoTime() - started);
+        }
+        Collections.sort(samples);
+        double p95Ms = samples.get((int) Math.ceil(samples.size() * 0.95) - 1) / 1_000_000.0;
+
+        assertThat(p95Ms)
+                .as("p95 latency of %s (budget %d ms x %.1f)", name, budgetMs, LATENCY_FACTOR)
+                .isLessThanOrEqualTo(budgetMs * LATENCY_FACTOR);
+    }
+
+    private Document executionStats(IndexManager.QueryShape shape) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(shape.collection());
+        Document explain;
+        if (shape.pipeline() != null) {
+            explain = collection.aggregate(shape.pipeline()).explain(ExplainVerbosity.EXECUTION_STATS);
+        } else {
+            FindIterable<Document> find = collection.find(shape.filter());
+            if (shape.sort() != null) {
+                find.sort(shape.sort());
+            }
+            if (shape.projection() != null) {
+                find.projection(shape.projection());
+            }
+            if (shape.limit() > 0) {
+                find.limit(shape.limit());
+            }
+            explain = find.explain(ExplainVerbosity.EXECUTION_STATS);
+        }
+        Document stats = findDocument(explain, "executionStats");
+        assertThat(stats).as("executionStats of '%s'", shape.name()).isNotNull();
+        return stats;
+    }
+
+    private static Document findDocument(Object node, String key) {
+        if (node instanceof Document document) {
+            if (document.get(key) instanceof Document found) {
+                return found;
+            }
+            for (Object value : document.values()) {
+                Document found = findDocument(value, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object item : list) {
+                Document found = findDocument(item, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static long number(Map<String, Object> stats, String key) {
+        Object value = stats.get(key);
+        return value instanceof Number n ? n.longValue() : 0L;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.support;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+
+/**
+ * mongod dùng chung cho các test cần Mongo thật (query plan, độ trễ).
+ * Nếu có -Dldx.test.mongo.uri (hoặc biến môi trường LDX_TEST_MONGO_URI) thì dùng mongod đó,
+ * ngược lại tự tải và khởi chạy một mongod tạm thời, dừng khi JVM test kết thúc.
+ */
+public final class EmbeddedMongo {
+
+    public static final String URI_PROPERTY = "ldx.test.mongo.uri";
+
+    private static String uri;
+
+    private EmbeddedMongo() {
+    }
+
+    /** URI kết nối (không kèm tên database) */
+    public static synchronized String uri() {
+        if (uri != null) {
+            return uri;
+        }
+        String external = System.getProperty(URI_PROPERTY, System.getenv("LDX_TEST_MONGO_URI"));
+        if (external != null && !external.isBlank()) {
+            uri = external.endsWith("/") ? external.substring(0, external.length() - 1) : external;
+            return uri;
+        }
+
+        TransitionWalker.ReachedState<RunningMongodProcess> running = Mongod.instance().start(Version.Main.V7_0);
+        ServerAddress address = running.current().getServerAddress();
+        Runtime.getRuntime().addShutdownHook(new Thread(running::close, "embedded-mongod-stop"));
+        uri = "mongodb://" + address.getHost() + ":" + address.getPort();
+        return uri;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ByteBudget: cấp theo thứ tự đến (yêu cầu nhỏ không chen lên trước yêu cầu lớn đang chờ), hết thời gian chờ
+ * thì trả null, trả lại nhiều lần không làm phình ngân sách, yêu cầu lớn hơn capacity bị từ chối.
+ */
+class ByteBudgetTest {
+
+    private static final long KIB = 1024;
+
+    @Test
+    void smallRequestDoesNotBargeAheadOfQueuedLargeOne() throws Exception {
+        ByteBudget budget = new ByteBudget(10 * KIB);
+        ByteBudget.Permit held = budget.tryAcquire(8 * KIB, Duration.ZERO);
+        assertThat(held).isNotNull();
+
+        AtomicReference<ByteBudget.Permit> large = new AtomicReference<>();
+        Thread waiter = new Thread(() -> large.set(budget.tryAcquire(5 * KIB, Duration.ofSeconds(10))));
+        waiter.start();
+        awaitParked(waiter);
+        assertThat(budget.getWaiting()).isEqualTo(5 * KIB);
+
+        // Còn trống 2 KiB nhưng yêu cầu lớn đang đứng đầu hàng đợi
+        assertThat(budget.tryAcquire(KIB, Duration.ZERO)).isNull();
+
+        held.close();
+        waiter.join(TimeUnit.SECONDS.toMillis(5));
+        ByteBudget.Permit granted = large.get();
+        assertThat(granted).isNotNull();
+        assertThat(budget.getUsed()).isEqualTo(5 * KIB);
+        assertThat(budget.getWaiting()).isZero();
+        // Hàng đợi đã trống: yêu cầu nhỏ được cấp ngay
+        try (ByteBudget.Permit small = budget.tryAcquire(KIB, Duration.ZERO)) {
+            assertThat(small).isNotNull();
+        }
+        granted.close();
+    }
+
+    @Test
+    void returnsNullWhenTimeoutExpires() {
+        ByteBudget budget = new ByteBudget(4 * KIB);
+        try (ByteBudget.Permit ignored = budget.tryAcquire(4 * KIB, Duration.ZERO)) {
+            long started = System.nanoTime();
+            assertThat(budget.tryAcquire(KIB, Duration.ofMillis(50))).isNull();
+            assertThat(System.nanoTime() - started).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+            assertThat(budget.getWaiting()).isZero();
+        }
+        assertThat(budget.getUsed()).isZero();
+    }
+
+    @Test
+    void releaseIsIdempotent() {
+        ByteBudget budget = new ByteBudget(4 * KIB);
+        ByteBudget.Permit permit = budget.tryAcquire(3 * KIB, Duration.ZERO);
+        permit.close();
+        permit.close();
+        permit.shrinkTo(0);
+
+        assertThat(budget.getUsed()).isZero();
+        // Trả lại hai lần không tạo thêm byte ngoài capacity
+        ByteBudget.Permit all = budget.tryAcquire(4 * KIB, Duration.ZERO);
+        assertThat(all).isNotNull();
+        assertThat(budget.tryAcquire(KIB, Duration.ZERO)).isNull();
+        all.close();
+    }
+
+    @Test
+    void shrinkReturnsUnusedBytes() {
+        ByteBudget budget = new ByteBudget(8 * KIB);
+        try (ByteBudget.Permit permit = budget.tryAcquire(6 * KIB, Duration.ZERO)) {
+            permit.shrinkTo(1000);
+            assertThat(budget.getUsed()).isEqualTo(KIB);
+            // Không nới rộng lại được
+            permit.shrinkTo(6 * KIB);
+            assertThat(budget.getUsed()).isEqualTo(KIB);
+        }
+        assertThat(budget.getUsed()).isZero();
+    }
+
+    @Test
+    void rejectsRequestLargerThanCapacity() {
+        ByteBudget budget = new ByteBudget(4 * KIB);
+        assertThatThrownBy(() -> budget.tryAcquire(5 * KIB, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(budget.getUsed()).isZero();
+        assertThat(budget.getWaiting()).isZero();
+    }
+
+    /** Chờ tới khi {@code thread} đã vào hàng đợi của semaphore (đang park có timeout) */
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(thread.getState()).isEqualTo(Thread.State.TIMED_WAITING);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ColumnarFile: record ghi rồi đọc lại giữ nguyên giá trị và kiểu, kể cả cột lẫn số nguyên/số thực,
+ * field null tường minh và field vắng mặt; đọc theo cột và bỏ qua chunk theo bộ lọc.
+ */
+class ColumnarFileTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsValuesKindsAndNulls() throws IOException {
+        List<ObjectNode> records = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ObjectNode record = MAPPER.createObjectNode();
+            record.put("id", i == 9 ? 9_007_199_254_740_993L : i);
+            record.put("ty_le", i / 4.0);
+            // Lẫn số nguyên và số thực trong cùng chunk
+            if (i % 2 == 0) {
+                record.put("gia_tri", i);
+            } else {
+                record.put("gia_tri", i + 0.5);
+            }
+            record.put("tinh", i % 3 == 0 ? "Hà Nội" : "Huế");
+            record.put("hoat_dong", i % 2 == 0);
+            // null tường minh, vắng mặt và có giá trị
+            if (i % 3 == 1) {
+                record.putNull("ghi_chu");
+            } else if (i % 3 == 2) {
+                record.put("ghi_chu", "sơ bộ, " + i);
+            }
+            if (i == 5) {
+                record.set("toa_do", MAPPER.readTree("{\"lat\":16.05,\"lng\":[108,108.2]}"));
+            }
+            records.add(record);
+        }
+
+        ColumnarFile.Reader reader = write(records, 4);
+
+        assertThat(reader.getRowCount()).isEqualTo(10);
+        assertThat(reader.getChunkCount()).isEqualTo(3);
+        assertThat(reader.getColumns()).containsExactly("id", "ty_le", "gia_tri", "tinh", "hoat_dong", "ghi_chu", "toa_do");
+        // So sánh dạng JSON: cùng giá trị, cùng kiểu số (1 không thành 1.0) và cùng field null/vắng mặt
+        assertThat(MAPPER.writeValueAsString(readAll(reader.cursor(null, null))))
+                .isEqualTo(MAPPER.writeValueAsString(records));
+        assertThat(reader.getChunk(0, "gia_tri").encoding()).isEqualTo(ColumnarFile.Encoding.NUMBER);
+        assertThat(reader.getChunk(0, "ghi_chu").explicitNulls()).isTrue();
+    }
+
+    @Test
+    void numericKindsSurviveRoundTrip() throws IOException {
+        List<ObjectNode> records = List.of(
+                (ObjectNode) MAPPER.readTree("{\"v\":1}"),
+                (ObjectNode) MAPPER.readTree("{\"v\":2.5}"),
+                (ObjectNode) MAPPER.readTree("{\"v\":null}"),
+                (ObjectNode) MAPPER.readTree("{}"),
+                (ObjectNode) MAPPER.readTree("{\"v\":-9223372036854775808}"));
+
+        ColumnarFile.Reader reader = write(records, 8192);
+        JsonNode[] column = reader.readColumn(0, "v");
+
+        assertThat(column[0].isIntegralNumber()).isTrue();
+        assertThat(column[0].asLong()).isEqualTo(1);
+        assertThat(column[1].isDouble()).isTrue();
+        assertThat(column[1].asDouble()).isEqualTo(2.5);
+        assertThat(column[2].isNull()).isTrue();
+        assertThat(column[3]).isNull();
+        assertThat(column[4].asLong()).isEqualTo(Long.MIN_VALUE);
+        assertThat(MAPPER.writeValueAsString(readAll(reader.cursor(null, null))))
+                .isEqualTo(MAPPER.writeValueAsString(records));
+    }
+
+    @Test
+    void projectionAndChunkFilterSkipData() throws IOException {
+        List<ObjectNode> records = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            records.add(MAPPER.createObjectNode().put("id", i).put("ten", "dataset " + i));
+        }
+        ColumnarFile.Reader reader = write(records, 10);
+
+        ColumnarFile.ColumnChunk stats = reader.getChunk(3, "id");
+        assertThat(stats.minNumber().intValue()).isEqualTo(30);
+        assertThat(stats.maxNumber().intValue()).isEqualTo(39);
+
+        List<ObjectNode> projected = readAll(reader.cursor(Set.of("id"), chunk -> chunk == 3));
+        assertThat(projected).hasSize(10);
+        assertThat(projected).allSatisfy(record -> assertThat(record.size()).isEqualTo(1));
+        assertThat(projected.get(0).get("id").asInt()).isEqualTo(30);
+    }
+
+    private ColumnarFile.Reader write(List<ObjectNode> records, int chunkRows) throws IOException {
+        Path path = dir.resolve("dataset" + ColumnarFile.EXTENSION);
+        try (ColumnarFile.Writer writer = new ColumnarFile.Writer(path, chunkRows, 1 << 20)) {
+            for (ObjectNode record : records) {
+                writer.add(record);
+            }
+            writer.finish();
+        }
+        return ColumnarFile.Reader.open(path, MAPPER);
+    }
+
+    private static List<ObjectNode> readAll(RecordCursor cursor) throws IOException {
+        List<ObjectNode> records = new ArrayList<>();
+        try (cursor) {
+            ObjectNode record;
+            while ((record = cursor.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * GroupAggregator: tổng hợp song song trên các chunk của file cột cho cùng kết quả với tổng hợp tuần tự
+ * trên record JSON (cùng nhóm, cùng số dòng, cùng giá trị metric); giá trị nhóm khác loại JSON là nhóm khác nhau.
+ */
+class GroupAggregatorTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final List<String> METRICS = List.of(
+            "count", "count:gia_tri", "sum:gia_tri", "avg:gia_tri", "min:gia_tri", "max:gia_tri", "max:nam");
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void parallelColumnarMatchesSequential() throws IOException {
+        List<ObjectNode> records = generate(50_000);
+        ColumnarFile.Reader reader = write(records, 1024);
+
+        assertSameGroups(aggregator("tinh", 1000).aggregate(reader, pool),
+                aggregator("tinh", 1000).aggregate(cursor(records)));
+        // Không nhóm: cả dataset là một nhóm
+        assertSameGroups(aggregator(null, 1000).aggregate(reader, pool),
+                aggregator(null, 1000).aggregate(cursor(records)));
+    }
+
+    @Test
+    void resultDoesNotDependOnChunkSize() throws IOException {
+        List<ObjectNode> records = generate(20_000);
+        GroupAggregator.Groups small = aggregator("tinh", 1000).aggregate(write(records, 100), pool);
+        GroupAggregator.Groups large = aggregator("tinh", 1000).aggregate(write(records, 8192), pool);
+
+        assertSameGroups(small, large);
+    }
+
+    @Test
+    void tooManyGroupsIsRejectedOnBothPaths() throws IOException {
+        List<ObjectNode> records = generate(5_000);
+        ColumnarFile.Reader reader = write(records, 512);
+
+        assertThatThrownBy(() -> aggregator("tinh", 5).aggregate(reader, pool))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> aggregator("tinh", 5).aggregate(cursor(records)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void groupKeysOfDifferentJsonTypesAreSeparate() throws IOException {
+        List<ObjectNode> records = new ArrayList<>();
+        for (String json : List.of("{\"ma\":1}", "{\"ma\":\"1\"}", "{\"ma\":1}", "{\"ma\":true}", "{\"ma\":\"true\"}")) {
+            records.add((ObjectNode) MAPPER.readTree(json));
+        }
+        GroupAggregator.Groups sequential = aggregator("ma", 100).aggregate(cursor(records));
+
+        assertThat(sequential.size()).isEqualTo(4);
+        assertThat(index(sequential)).containsOnlyKeys("NUMBER 1", "STRING 1", "BOOLEAN true", "STRING true");
+        assertThat(sequential.rows(index(sequential).get("NUMBER 1"))).isEqualTo(2);
+        assertSameGroups(aggregator("ma", 100).aggregate(write(records, 2), pool), sequential);
+    }
+
+    private static GroupAggregator aggregator(String groupBy, int maxGroups) {
+        return new GroupAggregator(groupBy, METRICS.stream().map(GroupAggregator.Metric::parse).toList(), maxGroups);
+    }
+
+    /** Record có nhóm null/vắng mặt, giá trị số, chuỗi số, null và giá trị không phải số */
+    private static List<ObjectNode> generate(int rows) {
+        Random random = new Random(2025);
+        List<ObjectNode> records = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            ObjectNode record = MAPPER.createObjectNode();
+            int province = random.nextInt(25);
+            if (province == 0) {
+                record.putNull("tinh");
+            } else if (province > 1) {
+                record.put("tinh", "Tỉnh " + province);
+            }
+            switch (random.nextInt(6)) {
+                case 0 -> record.putNull("gia_tri");
+                case 1 -> record.put("gia_tri", String.valueOf(random.nextInt(1000) / 4.0));
+                case 2 -> record.put("gia_tri", "không rõ");
+                case 3 -> record.put("gia_tri", random.nextInt(1_000_000));
+                default -> record.put("gia_tri", random.nextGaussian() * 1e4);
+            }
+            record.put("nam", 2000 + random.nextInt(25));
+            records.add(record);
+        }
+        return records;
+    }
+
+    private ColumnarFile.Reader write(List<ObjectNode> records, int chunkRows) throws IOException {
+        Path path = dir.resolve("dataset-" + chunkRows + ColumnarFile.EXTENSION);
+        try (ColumnarFile.Writer writer = new ColumnarFile.Writer(path, chunkRows, 1L << 30)) {
+            for (ObjectNode record : records) {
+                writer.add(record);
+            }
+            writer.finish();
+        }
+        return ColumnarFile.Reader.open(path, MAPPER);
+    }
+
+    private static RecordCursor cursor(List<ObjectNode> records) {
+        Iterator<ObjectNode> iterator = records.iterator();
+        return new RecordCursor() {
+            private long count;
+
+            @Override
+            public ObjectNode next() {
+                if (!iterator.hasNext()) {
+                    return null;
+                }
+                count++;
+                return iterator.next();
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static void assertSameGroups(GroupAggregator.Groups actual, GroupAggregator.Groups expected) {
+        assertThat(actual.getScanned()).isEqualTo(expected.getScanned());
+        assertThat(actual.size()).isEqualTo(expected.size());
+        Map<String, Integer> expectedIndex = index(expected);
+        for (int g = 0; g < actual.size(); g++) {
+            String key = keyText(actual.key(g));
+            assertThat(expectedIndex).containsKey(key);
+            int e = expectedIndex.get(key);
+            assertThat(actual.rows(g)).as("rows of %s", key).isEqualTo(expected.rows(e));
+            for (int m = 0; m < METRICS.size(); m++) {
+                Double value = actual.value(g, m);
+                Double reference = expected.value(e, m);
+                if (reference == null) {
+                    assertThat(value).as("%s of %s", METRICS.get(m), key).isNull();
+                } else {
+                    // Thứ tự cộng khác nhau giữa các chunk: chỉ lệch ở sai số làm tròn
+                    assertThat(value).as("%s of %s", METRICS.get(m), key)
+                            .isCloseTo(reference, within(Math.abs(reference) * 1e-9 + 1e-9));
+                }
+            }
+        }
+    }
+
+    private static Map<String, Integer> index(GroupAggregator.Groups groups) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int g = 0; g < groups.size(); g++) {
+            index.put(keyText(groups.key(g)), g);
+        }
+        return index;
+    }
+
+    private static String keyText(JsonNode key) {
+        return key == null || key.isNull() ? "<null>" : key.getNodeType() + " " + key.asText();
+    }
+}
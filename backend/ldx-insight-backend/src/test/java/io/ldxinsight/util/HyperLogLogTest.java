@@ -0,0 +1,108 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * HyperLogLog: sai số ước lượng trong khoảng 3 lần sai số chuẩn, gộp sketch là hợp của hai tập,
+ * dạng lưu trữ đọc lại cho đúng các thanh ghi.
+ */
+class HyperLogLogTest {
+
+    /** precision 11: sai số chuẩn 1.04 / sqrt(2048) ~ 2.3% */
+    private static final double MAX_RELATIVE_ERROR = 0.07;
+
+    @Test
+    void estimatesDistinctCountWithinErrorBound() {
+        for (int n : new int[]{1_000, 10_000, 200_000}) {
+            HyperLogLog sketch = new HyperLogLog(11);
+            for (int i = 0; i < n; i++) {
+                sketch.offer("viewer-" + i);
+                // Phần tử lặp lại không làm thay đổi ước lượng
+                sketch.offer("viewer-" + (i / 2));
+            }
+            assertThat((double) sketch.estimate()).isCloseTo(n, within(n * MAX_RELATIVE_ERROR));
+        }
+    }
+
+    @Test
+    void smallSetsAreCountedAlmostExactly() {
+        HyperLogLog sketch = new HyperLogLog(11);
+        assertThat(sketch.estimate()).isZero();
+        for (int i = 0; i < 20; i++) {
+            sketch.offer("ip-" + i);
+        }
+        assertThat(sketch.estimate()).isBetween(19L, 21L);
+    }
+
+    @Test
+    void mergeEstimatesTheUnion() {
+        HyperLogLog morning = new HyperLogLog(11);
+        HyperLogLog evening = new HyperLogLog(11);
+        for (int i = 0; i < 60_000; i++) {
+            morning.offer("viewer-" + i);
+        }
+        for (int i = 40_000; i < 100_000; i++) {
+            evening.offer("viewer-" + i);
+        }
+        HyperLogLog union = HyperLogLog.fromBytes(morning.toBytes()).merge(evening);
+
+        assertThat((double) union.estimate()).isCloseTo(100_000, within(100_000 * MAX_RELATIVE_ERROR));
+        // Gộp lại lần nữa không đếm trùng
+        long once = union.estimate();
+        assertThat(union.merge(evening).merge(morning).estimate()).isEqualTo(once);
+    }
+
+    @Test
+    void mergeRejectsDifferentPrecision() {
+        assertThatThrownBy(() -> new HyperLogLog(11).merge(new HyperLogLog(12)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bytesRoundTripKeepsEveryRegister() {
+        HyperLogLog sketch = new HyperLogLog(11);
+        for (int i = 0; i < 50_000; i++) {
+            sketch.offer("dataset-" + i);
+        }
+        byte[] bytes = sketch.toBytes();
+        HyperLogLog copy = HyperLogLog.fromBytes(bytes);
+
+        assertThat(bytes).hasSize(2 + 2048 * 6 / 8);
+        assertThat(copy.getPrecision()).isEqualTo(11);
+        assertThat(copy.toBytes()).isEqualTo(bytes);
+        assertThat(copy.estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void fromBytesRejectsUnknownEncoding() {
+        byte[] bytes = new HyperLogLog(11).toBytes();
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        byte[] otherVersion = bytes.clone();
+        otherVersion[0] = 99;
+
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(truncated)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(otherVersion)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * StripedRateLimiter: bucket đầy cho đúng burst request liên tiếp, sau đó nạp lại theo rate;
+ * các khóa độc lập và bucket rảnh được dọn khỏi bộ nhớ.
+ */
+class StripedRateLimiterTest {
+
+    @Test
+    void allowsBurstThenReportsWaitForNextToken() {
+        // 1 request/giây: token kế tiếp không kịp nạp trong lúc test chạy
+        StripedRateLimiter limiter = new StripedRateLimiter(1, 5, 4, 1000);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        }
+        long wait = limiter.tryAcquire("10.0.0.1");
+
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+        // Khóa khác có bucket riêng
+        assertThat(limiter.tryAcquire("10.0.0.2")).isZero();
+    }
+
+    @Test
+    void refillsAtConfiguredRate() throws InterruptedException {
+        StripedRateLimiter limiter = new StripedRateLimiter(5, 2, 4, 1000);
+        assertThat(limiter.tryAcquire("client")).isZero();
+        assertThat(limiter.tryAcquire("client")).isZero();
+        long wait = limiter.tryAcquire("client");
+        assertThat(wait).isPositive();
+
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(limiter.tryAcquire("client")).isZero();
+        // Chỉ một token được nạp lại trong khoảng chờ đó
+        assertThat(limiter.tryAcquire("client")).isPositive();
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumeTokens() throws InterruptedException {
+        StripedRateLimiter limiter = new StripedRateLimiter(20, 1, 1, 1000);
+        assertThat(limiter.tryAcquire("client")).isZero();
+        long wait = 0;
+        for (int i = 0; i < 100; i++) {
+            wait = Math.max(wait, limiter.tryAcquire("client"));
+        }
+        // Request bị từ chối không đẩy lùi thời điểm có token kế tiếp
+        assertThat(wait).isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(limiter.tryAcquire("client")).isZero();
+    }
+
+    @Test
+    void evictsBucketsThatRefilledCompletely() throws InterruptedException {
+        StripedRateLimiter limiter = new StripedRateLimiter(1000, 2, 4, 1000);
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+        assertThat(limiter.size()).isEqualTo(50);
+
+        TimeUnit.MILLISECONDS.sleep(10);
+        assertThat(limiter.evictIdle()).isEqualTo(50);
+        assertThat(limiter.size()).isZero();
+    }
+
+    @Test
+    void boundsTrackedKeys() {
+        StripedRateLimiter limiter = new StripedRateLimiter(1, 1, 4, 40);
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+        assertThat(limiter.size()).isLessThanOrEqualTo(40);
+    }
+}
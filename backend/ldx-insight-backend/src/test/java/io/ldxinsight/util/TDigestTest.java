@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * TDigest: phân vị ước lượng lệch khỏi phân vị đúng (tính trên dữ liệu đã sắp xếp) không quá 1% theo hạng,
+ * chính xác hơn ở hai đuôi; min/max là giá trị thật.
+ */
+class TDigestTest {
+
+    private static final double[] QUANTILES = {0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999};
+
+    @Test
+    void uniformQuantilesAreAccurate() {
+        Random random = new Random(42);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble() * 1000;
+        }
+        assertRankError(values, 100);
+    }
+
+    @Test
+    void skewedQuantilesAreAccurate() {
+        // Phân phối lệch như số liệu thống kê theo tỉnh: đa số nhỏ, vài giá trị rất lớn
+        Random random = new Random(7);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian() * 2);
+        }
+        assertRankError(values, 100);
+    }
+
+    @Test
+    void tracksSizeMinAndMax() {
+        TDigest digest = new TDigest(100);
+        assertThat(digest.quantile(0.5)).isNaN();
+        for (int i = 1; i <= 1000; i++) {
+            digest.add(i);
+        }
+        assertThat(digest.size()).isEqualTo(1000);
+        assertThat(digest.getMin()).isEqualTo(1);
+        assertThat(digest.getMax()).isEqualTo(1000);
+        assertThat(digest.quantile(0)).isEqualTo(1);
+        assertThat(digest.quantile(1)).isEqualTo(1000);
+    }
+
+    @Test
+    void singleValue() {
+        TDigest digest = new TDigest(100);
+        digest.add(3.5);
+        assertThat(digest.quantile(0.5)).isEqualTo(3.5);
+    }
+
+    private static void assertRankError(double[] values, double compression) {
+        TDigest digest = new TDigest(compression);
+        for (double value : values) {
+            digest.add(value);
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            double estimate = digest.quantile(q);
+            double rank = rank(sorted, estimate);
+            // Đuôi phân phối: sai số theo hạng nhỏ hơn nhiều so với trung vị
+            double tolerance = Math.min(0.01, Math.max(0.0005, 4 * q * (1 - q) * 0.01));
+            assertThat(rank).as("rank of quantile %s", q).isCloseTo(q, within(tolerance));
+        }
+    }
+
+    /** Tỉ lệ giá trị nhỏ hơn hoặc bằng {@code value} */
+    private static double rank(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        int position = index >= 0 ? index + 1 : -index - 1;
+        return (double) position / sorted.length;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2025 Haui.HIT - H2K
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ldxinsight.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TopK (Space-Saving): giá trị có tần suất lớn hơn n/capacity luôn có trong kết quả theo đúng thứ tự,
+ * số đếm thật nằm trong [count - error, count].
+ */
+class TopKTest {
+
+    @Test
+    void findsHeavyHittersAmongNoise() {
+        List<String> stream = new ArrayList<>();
+        Map<String, Integer> exact = new HashMap<>();
+        addCopies(stream, exact, "Hà Nội", 3_000);
+        addCopies(stream, exact, "TP. Hồ Chí Minh", 2_000);
+        addCopies(stream, exact, "Đà Nẵng", 1_000);
+        for (int i = 0; i < 4_000; i++) {
+            addCopies(stream, exact, "xa-" + i, 1);
+        }
+        Collections.shuffle(stream, new Random(11));
+
+        TopK topK = new TopK(50);
+        stream.forEach(topK::add);
+        List<TopK.Item> top = topK.top(3);
+
+        assertThat(top).extracting(TopK.Item::value).containsExactly("Hà Nội", "TP. Hồ Chí Minh", "Đà Nẵng");
+        for (TopK.Item item : top) {
+            int actual = exact.get(item.value());
+            assertThat(item.count()).isGreaterThanOrEqualTo(actual);
+            assertThat(item.count() - item.error()).isLessThanOrEqualTo(actual);
+        }
+    }
+
+    @Test
+    void everyValueAboveThresholdIsReported() {
+        Random random = new Random(3);
+        Map<String, Integer> exact = new HashMap<>();
+        TopK topK = new TopK(20);
+        int n = 50_000;
+        for (int i = 0; i < n; i++) {
+            // Zipf-like: giá trị k xuất hiện với xác suất ~ 1/k
+            String value = "v" + (int) Math.floor(Math.exp(random.nextDouble() * Math.log(5_000)));
+            exact.merge(value, 1, Integer::sum);
+            topK.add(value);
+        }
+        List<String> reported = topK.top(20).stream().map(TopK.Item::value).toList();
+        exact.forEach((value, count) -> {
+            if (count > n / 20) {
+                assertThat(reported).contains(value);
+            }
+        });
+    }
+
+    @Test
+    void exactWhenDistinctValuesFitCapacity() {
+        TopK topK = new TopK(10);
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j <= i; j++) {
+                topK.add("tinh-" + i);
+            }
+        }
+        List<TopK.Item> top = topK.top(10);
+
+        assertThat(top).hasSize(5);
+        assertThat(top.get(0)).isEqualTo(new TopK.Item("tinh-4", 5, 0));
+        assertThat(top).allSatisfy(item -> assertThat(item.error()).isZero());
+        assertThat(topK.top(2)).extracting(TopK.Item::value).containsExactly("tinh-4", "tinh-3");
+    }
+
+    private static void addCopies(List<String> stream, Map<String, Integer> exact, String value, int copies) {
+        for (int i = 0; i < copies; i++) {
+            stream.add(value);
+        }
+        exact.merge(value, copies, Integer::sum);
+    }
+}